@@ -2,8 +2,10 @@ package Petfy.Petfy_Back;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PetfyBackApplication {
 
 	public static void main(String[] args) {
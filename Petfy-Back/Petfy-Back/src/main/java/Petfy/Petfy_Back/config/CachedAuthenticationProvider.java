@@ -0,0 +1,52 @@
+package Petfy.Petfy_Back.config;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * AuthenticationProvider para Basic Auth que consulta CredencialesCache antes de
+ * delegar en el proveedor real (CustomUserDetailsService + BCrypt)
+ * 
+ * En un acierto no se consulta la base de datos ni se ejecuta BCrypt.
+ * La generación del email se lee antes de delegar: si el usuario se invalida mientras se
+ * carga, el resultado (quizás anterior al cambio) no se guarda en el cache.
+ */
+public class CachedAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegado;
+    private final CredencialesCache cache;
+
+    public CachedAuthenticationProvider(AuthenticationProvider delegado, CredencialesCache cache) {
+        this.delegado = delegado;
+        this.cache = cache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        Object credenciales = authentication.getCredentials();
+        if (email == null || credenciales == null) {
+            return delegado.authenticate(authentication);
+        }
+        String password = credenciales.toString();
+
+        UsuarioAutenticado usuario = cache.obtener(email, password);
+        if (usuario != null) {
+            return UsernamePasswordAuthenticationToken.authenticated(usuario, null, usuario.getAuthorities());
+        }
+
+        long generacion = cache.generacion(email);
+        Authentication resultado = delegado.authenticate(authentication);
+        if (resultado != null && resultado.getPrincipal() instanceof UsuarioAutenticado autenticado) {
+            cache.guardar(email, password, autenticado.sinPassword(), generacion);
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegado.supports(authentication);
+    }
+}
@@ -0,0 +1,185 @@
+package Petfy.Petfy_Back.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache en memoria de credenciales ya verificadas (solo para Basic Auth)
+ * 
+ * Evita repetir la consulta a "usuarios" y la verificación BCrypt cuando un
+ * cliente antiguo envía las mismas credenciales en cada petición.
+ * 
+ * - Clave: email; cada entrada guarda un hash (SHA-256 con sal aleatoria del proceso)
+ *   de la contraseña presentada, nunca la contraseña
+ * - Acotada: como máximo maxEntradas, se descarta la menos usada (LRU)
+ * - TTL: una entrada vence ttlSeconds después de guardarse
+ * - Se invalida por email cuando cambia el perfil o el rol (AuthServiceImpl, PaseadorServiceImpl)
+ * - Generación por email: invalidar la incrementa y guardar solo acepta la entrada si la
+ *   generación no cambió desde que se leyó, antes de cargar el usuario. Así una petición que
+ *   leyó el usuario antes del cambio no vuelve a cachear los datos viejos después de invalidar
+ *   (solo hay generación para los emails invalidados alguna vez, a lo sumo uno por usuario)
+ */
+@Component
+public class CredencialesCache {
+
+    private final int maxEntradas;
+    private final long ttlMillis;
+    private final byte[] sal = new byte[16];
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    // LinkedHashMap en orden de acceso: el primer elemento es el menos usado
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    // Protegido por el lock de entradas; un email sin generación está en 0
+    private final Map<String, Long> generaciones = new HashMap<>();
+
+    public CredencialesCache(@Value("${security.credential-cache.max-entries:10000}") int maxEntradas,
+                             @Value("${security.credential-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntradas = maxEntradas;
+        this.ttlMillis = ttlSeconds * 1000;
+        new SecureRandom().nextBytes(sal);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > CredencialesCache.this.maxEntradas) {
+                    desalojos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Busca el usuario autenticado previamente con ese email y contraseña
+     * 
+     * @return UsuarioAutenticado o null si no está en cache, venció o la contraseña no coincide
+     */
+    public UsuarioAutenticado obtener(String email, String password) {
+        byte[] hash = hashSecreto(password);
+        long ahora = System.currentTimeMillis();
+
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(email);
+            if (entrada == null) {
+                fallos.incrementAndGet();
+                return null;
+            }
+            if (entrada.venceEn <= ahora) {
+                entradas.remove(email);
+                desalojos.incrementAndGet();
+                fallos.incrementAndGet();
+                return null;
+            }
+            if (!MessageDigest.isEqual(entrada.hashSecreto, hash)) {
+                fallos.incrementAndGet();
+                return null;
+            }
+            aciertos.incrementAndGet();
+            return entrada.usuario;
+        }
+    }
+
+    /**
+     * Generación actual del email: se lee antes de cargar el usuario y se pasa a guardar()
+     */
+    public long generacion(String email) {
+        synchronized (entradas) {
+            return generaciones.getOrDefault(email, 0L);
+        }
+    }
+
+    /**
+     * Guarda un usuario recién autenticado con BCrypt, salvo que el email se haya invalidado
+     * después de leer generacionLeida (los datos cargados pueden ser anteriores al cambio)
+     *
+     * @return true si se guardó
+     */
+    public boolean guardar(String email, String password, UsuarioAutenticado usuario, long generacionLeida) {
+        Entrada entrada = new Entrada(hashSecreto(password), usuario, System.currentTimeMillis() + ttlMillis);
+        synchronized (entradas) {
+            if (generaciones.getOrDefault(email, 0L) != generacionLeida) {
+                return false;
+            }
+            entradas.put(email, entrada);
+            return true;
+        }
+    }
+
+    /**
+     * Elimina las credenciales cacheadas de un usuario e incrementa su generación
+     */
+    public void invalidar(String email) {
+        synchronized (entradas) {
+            entradas.remove(email);
+            generaciones.merge(email, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Invalida al confirmar la transacción actual (o en el momento si no hay transacción):
+     * antes del commit otra petición todavía leería los datos anteriores y los volvería a
+     * cachear; una que ya los leyó no los guarda porque su generación quedó vieja
+     */
+    public void invalidarAlConfirmar(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidar(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidar(email);
+            }
+        });
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    public int getTamanio() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    public int getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    private byte[] hashSecreto(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(sal);
+            return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record Entrada(byte[] hashSecreto, UsuarioAutenticado usuario, long venceEn) {
+    }
+}
@@ -3,7 +3,6 @@ package Petfy.Petfy_Back.config;
 import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,6 +14,7 @@ import org.springframework.stereotype.Service;
  * Se usa en Basic Auth para:
  * - Buscar usuario por email (username en Spring Security)
  * - Validar credenciales al hacer login
+ * - Armar el UsuarioAutenticado (ids y rol) que reciben los controladores
  * 
  * Conecta con: auth.service.ts -> login() donde se envía email:password
  */
@@ -28,7 +28,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * Carga un usuario por email (usado como username en Basic Auth)
      * 
      * @param email El email del usuario (viene del header Authorization: Basic)
-     * @return UserDetails con la información del usuario
+     * @return UsuarioAutenticado con la información del usuario
      * @throws UsernameNotFoundException Si el usuario no existe
      */
     @Override
@@ -36,11 +36,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
 
-        return User.builder()
-            .username(usuario.getEmail())
-            .password(usuario.getPassword())
-            .roles(usuario.getRol().name())
-            .build();
+        return UsuarioAutenticado.fromEntity(usuario);
     }
 }
 
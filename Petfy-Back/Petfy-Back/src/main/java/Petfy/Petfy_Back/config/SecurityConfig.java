@@ -1,40 +1,65 @@
 package Petfy.Petfy_Back.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Configuración de seguridad para Basic Authentication
+ * Configuración de seguridad con tokens firmados (Bearer)
  * 
- * Se conectaría con el frontend enviando:
- * - Authorization: Basic base64(email:password) en el header
+ * Se conecta con el frontend enviando:
+ * - Authorization: Bearer <accessToken> en el header
  * 
  * El frontend (auth.service.ts) debería:
- * 1. Al hacer login, recibir las credenciales del backend
- * 2. Guardar email:password en base64 en localStorage o sessionStorage
- * 3. Enviar este header en cada petición HTTP al backend
+ * 1. Al hacer login, recibir accessToken y refreshToken del backend
+ * 2. Guardarlos en localStorage
+ * 3. Enviar el accessToken en cada petición HTTP (auth.interceptor.ts)
+ * 4. Renovarlo con POST /api/auth/refresh cuando expire
+ * 
+ * Basic Auth (Authorization: Basic base64(email:password)) queda solo como
+ * alternativa opcional para clientes antiguos: security.basic-auth.enabled=true
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String PASEOS_PENDIENTES = "/api/paseos/pendientes";
+
+    // Feed SSE de paseos pendientes: EventSource no envía headers, el token va en ?token=
+    private static final String FEED_PASEOS_PENDIENTES = "/api/paseos/pendientes/stream";
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private CredencialesCache credencialesCache;
+
+    @Value("${security.basic-auth.enabled:false}")
+    private boolean basicAuthEnabled;
+
     /**
      * Configuración del SecurityFilterChain
      * Define qué endpoints son públicos y cuáles requieren autenticación
@@ -46,27 +71,52 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Configurar CORS
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Stateless para APIs REST
-            .userDetailsService(userDetailsService) // Usar nuestro servicio personalizado
+            .authenticationProvider(basicAuthenticationProvider()) // Basic Auth con cache de credenciales
             .authorizeHttpRequests(auth -> auth
                 // Endpoints públicos (no requieren autenticación)
-                .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
+                // El handshake lo autentica TokenHandshakeInterceptor (token en ?token=)
+                .requestMatchers("/ws/chats").permitAll()
                 
                 // Endpoints protegidos (requieren autenticación)
                 .requestMatchers("/api/auth/**").authenticated()
+                // Solo paseadores ven los paseos pendientes (listado y feed)
+                .requestMatchers(PASEOS_PENDIENTES, FEED_PASEOS_PENDIENTES).hasRole("WALKER")
                 .requestMatchers("/api/paseos/**").authenticated()
                 .requestMatchers("/api/paseadores/**").authenticated()
                 .requestMatchers("/api/calificaciones/**").authenticated()
+                .requestMatchers("/api/chats/**").authenticated()
                 .requestMatchers("/api/usuarios/**").authenticated()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 
                 // Cualquier otro endpoint requiere autenticación
                 .anyRequest().authenticated()
             )
-            .httpBasic(httpBasic -> {}); // Habilitar Basic Auth
+            // Validar el Bearer token antes que cualquier otro mecanismo
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService, Set.of(FEED_PASEOS_PENDIENTES)),
+                BasicAuthenticationFilter.class);
+
+        if (basicAuthEnabled) {
+            http.httpBasic(httpBasic -> {}); // Basic Auth como alternativa opcional
+        } else {
+            http.httpBasic(AbstractHttpConfigurer::disable)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        }
 
         return http.build();
     }
 
+    /**
+     * Proveedor de Basic Auth: CustomUserDetailsService + BCrypt, detrás de CredencialesCache
+     * para no repetir la consulta y el hash cuando el cliente reenvía las mismas credenciales
+     */
+    private CachedAuthenticationProvider basicAuthenticationProvider() {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService);
+        daoProvider.setPasswordEncoder(passwordEncoder());
+        return new CachedAuthenticationProvider(daoProvider, credencialesCache);
+    }
+
     /**
      * Configuración de CORS para permitir peticiones desde el frontend Angular
      * 
@@ -94,7 +144,7 @@ public class SecurityConfig {
      * 
      * Se usaría para:
      * - Encriptar contraseñas al registrar usuarios (register)
-     * - Comparar contraseñas al hacer login
+     * - Comparar contraseñas al hacer login (solo en login, no en cada petición)
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
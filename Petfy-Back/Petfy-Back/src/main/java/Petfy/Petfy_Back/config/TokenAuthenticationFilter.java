@@ -0,0 +1,70 @@
+package Petfy.Petfy_Back.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Filtro que autentica peticiones con "Authorization: Bearer <accessToken>"
+ *
+ * La validación es solo un HMAC sobre el token (ver TokenService), sin BCrypt
+ * ni consulta a la base de datos. Si el header no es Bearer o el token no es
+ * válido, la petición sigue sin autenticar y la decide el resto de la cadena
+ * (Basic Auth si está habilitado, o 401).
+ *
+ * En las rutas de rutasConTokenEnQuery también se acepta el token en ?token=: son streams
+ * que abre EventSource en el navegador, que no puede enviar headers (igual que el handshake
+ * de WebSocket en TokenHandshakeInterceptor).
+ *
+ * No es un @Component para que Spring Boot no lo registre también como filtro
+ * de servlet global; se agrega a la cadena en SecurityConfig.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    private final Set<String> rutasConTokenEnQuery;
+
+    public TokenAuthenticationFilter(TokenService tokenService, Set<String> rutasConTokenEnQuery) {
+        this.tokenService = tokenService;
+        this.rutasConTokenEnQuery = rutasConTokenEnQuery;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String token = null;
+        if (header != null && header.startsWith(PREFIJO_BEARER)) {
+            token = header.substring(PREFIJO_BEARER.length()).trim();
+        } else if (rutasConTokenEnQuery.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+            token = request.getParameter("token");
+        }
+
+        if (token != null) {
+            TokenService.TokenClaims claims = tokenService.validar(token, TokenService.TIPO_ACCESS);
+
+            if (claims != null) {
+                UsuarioAutenticado usuario = UsuarioAutenticado.fromClaims(claims);
+                UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    usuario, null, usuario.getAuthorities());
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,59 @@
+package Petfy.Petfy_Back.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Autentica el handshake de WebSocket y guarda el ID del usuario en la sesión
+ *
+ * El WebSocket del navegador no puede enviar "Authorization", así que además del usuario
+ * ya autenticado por la cadena de seguridad se acepta el access token en ?token=.
+ * Sin usuario, el handshake responde 401.
+ */
+public class TokenHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String ATRIBUTO_USUARIO_ID = "usuarioId";
+
+    private final TokenService tokenService;
+
+    public TokenHandshakeInterceptor(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Long usuarioId = null;
+        if (request.getPrincipal() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            usuarioId = usuario.getUsuarioId();
+        } else if (request instanceof ServletServerHttpRequest servletRequest) {
+            String token = servletRequest.getServletRequest().getParameter("token");
+            TokenService.TokenClaims claims = token != null
+                ? tokenService.validar(token, TokenService.TIPO_ACCESS)
+                : null;
+            if (claims != null) {
+                usuarioId = claims.getUid();
+            }
+        }
+
+        if (usuarioId == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(ATRIBUTO_USUARIO_ID, usuarioId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,196 @@
+package Petfy.Petfy_Back.config;
+
+import Petfy.Petfy_Back.model.Usuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Servicio para emitir y validar tokens de acceso firmados (formato JWT, HS256)
+ *
+ * Reemplaza la verificación BCrypt por petición de Basic Auth:
+ * - Al hacer login se emite un access token (corto) y un refresh token (largo)
+ * - Cada petición valida el token con un HMAC, sin consultar la base de datos
+ *
+ * Conecta con: auth.interceptor.ts -> Authorization: Bearer <accessToken>
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Cabecera fija {"alg":"HS256","typ":"JWT"} ya codificada
+    private static final String HEADER = ENCODER.encodeToString(
+        "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    public static final String TIPO_ACCESS = "access";
+    public static final String TIPO_REFRESH = "refresh";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${security.token.secret:}")
+    private String secret;
+
+    @Value("${security.token.access-ttl-seconds:900}")
+    private long accessTtlSeconds;
+
+    @Value("${security.token.refresh-ttl-seconds:604800}")
+    private long refreshTtlSeconds;
+
+    private SecretKeySpec clave;
+
+    // Mac no es thread-safe: una instancia por hilo evita sincronizar en cada petición
+    private final ThreadLocal<Mac> macPorHilo = ThreadLocal.withInitial(this::crearMac);
+
+    @PostConstruct
+    void init() {
+        byte[] bytesClave;
+        if (secret == null || secret.isBlank()) {
+            // Sin secreto configurado se genera uno aleatorio: los tokens no sobreviven a un reinicio
+            log.warn("security.token.secret no está configurado; se usará una clave aleatoria");
+            bytesClave = new byte[32];
+            new SecureRandom().nextBytes(bytesClave);
+        } else {
+            bytesClave = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        clave = new SecretKeySpec(bytesClave, ALGORITMO);
+    }
+
+    /**
+     * Genera un access token para el usuario
+     */
+    public String generarAccessToken(Usuario usuario) {
+        return generarToken(usuario, TIPO_ACCESS, accessTtlSeconds);
+    }
+
+    /**
+     * Genera un refresh token para el usuario
+     */
+    public String generarRefreshToken(Usuario usuario) {
+        return generarToken(usuario, TIPO_REFRESH, refreshTtlSeconds);
+    }
+
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    /**
+     * Valida firma, tipo y expiración de un token
+     *
+     * @param token Token recibido
+     * @param tipoEsperado TIPO_ACCESS o TIPO_REFRESH
+     * @return Claims del token o null si no es válido
+     */
+    public TokenClaims validar(String token, String tipoEsperado) {
+        if (token == null) {
+            return null;
+        }
+
+        int primerPunto = token.indexOf('.');
+        int ultimoPunto = token.lastIndexOf('.');
+        if (primerPunto < 0 || primerPunto == ultimoPunto) {
+            return null;
+        }
+
+        String contenidoFirmado = token.substring(0, ultimoPunto);
+        if (!HEADER.equals(token.substring(0, primerPunto))) {
+            return null;
+        }
+
+        try {
+            byte[] firmaRecibida = DECODER.decode(token.substring(ultimoPunto + 1));
+            byte[] firmaEsperada = firmar(contenidoFirmado);
+            if (!MessageDigest.isEqual(firmaRecibida, firmaEsperada)) {
+                return null;
+            }
+
+            byte[] payload = DECODER.decode(token.substring(primerPunto + 1, ultimoPunto));
+            TokenClaims claims = objectMapper.readValue(payload, TokenClaims.class);
+
+            if (!tipoEsperado.equals(claims.getTyp())) {
+                return null;
+            }
+            if (claims.getExp() <= Instant.now().getEpochSecond()) {
+                return null;
+            }
+            return claims;
+        } catch (IllegalArgumentException | IOException e) {
+            // Base64 o JSON mal formado
+            return null;
+        }
+    }
+
+    private String generarToken(Usuario usuario, String tipo, long ttlSeconds) {
+        long ahora = Instant.now().getEpochSecond();
+        TokenClaims claims = new TokenClaims(
+            usuario.getEmail(),
+            usuario.getId(),
+            usuario.getPaseador() != null ? usuario.getPaseador().getId() : null,
+            usuario.getRol().name(),
+            tipo,
+            ahora,
+            ahora + ttlSeconds
+        );
+
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String contenidoFirmado = HEADER + "." + payload;
+            return contenidoFirmado + "." + ENCODER.encodeToString(firmar(contenidoFirmado));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo generar el token", e);
+        }
+    }
+
+    private byte[] firmar(String contenido) {
+        return macPorHilo.get().doFinal(contenido.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac crearMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+        }
+    }
+
+    /**
+     * Contenido (payload) de un token
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TokenClaims {
+        private String sub;  // Email del usuario
+        private Long uid;    // ID del usuario
+        private Long pid;    // ID del paseador (null si no es paseador)
+        private String rol;  // Usuario.RolUsuario
+        private String typ;  // "access" o "refresh"
+        private long iat;
+        private long exp;
+    }
+}
@@ -0,0 +1,68 @@
+package Petfy.Petfy_Back.config;
+
+import Petfy.Petfy_Back.model.Usuario;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal de Spring Security con los datos del usuario que usan los controladores
+ * 
+ * Se arma una sola vez al autenticar (desde el token o desde CustomUserDetailsService)
+ * y llega a los controladores con UsuarioAutenticadoArgumentResolver, así los
+ * endpoints no vuelven a buscar el usuario por email en cada petición.
+ * 
+ * getUsername() devuelve el email, por lo que authentication.getName() sigue funcionando.
+ */
+@Getter
+@AllArgsConstructor
+public class UsuarioAutenticado implements UserDetails {
+
+    private final Long usuarioId;
+    private final Long paseadorId; // Null si el usuario no es paseador
+    private final Usuario.RolUsuario rol;
+    private final String email;
+    private final String password; // Solo se completa en Basic Auth (hash BCrypt), null con token
+
+    public static UsuarioAutenticado fromEntity(Usuario usuario) {
+        return new UsuarioAutenticado(
+            usuario.getId(),
+            usuario.getPaseador() != null ? usuario.getPaseador().getId() : null,
+            usuario.getRol(),
+            usuario.getEmail(),
+            usuario.getPassword()
+        );
+    }
+
+    public static UsuarioAutenticado fromClaims(TokenService.TokenClaims claims) {
+        return new UsuarioAutenticado(
+            claims.getUid(),
+            claims.getPid(),
+            Usuario.RolUsuario.valueOf(claims.getRol()),
+            claims.getSub(),
+            null
+        );
+    }
+
+    /**
+     * Copia sin el hash de la contraseña (para guardarla en CredencialesCache)
+     */
+    public UsuarioAutenticado sinPassword() {
+        return new UsuarioAutenticado(usuarioId, paseadorId, rol, email, null);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + rol.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,36 @@
+package Petfy.Petfy_Back.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Inyecta el UsuarioAutenticado de la petición en los métodos de los controladores
+ * 
+ * Uso: public ResponseEntity<...> endpoint(UsuarioAutenticado usuario)
+ * 
+ * Solo lee el principal que ya dejó el filtro de autenticación, sin consultar la base de datos.
+ */
+public class UsuarioAutenticadoArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UsuarioAutenticado.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !(authentication.getPrincipal() instanceof UsuarioAutenticado usuario)) {
+            throw new AuthenticationCredentialsNotFoundException("Usuario no autenticado");
+        }
+        return usuario;
+    }
+}
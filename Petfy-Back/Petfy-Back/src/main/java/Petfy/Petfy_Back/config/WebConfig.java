@@ -0,0 +1,22 @@
+package Petfy.Petfy_Back.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuración de Spring MVC
+ * 
+ * Registra UsuarioAutenticadoArgumentResolver para que los controladores
+ * reciban el usuario autenticado como parámetro
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new UsuarioAutenticadoArgumentResolver());
+    }
+}
@@ -0,0 +1,33 @@
+package Petfy.Petfy_Back.config;
+
+import Petfy.Petfy_Back.controller.ChatWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Configuración de WebSocket
+ *
+ * Registra /ws/chats, por donde cada usuario recibe los mensajes nuevos de sus chats.
+ * Tomcat atiende las conexiones con NIO: una conexión inactiva no ocupa un hilo
+ * (el máximo de conexiones abiertas es server.tomcat.max-connections).
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private ChatWebSocketHandler chatWebSocketHandler;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(chatWebSocketHandler, "/ws/chats")
+            .addInterceptors(new TokenHandshakeInterceptor(tokenService))
+            .setAllowedOrigins("http://localhost:4200");
+    }
+}
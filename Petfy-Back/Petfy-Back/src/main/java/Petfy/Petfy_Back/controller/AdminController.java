@@ -0,0 +1,260 @@
+package Petfy.Petfy_Back.controller;
+
+import Petfy.Petfy_Back.config.CredencialesCache;
+import Petfy.Petfy_Back.config.UsuarioAutenticado;
+import Petfy.Petfy_Back.dto.request.CursorSolicitud;
+import Petfy.Petfy_Back.dto.request.RevisionSolicitudesRequest;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.CacheMetricasResponse;
+import Petfy.Petfy_Back.dto.response.ColaCalificacionesMetricasResponse;
+import Petfy.Petfy_Back.dto.response.ChatsMetricasResponse;
+import Petfy.Petfy_Back.dto.response.MiniaturasMetricasResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
+import Petfy.Petfy_Back.service.AlmacenDocumentos;
+import Petfy.Petfy_Back.service.ColaCalificaciones;
+import Petfy.Petfy_Back.service.EnvioDocumentos;
+import Petfy.Petfy_Back.service.ImportacionService;
+import Petfy.Petfy_Back.service.LecturasChat;
+import Petfy.Petfy_Back.service.MiniaturasDocumentos;
+import Petfy.Petfy_Back.service.PaseadorService;
+import Petfy.Petfy_Back.service.SesionesChat;
+import Petfy.Petfy_Back.service.SolicitudService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * Controlador de administración
+ * 
+ * Solo accesible para usuarios con rol ADMIN (ver SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:4200")
+public class AdminController {
+
+    private static final String SOLICITUDES_SIZE_POR_DEFECTO = "50";
+
+    @Autowired
+    private CredencialesCache credencialesCache;
+
+    @Autowired
+    private ColaCalificaciones colaCalificaciones;
+
+    @Autowired
+    private SesionesChat sesionesChat;
+
+    @Autowired
+    private LecturasChat lecturasChat;
+
+    @Autowired
+    private PaseadorService paseadorService;
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Autowired
+    private EnvioDocumentos envioDocumentos;
+
+    @Autowired
+    private MiniaturasDocumentos miniaturasDocumentos;
+
+    @Autowired
+    private SolicitudService solicitudService;
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    /**
+     * Métricas de la cache de credenciales de Basic Auth
+     * 
+     * GET /api/admin/metricas/credenciales
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: CacheMetricasResponse
+     */
+    @GetMapping("/metricas/credenciales")
+    public ResponseEntity<CacheMetricasResponse> obtenerMetricasCredenciales() {
+        return ResponseEntity.ok(CacheMetricasResponse.fromCache(credencialesCache));
+    }
+
+    /**
+     * Métricas de la cola de calificaciones pendientes de sumar a los paseadores
+     * 
+     * GET /api/admin/metricas/calificaciones
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: ColaCalificacionesMetricasResponse
+     */
+    @GetMapping("/metricas/calificaciones")
+    public ResponseEntity<ColaCalificacionesMetricasResponse> obtenerMetricasCalificaciones() {
+        return ResponseEntity.ok(ColaCalificacionesMetricasResponse.fromCola(colaCalificaciones));
+    }
+
+    /**
+     * Métricas de las conexiones WebSocket de chat y de las lecturas pendientes
+     * 
+     * GET /api/admin/metricas/chats
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: ChatsMetricasResponse
+     */
+    @GetMapping("/metricas/chats")
+    public ResponseEntity<ChatsMetricasResponse> obtenerMetricasChats() {
+        return ResponseEntity.ok(ChatsMetricasResponse.fromSesiones(sesionesChat, lecturasChat));
+    }
+
+    /**
+     * Imagen del documento de identidad de un paseador, para revisar su solicitud
+     * 
+     * GET /api/admin/paseadores/{id}/documento
+     * Header: Authorization: Bearer <accessToken>
+     * Headers opcionales: Range, If-Range, If-None-Match
+     * 
+     * Response: el archivo (200), una parte (206) o 304 si el ETag no cambió
+     */
+    @GetMapping("/paseadores/{id}/documento")
+    public void descargarDocumentoPaseador(@PathVariable Long id,
+                                           HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        AlmacenDocumentos.DocumentoAlmacenado documento = paseadorService.obtenerRutaDocumento(id)
+            .flatMap(almacenDocumentos::leer)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Documento no encontrado"));
+        envioDocumentos.enviar(documento, request, response);
+    }
+
+    /**
+     * Miniatura JPEG del documento de un paseador (unos pocos KB), para la lista de revisión
+     * 
+     * GET /api/admin/paseadores/{id}/miniatura
+     * Header: Authorization: Bearer <accessToken>
+     * Headers opcionales: Range, If-Range, If-None-Match
+     * 
+     * Response: la miniatura, o 404 si todavía no se generó (usar /documento)
+     */
+    @GetMapping("/paseadores/{id}/miniatura")
+    public void descargarMiniaturaPaseador(@PathVariable Long id,
+                                           HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        AlmacenDocumentos.DocumentoAlmacenado miniatura = paseadorService.obtenerRutaMiniatura(id)
+            .flatMap(almacenDocumentos::leer)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Miniatura no encontrada"));
+        envioDocumentos.enviar(miniatura, request, response);
+    }
+
+    /**
+     * Métricas de la generación de miniaturas de documentos
+     * 
+     * GET /api/admin/metricas/miniaturas
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: MiniaturasMetricasResponse
+     */
+    @GetMapping("/metricas/miniaturas")
+    public ResponseEntity<MiniaturasMetricasResponse> obtenerMetricasMiniaturas() {
+        return ResponseEntity.ok(MiniaturasMetricasResponse.fromMiniaturas(miniaturasDocumentos));
+    }
+
+    /**
+     * Cola de revisión: solicitudes de paseador pendientes, de la más vieja a la más nueva
+     * 
+     * GET /api/admin/solicitudes?cursor={next}&size=50
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: { items: List<SolicitudResponse>, next, size }
+     */
+    @GetMapping("/solicitudes")
+    public ResponseEntity<PaginaResponse<SolicitudResponse>> obtenerSolicitudesPendientes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = SOLICITUDES_SIZE_POR_DEFECTO) int size) {
+        return ResponseEntity.ok(solicitudService.obtenerPendientes(leerCursorSolicitud(cursor), size));
+    }
+
+    /**
+     * Aprueba varias solicitudes pendientes en una sola transacción
+     * 
+     * POST /api/admin/solicitudes/aprobar
+     * Header: Authorization: Bearer <accessToken>
+     * Body: { ids: [1, 2, 3], comment }
+     * 
+     * Response: ApiResponse con la cantidad aprobada (las que ya no estaban pendientes no cuentan)
+     */
+    @PostMapping("/solicitudes/aprobar")
+    public ResponseEntity<ApiResponse<Integer>> aprobarSolicitudes(
+            @Valid @RequestBody RevisionSolicitudesRequest request,
+            UsuarioAutenticado admin) {
+        return ResponseEntity.ok(solicitudService.aprobar(admin.getUsuarioId(), request.getIds(), request.getComment()));
+    }
+
+    /**
+     * Rechaza varias solicitudes pendientes en una sola transacción
+     * 
+     * POST /api/admin/solicitudes/rechazar
+     * Header: Authorization: Bearer <accessToken>
+     * Body: { ids: [1, 2, 3], comment }
+     * 
+     * Response: ApiResponse con la cantidad rechazada (las que ya no estaban pendientes no cuentan)
+     */
+    @PostMapping("/solicitudes/rechazar")
+    public ResponseEntity<ApiResponse<Integer>> rechazarSolicitudes(
+            @Valid @RequestBody RevisionSolicitudesRequest request,
+            UsuarioAutenticado admin) {
+        return ResponseEntity.ok(solicitudService.rechazar(admin.getUsuarioId(), request.getIds(), request.getComment()));
+    }
+
+    /**
+     * Importa paseos terminados desde un CSV (ver ImportacionService.importarPaseos)
+     * 
+     * POST /api/admin/importaciones/paseos
+     * Header: Authorization: Bearer <accessToken>
+     * Header: Content-Type: text/csv
+     * Body: el archivo, sin multipart (curl --data-binary @paseos.csv)
+     * 
+     * Response: ApiResponse con la cantidad importada, o el error de la primera fila inválida
+     */
+    @PostMapping(value = "/importaciones/paseos", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<Integer>> importarPaseos(HttpServletRequest request) throws IOException {
+        ApiResponse<Integer> response = importacionService.importarPaseos(request.getInputStream());
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Importa calificaciones desde un CSV (ver ImportacionService.importarCalificaciones)
+     * 
+     * POST /api/admin/importaciones/calificaciones
+     * Header: Authorization: Bearer <accessToken>
+     * Header: Content-Type: text/csv
+     * Body: el archivo, sin multipart (curl --data-binary @calificaciones.csv)
+     * 
+     * Response: ApiResponse con la cantidad importada, o el error de la primera fila inválida
+     */
+    @PostMapping(value = "/importaciones/calificaciones", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<Integer>> importarCalificaciones(HttpServletRequest request) throws IOException {
+        ApiResponse<Integer> response = importacionService.importarCalificaciones(request.getInputStream());
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    private CursorSolicitud leerCursorSolicitud(String cursor) {
+        try {
+            return CursorSolicitud.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package Petfy.Petfy_Back.controller;
 
 import Petfy.Petfy_Back.dto.request.LoginRequest;
+import Petfy.Petfy_Back.dto.request.RefreshTokenRequest;
 import Petfy.Petfy_Back.dto.request.RegisterRequest;
 import Petfy.Petfy_Back.dto.request.UpdateUsuarioRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.LoginResponse;
 import Petfy.Petfy_Back.dto.response.UsuarioResponse;
 import Petfy.Petfy_Back.service.AuthService;
 import jakarta.validation.Valid;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
  * - register.component.ts -> POST /api/auth/register
  * - auth.service.ts -> GET /api/auth/current-user
  * - auth.service.ts -> POST /api/auth/logout
+ * - auth.interceptor.ts -> POST /api/auth/refresh
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -38,11 +41,11 @@ public class AuthController {
      * POST /api/auth/register
      * Body: { username, email, password, confirmPassword }
      * 
-     * Response: { success: true/false, message: "...", data: UsuarioResponse }
+     * Response: { success: true/false, message: "...", data: LoginResponse }
      */
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<UsuarioResponse>> register(@Valid @RequestBody RegisterRequest request) {
-        ApiResponse<UsuarioResponse> response = authService.register(request);
+    public ResponseEntity<ApiResponse<LoginResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        ApiResponse<LoginResponse> response = authService.register(request);
         
         if (response.isSuccess()) {
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -59,13 +62,35 @@ public class AuthController {
      * POST /api/auth/login
      * Body: { email, password }
      * 
-     * Response: { success: true/false, message: "...", data: UsuarioResponse }
+     * Response: { success: true/false, message: "...", data: LoginResponse }
      * 
-     * Nota: En Basic Auth, las credenciales también se envían en el header Authorization
+     * Nota: La contraseña se verifica con BCrypt solo aquí; el resto de las peticiones
+     * usan el accessToken devuelto en el header Authorization: Bearer
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<UsuarioResponse>> login(@Valid @RequestBody LoginRequest request) {
-        ApiResponse<UsuarioResponse> response = authService.login(request);
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+        ApiResponse<LoginResponse> response = authService.login(request);
+        
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+    }
+
+    /**
+     * Renueva el accessToken
+     * 
+     * Frontend: auth.interceptor.ts -> cuando una petición devuelve 401
+     * 
+     * POST /api/auth/refresh
+     * Body: { refreshToken }
+     * 
+     * Response: { success: true/false, message: "...", data: LoginResponse }
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<LoginResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        ApiResponse<LoginResponse> response = authService.refrescarToken(request);
         
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
@@ -80,7 +105,7 @@ public class AuthController {
      * Frontend: auth.service.ts -> getCurrentUser()
      * 
      * GET /api/auth/current-user
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: UsuarioResponse
      */
@@ -97,7 +122,7 @@ public class AuthController {
      * Frontend: profile.component.ts -> updateProfile()
      * 
      * PUT /api/auth/profile
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * Body: { username }
      * 
      * Response: { success: true/false, message: "...", data: UsuarioResponse }
@@ -123,13 +148,11 @@ public class AuthController {
      * 
      * POST /api/auth/logout
      * 
-     * Nota: En Basic Auth stateless, el logout se maneja en el frontend
-     * eliminando las credenciales del localStorage
+     * Nota: Los tokens son stateless, el logout se maneja en el frontend
+     * eliminando los tokens del localStorage
      */
     @PostMapping("/logout")
     public ResponseEntity<ApiResponse<Void>> logout() {
-        // TODO: En Basic Auth stateless, el logout es principalmente del lado del cliente
-        // Se puede usar para invalidar tokens si se implementa JWT en el futuro
         
         authService.logout();
         return ResponseEntity.ok(ApiResponse.success("Sesión cerrada exitosamente"));
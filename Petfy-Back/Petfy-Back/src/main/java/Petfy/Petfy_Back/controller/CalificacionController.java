@@ -1,15 +1,13 @@
 package Petfy.Petfy_Back.controller;
 
+import Petfy.Petfy_Back.config.UsuarioAutenticado;
 import Petfy.Petfy_Back.dto.request.CalificacionRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
-import Petfy.Petfy_Back.model.Usuario;
-import Petfy.Petfy_Back.repository.UsuarioRepository;
 import Petfy.Petfy_Back.service.CalificacionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -32,20 +30,16 @@ public class CalificacionController {
      * Frontend: history.component.ts -> submitRating()
      * 
      * POST /api/calificaciones
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * Body: { calificacion, tipo, paseoId, comentario }
      * 
      * Response: { success: true, message: "..." }
      */
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
     @PostMapping
     public ResponseEntity<ApiResponse<Void>> crearCalificacion(
             @Valid @RequestBody CalificacionRequest request,
-            Authentication authentication) {
-        Long usuarioId = obtenerUsuarioId(authentication);
-        ApiResponse<Void> response = calificacionService.crearCalificacion(usuarioId, request);
+            UsuarioAutenticado usuario) {
+        ApiResponse<Void> response = calificacionService.crearCalificacion(usuario.getUsuarioId(), request);
         
         if (response.isSuccess()) {
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -53,13 +47,5 @@ public class CalificacionController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
     }
-
-    // Método auxiliar
-    private Long obtenerUsuarioId(Authentication authentication) {
-        String email = authentication.getName();
-        Usuario usuario = usuarioRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        return usuario.getId();
-    }
 }
 
@@ -0,0 +1,200 @@
+package Petfy.Petfy_Back.controller;
+
+import Petfy.Petfy_Back.config.UsuarioAutenticado;
+import Petfy.Petfy_Back.dto.request.ChatRequest;
+import Petfy.Petfy_Back.dto.request.CursorChat;
+import Petfy.Petfy_Back.dto.request.CursorMensaje;
+import Petfy.Petfy_Back.dto.request.MensajeRequest;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+import Petfy.Petfy_Back.dto.response.ChatResponse;
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+import Petfy.Petfy_Back.dto.response.NoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.service.ChatService;
+import Petfy.Petfy_Back.service.LecturasChat;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Controlador para los chats entre clientes y paseadores
+ * 
+ * Mapea los endpoints del frontend:
+ * - chat.component.ts -> GET /api/chats -> bandeja de entrada paginada
+ * - chat.component.ts -> POST /api/chats -> obtener o crear chat con otro usuario
+ * - chat.component.ts -> GET /api/chats/{id}/mensajes -> obtener mensajes paginados
+ * - chat.component.ts -> POST /api/chats/{id}/mensajes -> enviar mensaje
+ * - chat.component.ts -> PUT /api/chats/{id}/leidos -> marcar mensajes como leídos
+ * - chat.component.ts -> GET /api/chats/no-leidos -> mensajes sin leer por chat
+ */
+@RestController
+@RequestMapping("/api/chats")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ChatController {
+
+    private static final String PAGE_SIZE_POR_DEFECTO = "50";
+    private static final String BANDEJA_SIZE_POR_DEFECTO = "20";
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private LecturasChat lecturasChat;
+
+    /**
+     * Obtiene la bandeja de entrada del usuario, paginada por cursor
+     * 
+     * Frontend: chat.component.ts -> loadChats()
+     * 
+     * GET /api/chats?cursor={next}&size=20
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: { items: List<ChatBandejaResponse> (más reciente primero), next, size }
+     */
+    @GetMapping
+    public ResponseEntity<PaginaResponse<ChatBandejaResponse>> obtenerBandeja(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = BANDEJA_SIZE_POR_DEFECTO) int size,
+            UsuarioAutenticado usuario) {
+        PaginaResponse<ChatBandejaResponse> chats = chatService.obtenerBandeja(
+            usuario.getUsuarioId(), leerCursorChat(cursor), size);
+        return ResponseEntity.ok(chats);
+    }
+
+    /**
+     * Obtiene el chat con otro usuario, creándolo si no existe
+     * 
+     * Frontend: chat.component.ts -> openChat()
+     * 
+     * POST /api/chats
+     * Header: Authorization: Bearer <accessToken>
+     * Body: { usuarioId }
+     * 
+     * Response: { success: true, message: "...", data: ChatResponse }
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ChatResponse>> obtenerOCrearChat(
+            @Valid @RequestBody ChatRequest request,
+            UsuarioAutenticado usuario) {
+        ApiResponse<ChatResponse> response = chatService.obtenerOCrearChat(usuario.getUsuarioId(), request.getUsuarioId());
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Obtiene mensajes del chat, paginados por cursor
+     * 
+     * Frontend: chat.component.ts -> loadMessages()
+     * 
+     * GET /api/chats/{id}/mensajes?size=50                 -> últimos mensajes
+     * GET /api/chats/{id}/mensajes?antes={next}&size=50    -> mensajes anteriores (historial)
+     * GET /api/chats/{id}/mensajes?despues={cursor}&size=50 -> mensajes nuevos
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: { items: List<MensajeResponse> (del más viejo al más nuevo), next, size }
+     */
+    @GetMapping("/{id}/mensajes")
+    public ResponseEntity<PaginaResponse<MensajeResponse>> obtenerMensajes(
+            @PathVariable Long id,
+            @RequestParam(required = false) String antes,
+            @RequestParam(required = false) String despues,
+            @RequestParam(defaultValue = PAGE_SIZE_POR_DEFECTO) int size,
+            UsuarioAutenticado usuario) {
+        verificarParticipante(id, usuario);
+        PaginaResponse<MensajeResponse> mensajes = chatService.obtenerMensajes(
+            id, leerCursor(antes), leerCursor(despues), size);
+        return ResponseEntity.ok(mensajes);
+    }
+
+    /**
+     * Envía un mensaje al chat
+     * 
+     * Frontend: chat.component.ts -> sendMessage()
+     * 
+     * POST /api/chats/{id}/mensajes
+     * Header: Authorization: Bearer <accessToken>
+     * Body: { contenido }
+     * 
+     * Response: { success: true, message: "...", data: MensajeResponse }
+     */
+    @PostMapping("/{id}/mensajes")
+    public ResponseEntity<ApiResponse<MensajeResponse>> enviarMensaje(
+            @PathVariable Long id,
+            @Valid @RequestBody MensajeRequest request,
+            UsuarioAutenticado usuario) {
+        verificarParticipante(id, usuario);
+        ApiResponse<MensajeResponse> response = chatService.enviarMensaje(id, usuario.getUsuarioId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Marca como leídos los mensajes recibidos en el chat hasta un mensaje (inclusive)
+     * 
+     * Frontend: chat.component.ts -> markAsRead() (al desplazarse por la conversación)
+     * 
+     * PUT /api/chats/{id}/leidos?hasta={mensajeId}
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Los avisos seguidos se juntan (LecturasChat) y se escriben una vez por intervalo,
+     * por eso responde 202 sin esperar la escritura
+     * 
+     * Response: { success: true, message: "..." }
+     */
+    @PutMapping("/{id}/leidos")
+    public ResponseEntity<ApiResponse<Void>> marcarLeidos(
+            @PathVariable Long id,
+            @RequestParam Long hasta,
+            UsuarioAutenticado usuario) {
+        verificarParticipante(id, usuario);
+        lecturasChat.registrar(id, usuario.getUsuarioId(), hasta);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Lectura registrada"));
+    }
+
+    /**
+     * Obtiene los mensajes sin leer del usuario, en total y por chat
+     * 
+     * Frontend: chat.component.ts -> loadUnread()
+     * 
+     * GET /api/chats/no-leidos
+     * Header: Authorization: Bearer <accessToken>
+     * 
+     * Response: { total, chats: [{ chatId, unread }] }
+     */
+    @GetMapping("/no-leidos")
+    public ResponseEntity<NoLeidosResponse> obtenerNoLeidos(UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(chatService.obtenerNoLeidos(usuario.getUsuarioId()));
+    }
+
+    // Métodos auxiliares
+
+    // Un chat ajeno responde igual que uno inexistente
+    private void verificarParticipante(Long chatId, UsuarioAutenticado usuario) {
+        if (!chatService.esParticipante(chatId, usuario.getUsuarioId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat no encontrado");
+        }
+    }
+
+    private CursorChat leerCursorChat(String cursor) {
+        try {
+            return CursorChat.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    private CursorMensaje leerCursor(String cursor) {
+        try {
+            return CursorMensaje.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package Petfy.Petfy_Back.controller;
+
+import Petfy.Petfy_Back.config.TokenHandshakeInterceptor;
+import Petfy.Petfy_Back.service.SesionesChat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * WebSocket de chats
+ * 
+ * Frontend: chat.component.ts -> new WebSocket("ws://.../ws/chats?token=<accessToken>")
+ * 
+ * Solo de salida: el servidor envía un ChatEventoResponse (JSON) por cada mensaje nuevo en los
+ * chats del usuario. Los mensajes se envían con POST /api/chats/{id}/mensajes. Si la conexión
+ * se corta, el cliente reconecta y recupera lo perdido con GET /api/chats/{id}/mensajes?despues=
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    @Autowired
+    private SesionesChat sesionesChat;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        Long usuarioId = (Long) session.getAttributes().get(TokenHandshakeInterceptor.ATRIBUTO_USUARIO_ID);
+        sesionesChat.registrar(session, usuarioId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // El cliente no envía mensajes por aquí
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        sesionesChat.quitar(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sesionesChat.quitar(session);
+    }
+}
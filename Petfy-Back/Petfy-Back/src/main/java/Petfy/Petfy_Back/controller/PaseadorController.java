@@ -1,17 +1,22 @@
 package Petfy.Petfy_Back.controller;
 
+import Petfy.Petfy_Back.config.UsuarioAutenticado;
 import Petfy.Petfy_Back.dto.request.WalkerApplicationRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
-import Petfy.Petfy_Back.model.Usuario;
-import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.dto.response.PaseadorResponse;
 import Petfy.Petfy_Back.service.PaseadorService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 
 /**
  * Controlador para gestión de paseadores
@@ -34,54 +39,49 @@ public class PaseadorController {
      * Frontend: walker-application.component.ts -> submitApplication()
      * 
      * POST /api/paseadores/solicitar
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * Body: FormData { phone, description, documentImage }
      * 
      * Response: { success: true, message: "..." }
      */
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
     @PostMapping("/solicitar")
     public ResponseEntity<ApiResponse<Void>> solicitarSerPaseador(
             @RequestPart("request") @Valid WalkerApplicationRequest request,
             @RequestPart(value = "documentImage", required = false) MultipartFile documentImage,
-            Authentication authentication) {
-        Long usuarioId = obtenerUsuarioId(authentication);
-        ApiResponse<Void> response = paseadorService.solicitarSerPaseador(usuarioId, request, documentImage);
+            UsuarioAutenticado usuario) {
+        ApiResponse<Void> response = paseadorService.solicitarSerPaseador(usuario.getUsuarioId(), request, documentImage);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
-     * Obtiene lista de paseadores disponibles
+     * Obtiene lista de paseadores disponibles, de mejor a peor calificación
      * 
      * Frontend: request.component.ts -> walkers[] (para mostrar en el dropdown)
      * 
-     * GET /api/paseadores/disponibles
+     * GET /api/paseadores/disponibles?date=2025-01-15&startTime=10:00&endTime=11:00
+     * Header: Authorization: Bearer <accessToken>
      * 
-     * Response: List<PaseadorResponse>
+     * Sin date/startTime/endTime devuelve todos los aprobados; con ellos, solo los que no
+     * tienen un paseo confirmado o en progreso que se solape con ese horario
      * 
-     * Nota: Este endpoint podría ser público o requerir autenticación
+     * Response: List<PaseadorResponse>
      */
     @GetMapping("/disponibles")
-    public ResponseEntity<?> obtenerPaseadoresDisponibles() {
-        // TODO: Implementar obtención de paseadores aprobados
-        // 1. Buscar todos los paseadores con estado APROBADO
-        // 2. Retornar lista de PaseadorResponse con nombre, calificación, etc.
-        
-        // List<PaseadorResponse> paseadores = paseadorService.obtenerPaseadoresDisponibles();
-        // return ResponseEntity.ok(paseadores);
-        
-        return ResponseEntity.ok("Endpoint no implementado - mostraría lista de paseadores");
-    }
+    public ResponseEntity<List<PaseadorResponse>> obtenerPaseadoresDisponibles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime endTime) {
+        boolean conHorario = date != null || startTime != null || endTime != null;
+        if (conHorario && (date == null || startTime == null || endTime == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Se requieren date, startTime y endTime");
+        }
+        if (conHorario && !endTime.isAfter(startTime)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La hora de fin debe ser posterior a la de inicio");
+        }
 
-    // Método auxiliar
-    private Long obtenerUsuarioId(Authentication authentication) {
-        String email = authentication.getName();
-        Usuario usuario = usuarioRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        return usuario.getId();
+        List<PaseadorResponse> paseadores = paseadorService.obtenerPaseadoresDisponibles(date, startTime, endTime);
+        return ResponseEntity.ok(paseadores);
     }
 }
 
@@ -1,22 +1,28 @@
 package Petfy.Petfy_Back.controller;
 
+import Petfy.Petfy_Back.config.UsuarioAutenticado;
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
 import Petfy.Petfy_Back.dto.request.PaseoRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
 import Petfy.Petfy_Back.dto.response.PaseoResponse;
 import Petfy.Petfy_Back.model.Paseo;
-import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.model.Paseador;
 import Petfy.Petfy_Back.repository.PaseadorRepository;
 import Petfy.Petfy_Back.repository.PaseoRepository;
-import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.PaseoFeedService;
 import Petfy.Petfy_Back.service.PaseoService;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -36,16 +42,22 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class PaseoController {
 
+    // Tamaño de página por defecto de los listados paginados (máximo: PaseoServiceImpl.MAX_PAGE_SIZE)
+    private static final String PAGE_SIZE_POR_DEFECTO = "20";
+
     @Autowired
     private PaseoService paseoService;
 
+    @Autowired
+    private PaseoFeedService paseoFeedService;
+
     /**
      * Crea una nueva solicitud de paseo
      * 
      * Frontend: request.component.ts -> confirmRequest()
      * 
      * POST /api/paseos
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * Body: { date, startTime, endTime, address, walker }
      * 
      * Response: { success: true, message: "...", data: PaseoResponse }
@@ -53,8 +65,8 @@ public class PaseoController {
     @PostMapping
     public ResponseEntity<ApiResponse<PaseoResponse>> crearPaseo(
             @Valid @RequestBody PaseoRequest request,
-            Authentication authentication) {
-        Long clienteId = obtenerUsuarioId(authentication);
+            UsuarioAutenticado usuario) {
+        Long clienteId = usuario.getUsuarioId();
         ApiResponse<PaseoResponse> response = paseoService.crearPaseo(clienteId, request);
         
         if (response.isSuccess()) {
@@ -70,7 +82,7 @@ public class PaseoController {
      * Frontend: request.component.ts -> confirmRequest() cuando isEditing = true
      * 
      * PUT /api/paseos/{id}
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * Body: { date, startTime, endTime, address, walker }
      * 
      * Response: { success: true, message: "...", data: PaseoResponse }
@@ -79,9 +91,9 @@ public class PaseoController {
     public ResponseEntity<ApiResponse<PaseoResponse>> actualizarPaseo(
             @PathVariable Long id,
             @Valid @RequestBody PaseoRequest request,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // Verificar que el paseo pertenezca al cliente autenticado
-        Long clienteId = obtenerUsuarioId(authentication);
+        Long clienteId = usuario.getUsuarioId();
         Paseo paseo = paseoRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
         
@@ -95,20 +107,22 @@ public class PaseoController {
     }
 
     /**
-     * Obtiene todos los paseos del cliente autenticado
+     * Obtiene los paseos del cliente autenticado, paginados por cursor
      * 
      * Frontend: requests.component.ts -> loadRequests()
      * 
-     * GET /api/paseos/cliente
-     * Header: Authorization: Basic base64(email:password)
+     * GET /api/paseos/cliente?cursor={next}&size=20
+     * Header: Authorization: Bearer <accessToken>
      * 
-     * Response: List<PaseoResponse>
+     * Response: { items: List<PaseoResponse>, next, size }
      */
     @GetMapping("/cliente")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosPorCliente(Authentication authentication) {
-        // TODO: Implementar obtención de paseos
-        Long clienteId = obtenerUsuarioId(authentication);
-        List<PaseoResponse> paseos = paseoService.obtenerPaseosPorCliente(clienteId);
+    public ResponseEntity<PaginaResponse<PaseoResponse>> obtenerPaseosPorCliente(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE_POR_DEFECTO) int size,
+            UsuarioAutenticado usuario) {
+        Long clienteId = usuario.getUsuarioId();
+        PaginaResponse<PaseoResponse> paseos = paseoService.obtenerPaseosPorCliente(clienteId, leerCursor(cursor), size);
         return ResponseEntity.ok(paseos);
     }
 
@@ -118,14 +132,14 @@ public class PaseoController {
      * Frontend: requests.component.ts -> pendingRequests
      * 
      * GET /api/paseos/cliente/pendientes
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: List<PaseoResponse>
      */
     @GetMapping("/cliente/pendientes")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosPendientes(Authentication authentication) {
+    public ResponseEntity<List<PaseoResponse>> obtenerPaseosPendientes(UsuarioAutenticado usuario) {
         // TODO: Implementar obtención de paseos pendientes
-        Long clienteId = obtenerUsuarioId(authentication);
+        Long clienteId = usuario.getUsuarioId();
         List<PaseoResponse> paseos = paseoService.obtenerPaseosPendientesPorCliente(clienteId);
         return ResponseEntity.ok(paseos);
     }
@@ -136,51 +150,85 @@ public class PaseoController {
      * Frontend: requests.component.ts -> confirmedRequests
      * 
      * GET /api/paseos/cliente/confirmados
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: List<PaseoResponse>
      */
     @GetMapping("/cliente/confirmados")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosConfirmados(Authentication authentication) {
+    public ResponseEntity<List<PaseoResponse>> obtenerPaseosConfirmados(UsuarioAutenticado usuario) {
         // TODO: Implementar obtención de paseos confirmados
-        Long clienteId = obtenerUsuarioId(authentication);
+        Long clienteId = usuario.getUsuarioId();
         List<PaseoResponse> paseos = paseoService.obtenerPaseosConfirmadosPorCliente(clienteId);
         return ResponseEntity.ok(paseos);
     }
 
     /**
-     * Obtiene todos los paseos pendientes (para paseadores)
+     * Obtiene los paseos pendientes (para paseadores), paginados por cursor
      * 
      * Frontend: walker-requests.component.ts -> pendingRequests
      * 
-     * GET /api/paseos/pendientes
-     * Header: Authorization: Basic base64(email:password)
+     * GET /api/paseos/pendientes?cursor={next}&size=20&desde=2025-01-01&hasta=2025-01-31&asignacion=abiertos
+     * Header: Authorization: Bearer <accessToken>
+     * Solo paseadores (rol WALKER)
      * 
-     * Response: List<PaseoResponse>
+     * asignacion: todos (por defecto), abiertos ("Aleatorio") o asignados (al paseador autenticado)
+     * 
+     * Response: { items: List<PaseoResponse>, next, size }
      */
     @GetMapping("/pendientes")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosPendientes() {
-        // TODO: Implementar obtención de todos los paseos pendientes
-        // Solo paseadores pueden ver estos
-        List<PaseoResponse> paseos = paseoService.obtenerPaseosPendientes();
+    public ResponseEntity<PaginaResponse<PaseoResponse>> obtenerPaseosPendientes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE_POR_DEFECTO) int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "todos") String asignacion,
+            UsuarioAutenticado usuario) {
+        // Solo paseadores pueden ver estos (SecurityConfig exige el rol WALKER)
+        TableroPaseosPendientes.Asignacion filtro = leerAsignacion(asignacion);
+        Long paseadorId = filtro == TableroPaseosPendientes.Asignacion.ASIGNADOS ? obtenerPaseadorId(usuario) : null;
+        PaginaResponse<PaseoResponse> paseos = paseoService.obtenerPaseosPendientes(
+            leerCursor(cursor), size, desde, hasta, filtro, paseadorId);
         return ResponseEntity.ok(paseos);
     }
 
     /**
-     * Obtiene paseos confirmados del paseador autenticado
+     * Feed en tiempo real de paseos pendientes (Server-Sent Events)
+     * 
+     * Frontend: walker-requests.component.ts -> pendingRequests (en lugar de repetir GET /pendientes)
+     * 
+     * GET /api/paseos/pendientes/stream?token=<accessToken>
+     * (o Header: Authorization: Bearer <accessToken>; EventSource no puede enviar headers)
+     * Solo paseadores (rol WALKER)
+     * 
+     * Eventos:
+     * - snapshot: List<PaseoEventoResponse> ("agregado") con todos los pendientes (primer evento)
+     * - agregado / eliminado / aceptado: PaseoEventoResponse
+     * Cada evento lleva la versión del paseo: se ignora uno con versión igual o menor a la
+     * última aplicada para ese paseoId
+     */
+    @GetMapping(value = "/pendientes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirPaseosPendientes() {
+        return paseoFeedService.suscribir();
+    }
+
+    /**
+     * Obtiene paseos confirmados del paseador autenticado, paginados por cursor
      * 
      * Frontend: walker-requests.component.ts -> confirmedRequests
      * 
-     * GET /api/paseos/paseador/confirmados
-     * Header: Authorization: Basic base64(email:password)
+     * GET /api/paseos/paseador/confirmados?cursor={next}&size=20
+     * Header: Authorization: Bearer <accessToken>
      * 
-     * Response: List<PaseoResponse>
+     * Response: { items: List<PaseoResponse>, next, size }
      */
     @GetMapping("/paseador/confirmados")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosConfirmadosPorPaseador(Authentication authentication) {
-        // TODO: Implementar obtención de paseos confirmados del paseador
-        Long paseadorId = obtenerPaseadorId(authentication);
-        List<PaseoResponse> paseos = paseoService.obtenerPaseosConfirmadosPorPaseador(paseadorId);
+    public ResponseEntity<PaginaResponse<PaseoResponse>> obtenerPaseosConfirmadosPorPaseador(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE_POR_DEFECTO) int size,
+            UsuarioAutenticado usuario) {
+        Long paseadorId = obtenerPaseadorId(usuario);
+        PaginaResponse<PaseoResponse> paseos = paseoService.obtenerPaseosConfirmadosPorPaseador(
+            paseadorId, leerCursor(cursor), size);
         return ResponseEntity.ok(paseos);
     }
 
@@ -190,14 +238,14 @@ public class PaseoController {
      * Frontend: walker-requests.component.ts -> acceptRequest()
      * 
      * POST /api/paseos/{id}/aceptar
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: { success: true, message: "...", data: PaseoResponse }
      */
     @PostMapping("/{id}/aceptar")
     public ResponseEntity<ApiResponse<PaseoResponse>> aceptarPaseo(
             @PathVariable Long id,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // TODO: Implementar lógica de aceptación
         // 1. Verificar que el usuario autenticado sea paseador
         // 2. Verificar que el paseo esté pendiente
@@ -205,7 +253,7 @@ public class PaseoController {
         // 4. Cambiar estado a CONFIRMADO
         // 5. Retornar PaseoResponse
         
-        Long paseadorId = obtenerPaseadorId(authentication);
+        Long paseadorId = obtenerPaseadorId(usuario);
         ApiResponse<PaseoResponse> response = paseoService.aceptarPaseo(id, paseadorId);
         return ResponseEntity.ok(response);
     }
@@ -216,14 +264,14 @@ public class PaseoController {
      * Frontend: requests.component.ts -> cancelRequest()
      * 
      * DELETE /api/paseos/{id}
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: { success: true, message: "..." }
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> cancelarPaseo(
             @PathVariable Long id,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // TODO: Implementar lógica de cancelación
         // 1. Verificar que el paseo pertenezca al cliente autenticado
         // 2. Cambiar estado a CANCELADO o eliminar
@@ -239,14 +287,14 @@ public class PaseoController {
      * Frontend: walker-requests.component.ts -> startWalk()
      * 
      * POST /api/paseos/{id}/iniciar
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: { success: true, message: "...", data: PaseoResponse }
      */
     @PostMapping("/{id}/iniciar")
     public ResponseEntity<ApiResponse<PaseoResponse>> iniciarPaseo(
             @PathVariable Long id,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // TODO: Implementar lógica de inicio
         // 1. Verificar que el paseo pertenezca al paseador autenticado
         // 2. Verificar que el paseo esté confirmado
@@ -264,14 +312,14 @@ public class PaseoController {
      * Frontend: walker-requests.component.ts -> finishWalk()
      * 
      * POST /api/paseos/{id}/finalizar
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: { success: true, message: "...", data: PaseoResponse }
      */
     @PostMapping("/{id}/finalizar")
     public ResponseEntity<ApiResponse<PaseoResponse>> finalizarPaseo(
             @PathVariable Long id,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // TODO: Implementar lógica de finalización
         // 1. Verificar que el paseo pertenezca al paseador autenticado
         // 2. Verificar que el paseo esté en progreso
@@ -285,20 +333,23 @@ public class PaseoController {
     }
 
     /**
-     * Obtiene paseos finalizados del cliente
+     * Obtiene paseos finalizados del cliente, paginados por cursor
      * 
      * Frontend: history.component.ts -> loadFinalizedWalks()
      * 
-     * GET /api/paseos/cliente/finalizados
-     * Header: Authorization: Basic base64(email:password)
+     * GET /api/paseos/cliente/finalizados?cursor={next}&size=20
+     * Header: Authorization: Bearer <accessToken>
      * 
-     * Response: List<PaseoResponse>
+     * Response: { items: List<PaseoResponse>, next, size }
      */
     @GetMapping("/cliente/finalizados")
-    public ResponseEntity<List<PaseoResponse>> obtenerPaseosFinalizados(Authentication authentication) {
-        // TODO: Implementar obtención de paseos finalizados
-        Long clienteId = obtenerUsuarioId(authentication);
-        List<PaseoResponse> paseos = paseoService.obtenerPaseosFinalizadosPorCliente(clienteId);
+    public ResponseEntity<PaginaResponse<PaseoResponse>> obtenerPaseosFinalizados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE_POR_DEFECTO) int size,
+            UsuarioAutenticado usuario) {
+        Long clienteId = usuario.getUsuarioId();
+        PaginaResponse<PaseoResponse> paseos = paseoService.obtenerPaseosFinalizadosPorCliente(
+            clienteId, leerCursor(cursor), size);
         return ResponseEntity.ok(paseos);
     }
 
@@ -308,7 +359,7 @@ public class PaseoController {
      * Frontend: history.component.ts -> filterWalks()
      * 
      * GET /api/paseos/cliente/finalizados?startDate=2025-01-01&endDate=2025-12-31
-     * Header: Authorization: Basic base64(email:password)
+     * Header: Authorization: Bearer <accessToken>
      * 
      * Response: List<PaseoResponse>
      */
@@ -316,35 +367,53 @@ public class PaseoController {
     public ResponseEntity<List<PaseoResponse>> obtenerPaseosFinalizadosPorRango(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            Authentication authentication) {
+            UsuarioAutenticado usuario) {
         // TODO: Implementar filtrado por rango de fechas
-        Long clienteId = obtenerUsuarioId(authentication);
+        Long clienteId = usuario.getUsuarioId();
         List<PaseoResponse> paseos = paseoService.obtenerPaseosFinalizadosPorRango(clienteId, startDate, endDate);
         return ResponseEntity.ok(paseos);
     }
 
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
     @Autowired
     private PaseadorRepository paseadorRepository;
 
     @Autowired
     private PaseoRepository paseoRepository;
 
+    /**
+     * Otro cambio sobre el mismo paseo se confirmó primero (@Version en Paseo)
+     * 
+     * Response: 409 { success: false, message: "..." }
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarConflictoDeVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(ApiResponse.error("El paseo fue modificado por otra operación. Vuelve a cargarlo e intenta de nuevo"));
+    }
+
     // Métodos auxiliares
-    private Long obtenerUsuarioId(Authentication authentication) {
-        String email = authentication.getName();
-        Usuario usuario = usuarioRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        return usuario.getId();
+    private CursorPaseo leerCursor(String cursor) {
+        try {
+            return CursorPaseo.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    private TableroPaseosPendientes.Asignacion leerAsignacion(String asignacion) {
+        try {
+            return TableroPaseosPendientes.Asignacion.valueOf(asignacion.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Asignación inválida");
+        }
     }
 
-    private Long obtenerPaseadorId(Authentication authentication) {
-        String email = authentication.getName();
-        Usuario usuario = usuarioRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        Paseador paseador = paseadorRepository.findByUsuarioId(usuario.getId())
+    private Long obtenerPaseadorId(UsuarioAutenticado usuario) {
+        if (usuario.getPaseadorId() != null) {
+            return usuario.getPaseadorId();
+        }
+        // El token pudo emitirse antes de que el usuario se registrara como paseador
+        Paseador paseador = paseadorRepository.findByUsuarioId(usuario.getUsuarioId())
             .orElseThrow(() -> new RuntimeException("Usuario no es paseador"));
         return paseador.getId();
     }
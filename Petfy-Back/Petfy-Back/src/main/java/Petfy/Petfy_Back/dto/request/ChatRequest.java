@@ -0,0 +1,19 @@
+package Petfy.Petfy_Back.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para abrir un chat con otro usuario
+ * Mapea: chat.component.ts -> openChat()
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatRequest {
+
+    @NotNull(message = "El usuario es requerido")
+    private Long usuarioId; // Usuario con el que se quiere conversar
+}
@@ -0,0 +1,52 @@
+package Petfy.Petfy_Back.dto.request;
+
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por clave (keyset) para la bandeja de chats
+ * 
+ * Los chats se ordenan del más reciente al más viejo por (ultima_actividad, id), igual que
+ * los índices idx_chats_usuario1_actividad / idx_chats_usuario2_actividad: cada página pide
+ * los chats estrictamente anteriores al último de la página anterior.
+ * 
+ * Se envía al frontend como texto opaco (base64url de "ultimaActividad|id").
+ */
+public record CursorChat(LocalDateTime ultimaActividad, Long id) {
+
+    /**
+     * Cursor posterior a cualquier chat (primera página)
+     */
+    public static final CursorChat INICIO = new CursorChat(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static CursorChat despuesDe(ChatBandejaResponse chat) {
+        return new CursorChat(chat.getLastActivity(), chat.getChatId());
+    }
+
+    /**
+     * @param cursor Texto recibido en ?cursor=, null o vacío para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorChat decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorChat(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String codificar() {
+        String texto = ultimaActividad + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
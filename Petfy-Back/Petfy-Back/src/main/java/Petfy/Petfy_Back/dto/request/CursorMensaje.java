@@ -0,0 +1,47 @@
+package Petfy.Petfy_Back.dto.request;
+
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por clave (keyset) para los mensajes de un chat
+ * 
+ * Los mensajes se ordenan por (fecha_envio, id), igual que el índice idx_mensajes_chat_fecha:
+ * cada página pide los mensajes estrictamente antes (historial) o después (nuevos) del cursor.
+ * 
+ * Se envía al frontend como texto opaco (base64url de "fechaEnvio|id").
+ */
+public record CursorMensaje(LocalDateTime fechaEnvio, Long id) {
+
+    public static CursorMensaje de(MensajeResponse mensaje) {
+        return new CursorMensaje(mensaje.getSentAt(), mensaje.getId());
+    }
+
+    /**
+     * @param cursor Texto recibido en ?antes= o ?despues=, null o vacío si no hay cursor
+     * @return El cursor, o null si no se envió
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorMensaje decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorMensaje(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String codificar() {
+        String texto = fechaEnvio + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
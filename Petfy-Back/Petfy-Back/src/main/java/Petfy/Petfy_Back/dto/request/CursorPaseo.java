@@ -0,0 +1,53 @@
+package Petfy.Petfy_Back.dto.request;
+
+import Petfy.Petfy_Back.dto.response.PaseoResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por clave (keyset) para listados de paseos
+ * 
+ * Los paseos se ordenan por (fecha, hora_inicio, id) y cada página pide los
+ * que van estrictamente después del último paseo de la página anterior, así
+ * la consulta usa el índice y no depende de OFFSET.
+ * 
+ * Se envía al frontend como texto opaco (base64url de "fecha|horaInicio|id").
+ */
+public record CursorPaseo(LocalDate fecha, LocalTime horaInicio, Long id) {
+
+    /**
+     * Cursor anterior a cualquier paseo (primera página)
+     */
+    public static final CursorPaseo INICIO = new CursorPaseo(LocalDate.of(1000, 1, 1), LocalTime.MIN, 0L);
+
+    public static CursorPaseo despuesDe(PaseoResponse paseo) {
+        return new CursorPaseo(paseo.getDate(), paseo.getStartTime(), paseo.getId());
+    }
+
+    /**
+     * @param cursor Texto recibido en ?cursor=, null o vacío para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorPaseo decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorPaseo(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Long.parseLong(partes[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String codificar() {
+        String texto = fecha + "|" + horaInicio + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,52 @@
+package Petfy.Petfy_Back.dto.request;
+
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por clave (keyset) para la cola de revisión de solicitudes
+ * 
+ * Las solicitudes pendientes se ordenan en orden de llegada por (fecha_solicitud, id), igual
+ * que el índice idx_solicitudes_estado_fecha: cada página pide las solicitudes estrictamente
+ * posteriores a la última de la página anterior.
+ * 
+ * Se envía al frontend como texto opaco (base64url de "fechaSolicitud|id").
+ */
+public record CursorSolicitud(LocalDateTime fechaSolicitud, Long id) {
+
+    /**
+     * Cursor anterior a cualquier solicitud (primera página)
+     */
+    public static final CursorSolicitud INICIO = new CursorSolicitud(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+
+    public static CursorSolicitud despuesDe(SolicitudResponse solicitud) {
+        return new CursorSolicitud(solicitud.getRequestedAt(), solicitud.getId());
+    }
+
+    /**
+     * @param cursor Texto recibido en ?cursor=, null o vacío para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorSolicitud decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorSolicitud(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String codificar() {
+        String texto = fechaSolicitud + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
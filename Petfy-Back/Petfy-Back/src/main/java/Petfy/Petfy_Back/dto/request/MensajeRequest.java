@@ -0,0 +1,21 @@
+package Petfy.Petfy_Back.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para enviar un mensaje
+ * Mapea: chat.component.ts -> sendMessage()
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MensajeRequest {
+
+    @NotBlank(message = "El contenido del mensaje es requerido")
+    @Size(max = 2000, message = "El mensaje no puede superar los 2000 caracteres")
+    private String contenido;
+}
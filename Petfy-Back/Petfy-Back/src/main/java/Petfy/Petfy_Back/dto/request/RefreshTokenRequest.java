@@ -0,0 +1,19 @@
+package Petfy.Petfy_Back.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para el request de renovación de token
+ * Mapea: auth.interceptor.ts -> refreshToken guardado en localStorage
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+    
+    @NotBlank(message = "El refresh token es requerido")
+    private String refreshToken;
+}
@@ -0,0 +1,29 @@
+package Petfy.Petfy_Back.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para aprobar o rechazar varias solicitudes de paseador a la vez
+ * 
+ * Body: { ids: [1, 2, 3], comment: "Documentación verificada" }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevisionSolicitudesRequest {
+
+    public static final int MAX_SOLICITUDES = 1000;
+
+    @NotEmpty(message = "Debe indicar al menos una solicitud")
+    @Size(max = MAX_SOLICITUDES, message = "No se pueden revisar más de " + MAX_SOLICITUDES + " solicitudes a la vez")
+    private List<Long> ids;
+
+    @Size(max = 1000, message = "El comentario no puede superar los 1000 caracteres")
+    private String comment; // Opcional, se guarda en comentario_admin
+}
@@ -0,0 +1,37 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.config.CredencialesCache;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de CredencialesCache
+ * Se usa para dimensionar security.credential-cache.max-entries y ttl-seconds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheMetricasResponse {
+    
+    private int tamanio;
+    private int maxEntradas;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private double tasaAciertos; // aciertos / (aciertos + fallos)
+
+    public static CacheMetricasResponse fromCache(CredencialesCache cache) {
+        long aciertos = cache.getAciertos();
+        long fallos = cache.getFallos();
+        long total = aciertos + fallos;
+        return new CacheMetricasResponse(
+            cache.getTamanio(),
+            cache.getMaxEntradas(),
+            aciertos,
+            fallos,
+            cache.getDesalojos(),
+            total == 0 ? 0.0 : (double) aciertos / total
+        );
+    }
+}
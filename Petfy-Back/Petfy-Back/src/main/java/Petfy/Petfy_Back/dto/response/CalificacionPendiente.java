@@ -0,0 +1,9 @@
+package Petfy.Petfy_Back.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Calificación de paseo todavía no sumada a los agregados de su paseador (ver ColaCalificaciones)
+ */
+public record CalificacionPendiente(Long id, Long paseadorId, Integer calificacion, LocalDateTime fecha) {
+}
@@ -0,0 +1,29 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un chat en la bandeja de entrada del usuario
+ * Mapea: Chat -> Frontend (chat.component.ts -> chats[])
+ * 
+ * Lo construye ChatRepository (SELECT new ...) sin cargar los mensajes del chat
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBandejaResponse {
+
+    public static final int LARGO_VISTA_PREVIA = 100;
+
+    private Long chatId;
+    private Long userId; // El otro participante del chat
+    private String username;
+    private String lastMessage; // Primeros caracteres del último mensaje, null si no hay mensajes
+    private Long lastMessageSenderId;
+    private LocalDateTime lastActivity;
+    private Integer unread; // Mensajes sin leer del usuario que consulta
+}
@@ -0,0 +1,27 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un evento de chat enviado por WebSocket (/ws/chats)
+ * 
+ * - mensaje: mensaje nuevo en uno de los chats del usuario (también le llega al remitente,
+ *   para sus otras pestañas)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatEventoResponse {
+
+    public static final String TIPO_MENSAJE = "mensaje";
+
+    private String tipo;
+    private Long chatId;
+    private MensajeResponse mensaje;
+
+    public static ChatEventoResponse mensaje(MensajeResponse mensaje) {
+        return new ChatEventoResponse(TIPO_MENSAJE, mensaje.getChatId(), mensaje);
+    }
+}
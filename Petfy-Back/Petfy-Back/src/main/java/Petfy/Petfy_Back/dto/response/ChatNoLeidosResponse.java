@@ -0,0 +1,18 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los mensajes sin leer de un chat para el usuario que consulta
+ * Lo construye ChatRepository.findNoLeidos() (SELECT new ...)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatNoLeidosResponse {
+
+    private Long chatId;
+    private Integer unread;
+}
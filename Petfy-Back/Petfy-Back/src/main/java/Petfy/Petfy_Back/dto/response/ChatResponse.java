@@ -0,0 +1,22 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para la response de Chat
+ * Mapea: Chat -> Frontend (chat.component.ts)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatResponse {
+
+    private Long id;
+    private Long userId; // El otro participante del chat
+    private String username; // Nombre de usuario del otro participante
+    private LocalDateTime createdAt;
+}
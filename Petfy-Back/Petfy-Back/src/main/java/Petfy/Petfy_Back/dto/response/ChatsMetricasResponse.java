@@ -0,0 +1,41 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.service.LecturasChat;
+import Petfy.Petfy_Back.service.SesionesChat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de las conexiones WebSocket de chat (SesionesChat) y de las lecturas
+ * pendientes de escribir (LecturasChat)
+ * Se usa para dimensionar chats.ws.buffer-mensajes, server.tomcat.max-connections y
+ * chats.lecturas.intervalo-ms
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatsMetricasResponse {
+
+    private int conexiones;
+    private int usuariosConectados;
+    private long entregados; // Eventos enviados (sin contar pings)
+    private long desconectadasLentas; // Conexiones cerradas por no leer a tiempo
+    private long errores;
+    private int lecturasPendientes;
+    private long lecturasRegistradas; // Avisos de lectura recibidos
+    private long lecturasEscritas; // Escrituras después de juntar los avisos
+
+    public static ChatsMetricasResponse fromSesiones(SesionesChat sesiones, LecturasChat lecturas) {
+        return new ChatsMetricasResponse(
+            sesiones.getConexiones(),
+            sesiones.getUsuariosConectados(),
+            sesiones.getEntregados(),
+            sesiones.getDesconectadasLentas(),
+            sesiones.getErrores(),
+            lecturas.getPendientes(),
+            lecturas.getRegistradas(),
+            lecturas.getEscrituras()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.service.ColaCalificaciones;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de ColaCalificaciones
+ * Se usa para dimensionar calificaciones.cola.intervalo-ms y lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColaCalificacionesMetricasResponse {
+
+    private int profundidad; // Calificaciones esperando el próximo vaciado
+    private long encoladas;
+    private long agregadas;
+    private long actualizacionesPaseador; // UPDATE sobre paseadores (uno por paseador y vaciado)
+    private long vaciados;
+    private long errores;
+    private long ultimaLatenciaMs; // Duración del último vaciado
+    private long maxLatenciaMs;
+
+    public static ColaCalificacionesMetricasResponse fromCola(ColaCalificaciones cola) {
+        return new ColaCalificacionesMetricasResponse(
+            cola.getProfundidad(),
+            cola.getEncoladas(),
+            cola.getAgregadas(),
+            cola.getActualizacionesPaseador(),
+            cola.getVaciados(),
+            cola.getErrores(),
+            cola.getUltimaLatenciaMs(),
+            cola.getMaxLatenciaMs()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package Petfy.Petfy_Back.dto.response;
+
+/**
+ * Suma y total de calificaciones de un paseador: los guardados en paseadores
+ * y los calculados desde la tabla calificaciones (ver ConciliacionCalificaciones)
+ */
+public record ConciliacionCalificacion(Long paseadorId, Long sumaGuardada, Integer totalGuardado,
+                                       Long sumaReal, Long totalReal) {
+}
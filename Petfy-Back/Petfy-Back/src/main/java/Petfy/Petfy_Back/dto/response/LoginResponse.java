@@ -0,0 +1,45 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.model.Usuario;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para la response de login/registro
+ * Mapea: Usuario + tokens -> Frontend (auth.service.ts -> User)
+ * 
+ * Mantiene los mismos campos que UsuarioResponse para que el frontend
+ * siga leyendo response.data.username / email / role sin cambios
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+    
+    private Long id;
+    private String username;
+    private String email;
+    private String role; // "customer" o "walker"
+    private LocalDateTime fechaRegistro;
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType; // Siempre "Bearer"
+    private long expiresIn; // Segundos de validez del accessToken
+
+    public static LoginResponse fromEntity(Usuario usuario, String accessToken, String refreshToken, long expiresIn) {
+        return new LoginResponse(
+            usuario.getId(),
+            usuario.getUsername(),
+            usuario.getEmail(),
+            usuario.getRol().name().toLowerCase(),
+            usuario.getFechaRegistro(),
+            accessToken,
+            refreshToken,
+            "Bearer",
+            expiresIn
+        );
+    }
+}
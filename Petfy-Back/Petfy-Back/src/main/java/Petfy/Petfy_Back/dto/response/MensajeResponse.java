@@ -0,0 +1,32 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.model.Mensaje;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para la response de Mensaje
+ * Mapea: Mensaje -> Frontend (chat.component.ts -> messages[])
+ * 
+ * Las consultas de MensajeRepository lo construyen directamente (SELECT new ...)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MensajeResponse {
+
+    private Long id;
+    private Long chatId;
+    private Long senderId; // Usuario que envió el mensaje
+    private String content;
+    private LocalDateTime sentAt;
+    private Boolean read;
+
+    public static MensajeResponse fromEntity(Mensaje mensaje) {
+        return new MensajeResponse(mensaje.getId(), mensaje.getChat().getId(), mensaje.getUsuario().getId(),
+            mensaje.getContenido(), mensaje.getFechaEnvio(), mensaje.getLeido());
+    }
+}
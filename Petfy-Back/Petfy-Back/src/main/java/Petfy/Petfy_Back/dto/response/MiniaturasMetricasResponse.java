@@ -0,0 +1,36 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.service.MiniaturasDocumentos;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de MiniaturasDocumentos
+ * Se usa para dimensionar miniaturas.hilos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniaturasMetricasResponse {
+
+    private long pendientes; // Trabajos PENDIENTE en trabajos_miniaturas
+    private int enCurso;
+    private long generadas;
+    private long reutilizadas; // El mismo documento ya tenía miniatura
+    private long errores;
+    private long ultimaLatenciaMs; // Duración del último trabajo
+    private long maxLatenciaMs;
+
+    public static MiniaturasMetricasResponse fromMiniaturas(MiniaturasDocumentos miniaturas) {
+        return new MiniaturasMetricasResponse(
+            miniaturas.getPendientes(),
+            miniaturas.getEnCurso(),
+            miniaturas.getGeneradas(),
+            miniaturas.getReutilizadas(),
+            miniaturas.getErrores(),
+            miniaturas.getUltimaLatenciaMs(),
+            miniaturas.getMaxLatenciaMs()
+        );
+    }
+}
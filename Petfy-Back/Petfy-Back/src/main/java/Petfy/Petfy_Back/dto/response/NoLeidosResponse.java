@@ -0,0 +1,20 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los mensajes sin leer del usuario
+ * Mapea: NoLeidos -> Frontend (chat.component.ts -> badge total y por chat)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoLeidosResponse {
+
+    private int total;
+    private List<ChatNoLeidosResponse> chats; // Solo los chats con mensajes sin leer
+}
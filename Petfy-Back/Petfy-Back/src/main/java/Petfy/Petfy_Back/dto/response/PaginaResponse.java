@@ -0,0 +1,22 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO genérico para listados paginados por cursor
+ * 
+ * Para pedir la siguiente página se envía ?cursor={next}; next es null en la última página
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    
+    private List<T> items;
+    private String next;
+    private int size; // Tamaño de página aplicado (después de limitarlo al máximo)
+}
@@ -0,0 +1,43 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la response de Paseador
+ * Mapea: Paseador -> Frontend (request.component.ts -> walkers[])
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaseadorResponse {
+
+    private Long id;
+    private String name; // Nombre de usuario del paseador (se envía como "walker" al pedir un paseo)
+    private String description;
+    private Double rating; // Calificación promedio
+    private Integer totalRatings;
+    private List<Integer> ratingHistogram; // Cantidad de calificaciones de 1 a 5 estrellas
+    private Double rating30d; // Promedio de los últimos 30 días (null si no tuvo calificaciones)
+    private Double rating90d; // Promedio de los últimos 90 días (null si no tuvo calificaciones)
+
+    /**
+     * Constructor usado por la proyección JPQL de PaseadorRepository.findAprobadosPorCalificacion()
+     */
+    public PaseadorResponse(Long id, String name, String description, Double rating, Integer totalRatings,
+                            Integer estrellas1, Integer estrellas2, Integer estrellas3,
+                            Integer estrellas4, Integer estrellas5,
+                            Long suma30Dias, Integer total30Dias, Long suma90Dias, Integer total90Dias) {
+        this(id, name, description, rating, totalRatings,
+            List.of(estrellas1, estrellas2, estrellas3, estrellas4, estrellas5),
+            promedio(suma30Dias, total30Dias),
+            promedio(suma90Dias, total90Dias));
+    }
+
+    private static Double promedio(Long suma, Integer total) {
+        return total == null || total == 0 ? null : (double) suma / total;
+    }
+}
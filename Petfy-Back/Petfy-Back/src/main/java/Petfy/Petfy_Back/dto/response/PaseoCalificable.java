@@ -0,0 +1,9 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.model.Paseo;
+
+/**
+ * Datos de un paseo para validar una calificación importada (ver ImportacionServiceImpl)
+ */
+public record PaseoCalificable(Long id, Long clienteId, Long paseadorId, Paseo.EstadoPaseo estado) {
+}
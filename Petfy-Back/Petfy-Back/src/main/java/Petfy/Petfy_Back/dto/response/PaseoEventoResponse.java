@@ -0,0 +1,44 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un cambio en la lista de paseos pendientes (feed en tiempo real de paseadores)
+ * 
+ * Se envía como evento SSE con nombre = tipo:
+ * - agregado: paseo nuevo o modificado que está pendiente (reemplaza al anterior con el mismo paseoId)
+ * - eliminado: el paseo dejó de estar pendiente (cancelado o modificado)
+ * - aceptado: un paseador aceptó el paseo; paseo.walker indica quién
+ * 
+ * version es la del paseo (@Version) después del cambio. Los eventos de dos commits del mismo
+ * paseo pueden llegar en otro orden: el cliente guarda la última versión aplicada por paseoId
+ * (también las del snapshot) e ignora un evento con una versión igual o menor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaseoEventoResponse {
+
+    public static final String TIPO_AGREGADO = "agregado";
+    public static final String TIPO_ELIMINADO = "eliminado";
+    public static final String TIPO_ACEPTADO = "aceptado";
+
+    private String tipo;
+    private Long paseoId;
+    private Long version;
+    private PaseoResponse paseo; // null en "eliminado"
+
+    public static PaseoEventoResponse agregado(PaseoResponse paseo, Long version) {
+        return new PaseoEventoResponse(TIPO_AGREGADO, paseo.getId(), version, paseo);
+    }
+
+    public static PaseoEventoResponse eliminado(Long paseoId, Long version) {
+        return new PaseoEventoResponse(TIPO_ELIMINADO, paseoId, version, null);
+    }
+
+    public static PaseoEventoResponse aceptado(PaseoResponse paseo, Long version) {
+        return new PaseoEventoResponse(TIPO_ACEPTADO, paseo.getId(), version, paseo);
+    }
+}
@@ -0,0 +1,42 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
+import Petfy.Petfy_Back.model.Paseo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Paseo pendiente tal como lo guarda TableroPaseosPendientes
+ * 
+ * Además de la respuesta para el frontend guarda el paseador asignado (null si es "Aleatorio")
+ * y la versión del paseo (@Version), que ordena los cambios que llegan al tablero
+ */
+public record PaseoPendiente(PaseoResponse paseo, Long paseadorId, Long version) {
+
+    /**
+     * Constructor usado por la proyección JPQL de PaseoRepository.findPendientes()
+     */
+    public PaseoPendiente(Long id, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin, String direccion,
+                          String walker, String cliente, Paseo.EstadoPaseo estado,
+                          LocalDateTime fechaCreacion, Boolean isCompleted, Long paseadorId, Long version) {
+        this(new PaseoResponse(id, fecha, horaInicio, horaFin, direccion, walker, cliente,
+            estado, fechaCreacion, isCompleted), paseadorId, version);
+    }
+
+    public static PaseoPendiente fromEntity(Paseo paseo) {
+        return new PaseoPendiente(
+            PaseoResponse.fromEntity(paseo),
+            paseo.getPaseador() != null ? paseo.getPaseador().getId() : null,
+            paseo.getVersion()
+        );
+    }
+
+    /**
+     * Posición del paseo en el orden (fecha, hora_inicio, id)
+     */
+    public CursorPaseo clave() {
+        return CursorPaseo.despuesDe(paseo);
+    }
+}
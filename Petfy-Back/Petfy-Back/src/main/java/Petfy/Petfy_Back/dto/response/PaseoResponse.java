@@ -29,6 +29,17 @@ public class PaseoResponse {
     private LocalDateTime fechaCreacion;
     private Boolean isCompleted;
 
+    /**
+     * Constructor usado por las proyecciones JPQL de PaseoRepository
+     * (SELECT new ...PaseoResponse(...)) para armar la respuesta sin cargar entidades
+     */
+    public PaseoResponse(Long id, LocalDate date, LocalTime startTime, LocalTime endTime, String address,
+                         String walker, String cliente, Paseo.EstadoPaseo estado,
+                         LocalDateTime fechaCreacion, Boolean isCompleted) {
+        this(id, date, startTime, endTime, address, walker, cliente,
+            estado.name().toLowerCase(), fechaCreacion, isCompleted);
+    }
+
     public static PaseoResponse fromEntity(Paseo paseo) {
         return new PaseoResponse(
             paseo.getId(),
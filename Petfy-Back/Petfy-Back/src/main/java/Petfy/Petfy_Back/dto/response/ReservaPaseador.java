@@ -0,0 +1,26 @@
+package Petfy.Petfy_Back.dto.response;
+
+import Petfy.Petfy_Back.model.Paseo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Franja ocupada de un paseador (paseo CONFIRMADO o EN_PROGRESO) tal como la guarda AgendaPaseadores
+ * 
+ * La versión del paseo (@Version) ordena los cambios que llegan a la agenda
+ */
+public record ReservaPaseador(Long paseoId, Long paseadorId, LocalDate fecha,
+                              LocalTime horaInicio, LocalTime horaFin, Long version) {
+
+    public static ReservaPaseador fromEntity(Paseo paseo) {
+        return new ReservaPaseador(
+            paseo.getId(),
+            paseo.getPaseador().getId(),
+            paseo.getFecha(),
+            paseo.getHoraInicio(),
+            paseo.getHoraFin(),
+            paseo.getVersion()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package Petfy.Petfy_Back.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de una solicitud pendiente en la cola de revisión de los admins
+ * 
+ * Lo construye SolicitudRepository (SELECT new ...). El documento y su miniatura se descargan
+ * aparte: /api/admin/paseadores/{walkerId}/documento y /miniatura
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudResponse {
+
+    private Long id;
+    private Long userId;
+    private String username;
+    private String email;
+    private String phone;
+    private String description;
+    private LocalDateTime requestedAt;
+    private Long walkerId; // Paseador PENDIENTE creado con la solicitud
+    private Boolean hasDocument;
+    private Boolean hasThumbnail; // false mientras MiniaturasDocumentos no la generó
+}
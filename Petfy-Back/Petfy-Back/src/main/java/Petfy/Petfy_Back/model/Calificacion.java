@@ -15,14 +15,23 @@ import java.time.LocalDateTime;
  * Representa las calificaciones que los usuarios dan a los paseos o a la aplicación
  */
 @Entity
-@Table(name = "calificaciones")
+@Table(name = "calificaciones", uniqueConstraints = {
+    // Un paseo se califica una sola vez (las calificaciones de la app tienen paseo_id NULL)
+    @UniqueConstraint(name = "uk_calificaciones_paseo", columnNames = "paseo_id")
+}, indexes = {
+    // Calificaciones pendientes de sumar al paseador
+    @Index(name = "idx_calificaciones_agregada", columnList = "agregada, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Calificacion {
 
+    // IDs por bloques desde generador_ids (pooled-lo): Hibernate puede insertar por lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "calificaciones_id")
+    @TableGenerator(name = "calificaciones_id", table = "generador_ids", pkColumnName = "nombre",
+        valueColumnName = "siguiente", pkColumnValue = "calificaciones", allocationSize = 500)
     private Long id;
 
     @ManyToOne
@@ -49,9 +58,16 @@ public class Calificacion {
     @Column(name = "fecha_calificacion")
     private LocalDateTime fechaCalificacion;
 
+    // true cuando ya está sumada a los agregados del paseador (ver ColaCalificaciones)
+    @Column(nullable = false)
+    private Boolean agregada = false;
+
     @PrePersist
     protected void onCreate() {
-        fechaCalificacion = LocalDateTime.now();
+        // Las calificaciones importadas (ImportacionService) conservan su fecha original
+        if (fechaCalificacion == null) {
+            fechaCalificacion = LocalDateTime.now();
+        }
     }
 
     public enum TipoCalificacion {
@@ -0,0 +1,42 @@
+package Petfy.Petfy_Back.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entidad CalificacionDiaria
+ * Suma y cantidad de calificaciones de un paseador en un día (solo los últimos 90 días)
+ * Con estas filas se recalculan los promedios de 30 y 90 días de Paseador al cambiar de día
+ */
+@Entity
+@Table(name = "calificaciones_diarias", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_calificaciones_diarias_paseador_dia", columnNames = {"paseador_id", "dia"})
+}, indexes = {
+    // Borrado de los días que salen de la ventana de 90 días
+    @Index(name = "idx_calificaciones_diarias_dia", columnList = "dia")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalificacionDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "paseador_id", nullable = false)
+    private Long paseadorId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private Long suma;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+}
@@ -11,9 +11,19 @@ import java.util.List;
 /**
  * Entidad Chat
  * Representa una conversación entre dos usuarios
+ * Un solo chat por par: usuario1 es siempre el de menor id (uk_chats_par, ck_chats_par_ordenado)
  */
 @Entity
-@Table(name = "chats")
+@Table(name = "chats", uniqueConstraints = {
+    // Búsqueda del chat entre dos usuarios y chats donde el usuario es usuario1
+    @UniqueConstraint(name = "uk_chats_par", columnNames = {"usuario1_id", "usuario2_id"})
+}, indexes = {
+    // Chats donde el usuario es usuario2
+    @Index(name = "idx_chats_usuario2", columnList = "usuario2_id"),
+    // Bandeja de entrada: chats de cada participante del más reciente al más viejo
+    @Index(name = "idx_chats_usuario1_actividad", columnList = "usuario1_id, ultima_actividad, id"),
+    @Index(name = "idx_chats_usuario2_actividad", columnList = "usuario2_id, ultima_actividad, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,12 +44,27 @@ public class Chat {
     @Column(name = "fecha_creacion")
     private LocalDateTime fechaCreacion;
 
+    // Mensajes que cada participante todavía no leyó (los mantiene ChatServiceImpl con UPDATE)
+    @Column(name = "no_leidos_usuario1", nullable = false)
+    private Integer noLeidosUsuario1 = 0;
+
+    @Column(name = "no_leidos_usuario2", nullable = false)
+    private Integer noLeidosUsuario2 = 0;
+
+    // Último mensaje enviado y su fecha (o la de creación); los mantiene ChatServiceImpl con UPDATE
+    @Column(name = "ultimo_mensaje_id")
+    private Long ultimoMensajeId;
+
+    @Column(name = "ultima_actividad", nullable = false)
+    private LocalDateTime ultimaActividad;
+
     @OneToMany(mappedBy = "chat", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Mensaje> mensajes;
 
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
+        ultimaActividad = fechaCreacion;
     }
 }
 
@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
  * Representa un mensaje individual dentro de un chat
  */
 @Entity
-@Table(name = "mensajes")
+@Table(name = "mensajes", indexes = {
+    // Mensajes de un chat en orden de envío
+    @Index(name = "idx_mensajes_chat_fecha", columnList = "chat_id, fecha_envio, id"),
+    // Mensajes no leídos de un chat
+    @Index(name = "idx_mensajes_chat_leido", columnList = "chat_id, leido")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
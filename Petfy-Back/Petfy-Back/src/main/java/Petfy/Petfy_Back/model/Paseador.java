@@ -15,7 +15,11 @@ import java.util.List;
  * Representa la información adicional de los usuarios que son paseadores
  */
 @Entity
-@Table(name = "paseadores")
+@Table(name = "paseadores", indexes = {
+    // Paseadores aprobados ordenados por calificación (paseadores disponibles)
+    @Index(name = "idx_paseadores_estado_calificacion",
+           columnList = "estado_aprobacion, calificacion_promedio, total_calificaciones")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,6 +45,10 @@ public class Paseador {
     @Column(name = "ruta_documento")
     private String rutaDocumento; // Ruta donde se almacena la imagen del documento
 
+    // Miniatura JPEG del documento (la genera MiniaturasDocumentos después de la solicitud)
+    @Column(name = "ruta_miniatura")
+    private String rutaMiniatura;
+
     @Column(name = "fecha_solicitud")
     private LocalDateTime fechaSolicitud;
 
@@ -54,6 +62,41 @@ public class Paseador {
     @Column(name = "total_calificaciones")
     private Integer totalCalificaciones = 0;
 
+    // Suma de todas las calificaciones recibidas: promedio = suma / total
+    // Se actualiza junto con total y promedio en un solo UPDATE (PaseadorRepository.sumarCalificacion)
+    @Column(name = "suma_calificaciones", nullable = false)
+    private Long sumaCalificaciones = 0L;
+
+    // Histograma: cantidad de calificaciones de 1 a 5 estrellas
+    @Column(name = "estrellas_1", nullable = false)
+    private Integer estrellas1 = 0;
+
+    @Column(name = "estrellas_2", nullable = false)
+    private Integer estrellas2 = 0;
+
+    @Column(name = "estrellas_3", nullable = false)
+    private Integer estrellas3 = 0;
+
+    @Column(name = "estrellas_4", nullable = false)
+    private Integer estrellas4 = 0;
+
+    @Column(name = "estrellas_5", nullable = false)
+    private Integer estrellas5 = 0;
+
+    // Suma y total de los últimos 30 y 90 días (hoy incluido)
+    // Crecen con cada lote de calificaciones; VentanasCalificaciones los recalcula al cambiar de día
+    @Column(name = "suma_30_dias", nullable = false)
+    private Long suma30Dias = 0L;
+
+    @Column(name = "total_30_dias", nullable = false)
+    private Integer total30Dias = 0;
+
+    @Column(name = "suma_90_dias", nullable = false)
+    private Long suma90Dias = 0L;
+
+    @Column(name = "total_90_dias", nullable = false)
+    private Integer total90Dias = 0;
+
     @OneToMany(mappedBy = "paseador", cascade = CascadeType.ALL)
     private List<Paseo> paseos;
 
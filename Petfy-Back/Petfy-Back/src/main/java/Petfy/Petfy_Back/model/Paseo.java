@@ -16,14 +16,26 @@ import java.time.LocalTime;
  * Representa una solicitud/confirmación de paseo de mascota
  */
 @Entity
-@Table(name = "paseos")
+@Table(name = "paseos", indexes = {
+    // Listados del cliente paginados por (fecha, hora_inicio, id) y filtro por rango de fechas
+    @Index(name = "idx_paseos_cliente_fecha", columnList = "cliente_id, fecha, hora_inicio, id"),
+    // Paseos del cliente por estado (pendientes / confirmados)
+    @Index(name = "idx_paseos_cliente_estado", columnList = "cliente_id, estado"),
+    // Tablero de paseos pendientes paginado
+    @Index(name = "idx_paseos_estado_fecha", columnList = "estado, fecha, hora_inicio, id"),
+    // Paseos del paseador por estado, paginados
+    @Index(name = "idx_paseos_paseador_estado_fecha", columnList = "paseador_id, estado, fecha, hora_inicio, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Paseo {
 
+    // IDs por bloques desde generador_ids (pooled-lo): Hibernate puede insertar por lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "paseos_id")
+    @TableGenerator(name = "paseos_id", table = "generador_ids", pkColumnName = "nombre",
+        valueColumnName = "siguiente", pkColumnValue = "paseos", allocationSize = 500)
     private Long id;
 
     @ManyToOne
@@ -34,6 +46,14 @@ public class Paseo {
     @JoinColumn(name = "paseador_id")
     private Paseador paseador;
 
+    // Columnas FK de solo lectura para filtrar en JPQL sin pasar por la tabla unida
+    // (se asignan a través de cliente/paseador; en una entidad recién creada quedan null)
+    @Column(name = "cliente_id", nullable = false, insertable = false, updatable = false)
+    private Long clienteId;
+
+    @Column(name = "paseador_id", insertable = false, updatable = false)
+    private Long paseadorId;
+
     @NotNull(message = "La fecha es requerida")
     @Column(nullable = false)
     private LocalDate fecha;
@@ -69,9 +89,17 @@ public class Paseo {
     @Column(name = "is_completed")
     private Boolean isCompleted = false;
 
+    // Bloqueo optimista: iniciar/finalizar/cancelar/modificar fallan si otro cambio se confirmó antes
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
-        fechaCreacion = LocalDateTime.now();
+        // Los paseos importados (ImportacionService) conservan su fecha original
+        if (fechaCreacion == null) {
+            fechaCreacion = LocalDateTime.now();
+        }
     }
 
     public enum EstadoPaseo {
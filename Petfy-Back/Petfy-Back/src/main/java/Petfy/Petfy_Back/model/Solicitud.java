@@ -15,7 +15,12 @@ import java.time.LocalDateTime;
  * Solo puede ser aprobada por un usuario con rol ADMIN
  */
 @Entity
-@Table(name = "solicitudes")
+@Table(name = "solicitudes", indexes = {
+    // Cola de revisión: solicitudes por estado en orden de llegada
+    @Index(name = "idx_solicitudes_estado_fecha", columnList = "estado, fecha_solicitud"),
+    // Solicitudes de un usuario por estado
+    @Index(name = "idx_solicitudes_usuario_estado", columnList = "usuario_id, estado")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,63 @@
+package Petfy.Petfy_Back.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad TrabajoMiniatura
+ * Miniatura pendiente de generar para el documento de un paseador (cola persistente de
+ * MiniaturasDocumentos)
+ */
+@Entity
+@Table(name = "trabajos_miniaturas", indexes = {
+    // Siguientes trabajos pendientes en orden de llegada
+    @Index(name = "idx_trabajos_miniaturas_estado", columnList = "estado, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoMiniatura {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "paseador_id", nullable = false)
+    private Long paseadorId;
+
+    @Column(name = "ruta_documento", nullable = false)
+    private String rutaDocumento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoTrabajo estado = EstadoTrabajo.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+        fechaActualizacion = fechaCreacion;
+    }
+
+    public enum EstadoTrabajo {
+        PENDIENTE,      // Esperando un hilo libre
+        EN_PROCESO,     // Tomado por un hilo
+        LISTO,          // Miniatura generada
+        ERROR           // Falló después de todos los intentos, o el documento no es una imagen
+    }
+}
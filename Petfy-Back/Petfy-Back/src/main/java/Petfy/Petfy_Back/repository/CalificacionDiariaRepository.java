@@ -0,0 +1,38 @@
+package Petfy.Petfy_Back.repository;
+
+import Petfy.Petfy_Back.model.CalificacionDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repositorio para la entidad CalificacionDiaria
+ * Lo usan ColaCalificaciones (suma por día) y VentanasCalificaciones (promedios de 30/90 días)
+ */
+@Repository
+public interface CalificacionDiariaRepository extends JpaRepository<CalificacionDiaria, Long> {
+
+    /**
+     * Suma calificaciones al día de un paseador
+     *
+     * @return Filas actualizadas (0 si todavía no hay fila para ese día)
+     */
+    @Modifying
+    @Query("UPDATE CalificacionDiaria d SET d.suma = d.suma + :suma, d.cantidad = d.cantidad + :cantidad "
+        + "WHERE d.paseadorId = :paseadorId AND d.dia = :dia")
+    int sumar(@Param("paseadorId") Long paseadorId,
+              @Param("dia") LocalDate dia,
+              @Param("suma") long suma,
+              @Param("cantidad") int cantidad);
+
+    /**
+     * Borra los días anteriores a una fecha (ya fuera de todas las ventanas)
+     */
+    @Modifying
+    @Query("DELETE FROM CalificacionDiaria d WHERE d.dia < :dia")
+    int deleteAnterioresA(@Param("dia") LocalDate dia);
+}
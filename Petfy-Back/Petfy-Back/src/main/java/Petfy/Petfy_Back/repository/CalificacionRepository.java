@@ -1,12 +1,15 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.CalificacionPendiente;
 import Petfy.Petfy_Back.model.Calificacion;
 import Petfy.Petfy_Back.model.Calificacion.TipoCalificacion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,13 +24,15 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
      * Busca calificaciones de un paseo específico
      * Se usaría en: history.component.ts para mostrar calificación de un paseo
      */
-    Optional<Calificacion> findByPaseoId(Long paseoId);
+    @Query("SELECT c FROM Calificacion c WHERE c.paseo.id = :paseoId")
+    Optional<Calificacion> findByPaseoId(@Param("paseoId") Long paseoId);
 
     /**
      * Busca todas las calificaciones de un usuario
      * Se usaría en: profile.component.ts para mostrar historial de calificaciones
      */
-    List<Calificacion> findByUsuarioId(Long usuarioId);
+    @Query("SELECT c FROM Calificacion c WHERE c.usuario.id = :usuarioId")
+    List<Calificacion> findByUsuarioId(@Param("usuarioId") Long usuarioId);
 
     /**
      * Busca calificaciones por tipo
@@ -48,6 +53,36 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
      */
     @Query("SELECT c FROM Calificacion c WHERE c.paseo.paseador.id = :paseadorId AND c.tipo = 'PASEO'")
     List<Calificacion> findCalificacionesPorPaseador(@Param("paseadorId") Long paseadorId);
-}
 
+    /**
+     * Calificaciones de la lista que todavía no se sumaron a su paseador
+     * Se usa en: ColaCalificaciones.vaciar()
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.CalificacionPendiente("
+        + "c.id, pa.paseadorId, c.calificacion, c.fechaCalificacion) "
+        + "FROM Calificacion c JOIN c.paseo pa "
+        + "WHERE c.id IN :ids AND c.agregada = false AND c.tipo = 'PASEO' AND pa.paseadorId IS NOT NULL")
+    List<CalificacionPendiente> findPendientesDeAgregar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * IDs de todas las calificaciones que todavía no se sumaron a su paseador
+     * Se usa en: ColaCalificaciones al arrancar (recupera lo que quedó en la cola al apagar)
+     */
+    @Query("SELECT c.id FROM Calificacion c WHERE c.agregada = false ORDER BY c.id")
+    List<Long> findIdsNoAgregadas();
+
+    /**
+     * Marca calificaciones como sumadas a su paseador
+     * Se usa en: ColaCalificaciones.vaciar(), en la misma transacción que suma los agregados
+     */
+    @Modifying
+    @Query("UPDATE Calificacion c SET c.agregada = true WHERE c.id IN :ids")
+    int marcarAgregadas(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Paseos de la lista que ya tienen calificación (uk_calificaciones_paseo)
+     * Se usa en: ImportacionServiceImpl para validar las calificaciones importadas
+     */
+    @Query("SELECT c.paseo.id FROM Calificacion c WHERE c.paseo.id IN :paseoIds")
+    List<Long> findPaseoIdsCalificados(@Param("paseoIds") Collection<Long> paseoIds);
+}
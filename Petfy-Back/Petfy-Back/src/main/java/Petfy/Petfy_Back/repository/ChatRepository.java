@@ -1,9 +1,19 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+import Petfy.Petfy_Back.dto.response.ChatNoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.ChatResponse;
 import Petfy.Petfy_Back.model.Chat;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +24,149 @@ import java.util.Optional;
 public interface ChatRepository extends JpaRepository<Chat, Long> {
     
     /**
-     * Busca un chat entre dos usuarios específicos
+     * Chat de un par de usuarios con los datos del otro participante (una búsqueda en uk_chats_par)
+     * El par va ordenado: usuario1Id es el menor de los dos
+     * Se usa en: ChatServiceImpl.obtenerOCrearChat()
      */
-    Optional<Chat> findByUsuario1IdAndUsuario2Id(Long usuario1Id, Long usuario2Id);
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ChatResponse(c.id, u.id, u.username, c.fechaCreacion) "
+        + "FROM Chat c JOIN Usuario u ON u.id = :otroUsuarioId "
+        + "WHERE c.usuario1.id = :usuario1Id AND c.usuario2.id = :usuario2Id")
+    Optional<ChatResponse> findPar(@Param("usuario1Id") Long usuario1Id,
+                                   @Param("usuario2Id") Long usuario2Id,
+                                   @Param("otroUsuarioId") Long otroUsuarioId);
+
+    /**
+     * Crea el chat del par si todavía no existe (INSERT IGNORE sobre uk_chats_par)
+     * Si otra transacción lo creó antes no falla ni deja la transacción marcada para revertir
+     *
+     * @return 1 si lo creó, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO chats (usuario1_id, usuario2_id, fecha_creacion, ultima_actividad, "
+        + "no_leidos_usuario1, no_leidos_usuario2) VALUES (:usuario1Id, :usuario2Id, :fecha, :fecha, 0, 0)",
+        nativeQuery = true)
+    int crearParSiNoExiste(@Param("usuario1Id") Long usuario1Id,
+                           @Param("usuario2Id") Long usuario2Id,
+                           @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Chat del par con lectura bloqueante: ve el chat aunque lo haya confirmado otra
+     * transacción después de empezar la actual
+     * Se usa en: ChatServiceImpl.obtenerOCrearChat(), después de crearParSiNoExiste()
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT c FROM Chat c WHERE c.usuario1.id = :usuario1Id AND c.usuario2.id = :usuario2Id")
+    Optional<Chat> bloquearPar(@Param("usuario1Id") Long usuario1Id, @Param("usuario2Id") Long usuario2Id);
     
+    /**
+     * Verifica si el usuario participa del chat (búsqueda por clave primaria)
+     */
+    @Query("SELECT COUNT(c) > 0 FROM Chat c WHERE c.id = :chatId "
+        + "AND (c.usuario1.id = :usuarioId OR c.usuario2.id = :usuarioId)")
+    boolean esParticipante(@Param("chatId") Long chatId, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * ID del otro participante del chat, vacío si el usuario no participa
+     * Se usa en: ChatServiceImpl.enviarMensaje() para entregar el mensaje por WebSocket
+     */
+    @Query("SELECT CASE WHEN c.usuario1.id = :usuarioId THEN c.usuario2.id ELSE c.usuario1.id END "
+        + "FROM Chat c WHERE c.id = :chatId AND (c.usuario1.id = :usuarioId OR c.usuario2.id = :usuarioId)")
+    Optional<Long> findOtroParticipante(@Param("chatId") Long chatId, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Suma un mensaje no leído al destinatario
+     * Bloquea la fila del chat: ChatServiceImpl lo llama antes de insertar el mensaje, para
+     * tomar los bloqueos en el mismo orden que marcarLeidos (chat y después mensajes)
+     */
+    @Modifying
+    @Query("UPDATE Chat c SET "
+        + "c.noLeidosUsuario1 = CASE WHEN c.usuario1.id = :destinatarioId "
+        + "    THEN c.noLeidosUsuario1 + 1 ELSE c.noLeidosUsuario1 END, "
+        + "c.noLeidosUsuario2 = CASE WHEN c.usuario2.id = :destinatarioId "
+        + "    THEN c.noLeidosUsuario2 + 1 ELSE c.noLeidosUsuario2 END "
+        + "WHERE c.id = :chatId")
+    int sumarNoLeido(@Param("chatId") Long chatId, @Param("destinatarioId") Long destinatarioId);
+
+    /**
+     * Resta mensajes leídos al contador del usuario (nunca queda negativo)
+     */
+    @Modifying
+    @Query("UPDATE Chat c SET "
+        + "c.noLeidosUsuario1 = CASE WHEN c.usuario1.id = :usuarioId "
+        + "    THEN CASE WHEN c.noLeidosUsuario1 > :cantidad THEN c.noLeidosUsuario1 - :cantidad ELSE 0 END "
+        + "    ELSE c.noLeidosUsuario1 END, "
+        + "c.noLeidosUsuario2 = CASE WHEN c.usuario2.id = :usuarioId "
+        + "    THEN CASE WHEN c.noLeidosUsuario2 > :cantidad THEN c.noLeidosUsuario2 - :cantidad ELSE 0 END "
+        + "    ELSE c.noLeidosUsuario2 END "
+        + "WHERE c.id = :chatId")
+    int restarNoLeidos(@Param("chatId") Long chatId,
+                       @Param("usuarioId") Long usuarioId,
+                       @Param("cantidad") int cantidad);
+
+    /**
+     * Registra el último mensaje del chat (la fila ya está bloqueada por sumarNoLeido)
+     * Se usa en: ChatServiceImpl.enviarMensaje()
+     */
+    @Modifying
+    @Query("UPDATE Chat c SET c.ultimoMensajeId = :mensajeId, c.ultimaActividad = :fecha WHERE c.id = :chatId")
+    int registrarUltimoMensaje(@Param("chatId") Long chatId,
+                               @Param("mensajeId") Long mensajeId,
+                               @Param("fecha") LocalDateTime fecha);
+
+    // Bandeja de entrada: una consulta por columna del par, cada una un rango de su índice
+    // (participante, ultima_actividad, id) recorrido hacia atrás desde el cursor.
+    // El último mensaje se busca por clave primaria solo para los chats de la página.
+
+    String BANDEJA_DESDE = "FROM Chat c LEFT JOIN Mensaje m ON m.id = c.ultimoMensajeId ";
+
+    String ANTES_DEL_CURSOR = "(c.ultimaActividad < :actividad "
+        + "OR (c.ultimaActividad = :actividad AND c.id < :id)) ";
+
+    String ORDEN_BANDEJA = "ORDER BY c.ultimaActividad DESC, c.id DESC";
+
+    /**
+     * Página de la bandeja con los chats donde el usuario es usuario1
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ChatBandejaResponse(c.id, c.usuario2.id, c.usuario2.username, "
+        + "SUBSTRING(m.contenido, 1, " + ChatBandejaResponse.LARGO_VISTA_PREVIA + "), m.usuario.id, "
+        + "c.ultimaActividad, c.noLeidosUsuario1) "
+        + BANDEJA_DESDE + "WHERE c.usuario1.id = :usuarioId AND " + ANTES_DEL_CURSOR + ORDEN_BANDEJA)
+    List<ChatBandejaResponse> findBandejaComoUsuario1(@Param("usuarioId") Long usuarioId,
+                                                     @Param("actividad") LocalDateTime actividad,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    /**
+     * Página de la bandeja con los chats donde el usuario es usuario2
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ChatBandejaResponse(c.id, c.usuario1.id, c.usuario1.username, "
+        + "SUBSTRING(m.contenido, 1, " + ChatBandejaResponse.LARGO_VISTA_PREVIA + "), m.usuario.id, "
+        + "c.ultimaActividad, c.noLeidosUsuario2) "
+        + BANDEJA_DESDE + "WHERE c.usuario2.id = :usuarioId AND " + ANTES_DEL_CURSOR + ORDEN_BANDEJA)
+    List<ChatBandejaResponse> findBandejaComoUsuario2(@Param("usuarioId") Long usuarioId,
+                                                     @Param("actividad") LocalDateTime actividad,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    /**
+     * Bloquea la fila del chat (SELECT ... FOR UPDATE) hasta el fin de la transacción
+     * Se usa en: ChatServiceImpl.marcarLeidos(), antes de marcar los mensajes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Chat c WHERE c.id = :chatId")
+    Optional<Long> bloquear(@Param("chatId") Long chatId);
+
+    /**
+     * Chats del usuario con mensajes sin leer y cuántos tiene cada uno, en una sola consulta
+     * Se usa en: chat.component.ts -> lista de chats (badge de no leídos)
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ChatNoLeidosResponse(c.id, c.noLeidosUsuario1) "
+        + "FROM Chat c WHERE c.usuario1.id = :usuarioId AND c.noLeidosUsuario1 > 0 "
+        + "UNION ALL "
+        + "SELECT new Petfy.Petfy_Back.dto.response.ChatNoLeidosResponse(c.id, c.noLeidosUsuario2) "
+        + "FROM Chat c WHERE c.usuario2.id = :usuarioId AND c.noLeidosUsuario2 > 0")
+    List<ChatNoLeidosResponse> findNoLeidos(@Param("usuarioId") Long usuarioId);
+
     /**
      * Busca todos los chats de un usuario (ya sea como usuario1 o usuario2)
      */
@@ -26,11 +175,13 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     /**
      * Busca todos los chats de un usuario específico
      */
-    List<Chat> findByUsuario1Id(Long usuarioId);
+    @Query("SELECT c FROM Chat c WHERE c.usuario1.id = :usuarioId")
+    List<Chat> findByUsuario1Id(@Param("usuarioId") Long usuarioId);
     
     /**
      * Busca todos los chats donde el usuario es usuario2
      */
-    List<Chat> findByUsuario2Id(Long usuarioId);
+    @Query("SELECT c FROM Chat c WHERE c.usuario2.id = :usuarioId")
+    List<Chat> findByUsuario2Id(@Param("usuarioId") Long usuarioId);
 }
 
@@ -1,9 +1,15 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
 import Petfy.Petfy_Back.model.Mensaje;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -12,15 +18,58 @@ import java.util.List;
 @Repository
 public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
     
+    // Paginación keyset sobre idx_mensajes_chat_fecha (chat_id, fecha_envio, id):
+    // cada página es un rango del índice, sin cargar la conversación completa ni usar OFFSET
+
+    String SELECT_MENSAJE_RESPONSE = "SELECT new Petfy.Petfy_Back.dto.response.MensajeResponse("
+        + "m.id, m.chat.id, m.usuario.id, m.contenido, m.fechaEnvio, m.leido) FROM Mensaje m ";
+
+    /**
+     * Últimos mensajes de un chat, del más nuevo al más viejo
+     * Se usa en: chat.component.ts al abrir una conversación
+     */
+    @Query(SELECT_MENSAJE_RESPONSE + "WHERE m.chat.id = :chatId ORDER BY m.fechaEnvio DESC, m.id DESC")
+    List<MensajeResponse> findUltimos(@Param("chatId") Long chatId, Limit limit);
+
+    /**
+     * Mensajes anteriores al cursor, del más nuevo al más viejo
+     * Se usa en: chat.component.ts al subir en el historial
+     */
+    @Query(SELECT_MENSAJE_RESPONSE + "WHERE m.chat.id = :chatId AND (m.fechaEnvio < :fechaEnvio "
+        + "OR (m.fechaEnvio = :fechaEnvio AND m.id < :id)) ORDER BY m.fechaEnvio DESC, m.id DESC")
+    List<MensajeResponse> findAnteriores(@Param("chatId") Long chatId,
+                                         @Param("fechaEnvio") LocalDateTime fechaEnvio,
+                                         @Param("id") Long id,
+                                         Limit limit);
+
+    /**
+     * Mensajes posteriores al cursor, del más viejo al más nuevo
+     * Se usa en: chat.component.ts para traer los mensajes nuevos
+     */
+    @Query(SELECT_MENSAJE_RESPONSE + "WHERE m.chat.id = :chatId AND (m.fechaEnvio > :fechaEnvio "
+        + "OR (m.fechaEnvio = :fechaEnvio AND m.id > :id)) ORDER BY m.fechaEnvio, m.id")
+    List<MensajeResponse> findPosteriores(@Param("chatId") Long chatId,
+                                          @Param("fechaEnvio") LocalDateTime fechaEnvio,
+                                          @Param("id") Long id,
+                                          Limit limit);
+
     /**
-     * Busca todos los mensajes de un chat específico ordenados por fecha
+     * Marca como leídos, en una sola sentencia, los mensajes del chat que envió el otro
+     * participante hasta un mensaje (inclusive)
+     * Se usa en: ChatServiceImpl.marcarLeidos(), desde LecturasChat
      */
-    List<Mensaje> findByChatIdOrderByFechaEnvioAsc(Long chatId);
+    @Modifying
+    @Query("UPDATE Mensaje m SET m.leido = true WHERE m.chat.id = :chatId AND m.leido = false "
+        + "AND m.usuario.id <> :usuarioId AND m.id <= :hastaId")
+    int marcarLeidosHasta(@Param("chatId") Long chatId,
+                          @Param("usuarioId") Long usuarioId,
+                          @Param("hastaId") Long hastaId);
     
     /**
      * Busca todos los mensajes no leídos de un chat
      */
-    List<Mensaje> findByChatIdAndLeidoFalse(Long chatId);
+    @Query("SELECT m FROM Mensaje m WHERE m.chat.id = :chatId AND m.leido = false")
+    List<Mensaje> findByChatIdAndLeidoFalse(@Param("chatId") Long chatId);
     
     /**
      * Busca todos los mensajes de un usuario específico
@@ -30,6 +79,7 @@ public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
     /**
      * Cuenta los mensajes no leídos de un chat
      */
-    long countByChatIdAndLeidoFalse(Long chatId);
+    @Query("SELECT COUNT(m) FROM Mensaje m WHERE m.chat.id = :chatId AND m.leido = false")
+    long countByChatIdAndLeidoFalse(@Param("chatId") Long chatId);
 }
 
@@ -1,10 +1,18 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.ConciliacionCalificacion;
+import Petfy.Petfy_Back.dto.response.PaseadorResponse;
 import Petfy.Petfy_Back.model.Paseador;
 import Petfy.Petfy_Back.model.Paseador.EstadoAprobacion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +27,8 @@ public interface PaseadorRepository extends JpaRepository<Paseador, Long> {
      * Busca un paseador por su usuario
      * Se usaría en: walker-application.component.ts para verificar si ya es paseador
      */
-    Optional<Paseador> findByUsuarioId(Long usuarioId);
+    @Query("SELECT p FROM Paseador p WHERE p.usuario.id = :usuarioId")
+    Optional<Paseador> findByUsuarioId(@Param("usuarioId") Long usuarioId);
 
     /**
      * Busca todos los paseadores aprobados
@@ -27,6 +36,134 @@ public interface PaseadorRepository extends JpaRepository<Paseador, Long> {
      */
     List<Paseador> findByEstadoAprobacion(EstadoAprobacion estado);
 
+    /**
+     * Estado de aprobación de un paseador, sin cargar la entidad ni su usuario
+     * Se usa en: PaseoServiceImpl.aceptarPaseo() para verificar permisos
+     */
+    @Query("SELECT p.estadoAprobacion FROM Paseador p WHERE p.id = :paseadorId")
+    Optional<EstadoAprobacion> findEstadoAprobacionById(@Param("paseadorId") Long paseadorId);
+
+    /**
+     * Ruta del documento de un paseador, sin cargar la entidad
+     * Se usa en: AdminController.descargarDocumentoPaseador()
+     */
+    @Query("SELECT p.rutaDocumento FROM Paseador p WHERE p.id = :paseadorId")
+    Optional<String> findRutaDocumentoById(@Param("paseadorId") Long paseadorId);
+
+    /**
+     * Ruta de la miniatura del documento de un paseador, sin cargar la entidad
+     * Se usa en: AdminController.descargarMiniaturaPaseador()
+     */
+    @Query("SELECT p.rutaMiniatura FROM Paseador p WHERE p.id = :paseadorId")
+    Optional<String> findRutaMiniaturaById(@Param("paseadorId") Long paseadorId);
+
+    /**
+     * Registra la miniatura generada del documento
+     * Se usa en: MiniaturasDocumentos.procesar()
+     */
+    @Modifying
+    @Query("UPDATE Paseador p SET p.rutaMiniatura = :rutaMiniatura WHERE p.id = :paseadorId")
+    int registrarMiniatura(@Param("paseadorId") Long paseadorId, @Param("rutaMiniatura") String rutaMiniatura);
+
+    /**
+     * Aprueba o rechaza con un solo UPDATE a los paseadores pendientes de los usuarios de la lista
+     * Se usa en: SolicitudServiceImpl (revisión de solicitudes)
+     */
+    @Modifying
+    @Query("UPDATE Paseador p SET p.estadoAprobacion = :estado "
+        + "WHERE p.usuario.id IN :usuarioIds AND p.estadoAprobacion = 'PENDIENTE'")
+    int resolverPendientes(@Param("usuarioIds") List<Long> usuarioIds,
+                           @Param("estado") Paseador.EstadoAprobacion estado);
+
+    /**
+     * Suma un lote de calificaciones al paseador en una sola sentencia
+     * (suma, total, promedio, histograma de estrellas y ventanas de 30/90 días)
+     * El promedio se asigna primero y con los valores previos: así da lo mismo si la base
+     * evalúa el SET con los valores originales (estándar) o de izquierda a derecha (MySQL)
+     * Se usa en: ColaCalificaciones.vaciar()
+     */
+    @Modifying
+    @Query("UPDATE Paseador p SET "
+        + "p.calificacionPromedio = (p.sumaCalificaciones + :suma) * 1.0 / (p.totalCalificaciones + :cantidad), "
+        + "p.sumaCalificaciones = p.sumaCalificaciones + :suma, "
+        + "p.totalCalificaciones = p.totalCalificaciones + :cantidad, "
+        + "p.estrellas1 = p.estrellas1 + :estrellas1, "
+        + "p.estrellas2 = p.estrellas2 + :estrellas2, "
+        + "p.estrellas3 = p.estrellas3 + :estrellas3, "
+        + "p.estrellas4 = p.estrellas4 + :estrellas4, "
+        + "p.estrellas5 = p.estrellas5 + :estrellas5, "
+        + "p.suma30Dias = p.suma30Dias + :suma30Dias, "
+        + "p.total30Dias = p.total30Dias + :total30Dias, "
+        + "p.suma90Dias = p.suma90Dias + :suma90Dias, "
+        + "p.total90Dias = p.total90Dias + :total90Dias "
+        + "WHERE p.id = :paseadorId")
+    int sumarCalificaciones(@Param("paseadorId") Long paseadorId,
+                            @Param("suma") long suma,
+                            @Param("cantidad") int cantidad,
+                            @Param("estrellas1") int estrellas1,
+                            @Param("estrellas2") int estrellas2,
+                            @Param("estrellas3") int estrellas3,
+                            @Param("estrellas4") int estrellas4,
+                            @Param("estrellas5") int estrellas5,
+                            @Param("suma30Dias") long suma30Dias,
+                            @Param("total30Dias") int total30Dias,
+                            @Param("suma90Dias") long suma90Dias,
+                            @Param("total90Dias") int total90Dias);
+
+    /**
+     * Recalcula las ventanas de 30 y 90 días de todos los paseadores desde calificaciones_diarias
+     * (a lo sumo 90 filas por paseador, no todas sus calificaciones)
+     * Se usa en: VentanasCalificaciones, una vez por día
+     */
+    @Modifying
+    @Query("UPDATE Paseador p SET "
+        + "p.suma30Dias = COALESCE((SELECT SUM(d.suma) FROM CalificacionDiaria d "
+        + "    WHERE d.paseadorId = p.id AND d.dia >= :desde30Dias), 0), "
+        + "p.total30Dias = COALESCE((SELECT SUM(d.cantidad) FROM CalificacionDiaria d "
+        + "    WHERE d.paseadorId = p.id AND d.dia >= :desde30Dias), 0), "
+        + "p.suma90Dias = COALESCE((SELECT SUM(d.suma) FROM CalificacionDiaria d "
+        + "    WHERE d.paseadorId = p.id AND d.dia >= :desde90Dias), 0), "
+        + "p.total90Dias = COALESCE((SELECT SUM(d.cantidad) FROM CalificacionDiaria d "
+        + "    WHERE d.paseadorId = p.id AND d.dia >= :desde90Dias), 0)")
+    int recalcularVentanas(@Param("desde30Dias") LocalDate desde30Dias,
+                           @Param("desde90Dias") LocalDate desde90Dias);
+
+    /**
+     * Compara suma y total guardados con los calculados desde calificaciones, para un rango de paseadores
+     * Solo cuenta las calificaciones ya agregadas (las que siguen en ColaCalificaciones no son un descuadre)
+     * Devuelve solo los paseadores cuyos valores no coinciden
+     * Se usa en: ConciliacionCalificaciones
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ConciliacionCalificacion("
+        + "p.id, p.sumaCalificaciones, p.totalCalificaciones, COALESCE(SUM(c.calificacion), 0), COUNT(c.id)) "
+        + "FROM Paseador p LEFT JOIN Paseo pa ON pa.paseadorId = p.id "
+        + "LEFT JOIN Calificacion c ON c.paseo = pa AND c.tipo = 'PASEO' AND c.agregada = true "
+        + "WHERE p.id BETWEEN :desde AND :hasta "
+        + "GROUP BY p.id, p.sumaCalificaciones, p.totalCalificaciones "
+        + "HAVING COALESCE(SUM(c.calificacion), 0) <> p.sumaCalificaciones "
+        + "OR COUNT(c.id) <> COALESCE(p.totalCalificaciones, 0)")
+    List<ConciliacionCalificacion> findDescuadresCalificaciones(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Corrige suma, total y promedio de un paseador solo si no cambiaron desde que se leyeron
+     * (si entró una calificación nueva, la corrección se descarta y se revisa en la próxima pasada)
+     * Se usa en: ConciliacionCalificaciones
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Paseador p SET p.sumaCalificaciones = :suma, p.totalCalificaciones = :total, "
+        + "p.calificacionPromedio = CASE WHEN :total > 0 THEN :suma * 1.0 / :total ELSE 0.0 END "
+        + "WHERE p.id = :paseadorId AND p.sumaCalificaciones = :sumaLeida "
+        + "AND COALESCE(p.totalCalificaciones, 0) = :totalLeido")
+    int corregirCalificaciones(@Param("paseadorId") Long paseadorId,
+                               @Param("suma") long suma,
+                               @Param("total") int total,
+                               @Param("sumaLeida") long sumaLeida,
+                               @Param("totalLeido") int totalLeido);
+
+    @Query("SELECT MAX(p.id) FROM Paseador p")
+    Optional<Long> findMaxId();
+
     /**
      * Busca un paseador por el nombre de usuario
      * Se usaría en: request.component.ts para asignar paseador específico
@@ -34,10 +171,23 @@ public interface PaseadorRepository extends JpaRepository<Paseador, Long> {
     Optional<Paseador> findByUsuarioUsername(String username);
 
     /**
-     * Busca paseadores disponibles (aprobados y no ocupados en una fecha/hora específica)
-     * Se usaría en: request.component.ts para seleccionar paseador "Aleatorio"
+     * Paseadores aprobados, de mejor a peor calificación, sin cargar entidades
+     * La disponibilidad en una fecha/hora la resuelve AgendaPaseadores en memoria
+     * Se usa en: request.component.ts -> walkers[] (GET /api/paseadores/disponibles)
      */
-    // List<Paseador> findPaseadoresDisponibles(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin);
-}
-
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.PaseadorResponse("
+        + "p.id, u.username, p.descripcion, p.calificacionPromedio, p.totalCalificaciones, "
+        + "p.estrellas1, p.estrellas2, p.estrellas3, p.estrellas4, p.estrellas5, "
+        + "p.suma30Dias, p.total30Dias, p.suma90Dias, p.total90Dias) "
+        + "FROM Paseador p JOIN p.usuario u "
+        + "WHERE p.estadoAprobacion = 'APROBADO' "
+        + "ORDER BY p.calificacionPromedio DESC, p.totalCalificaciones DESC, p.id")
+    List<PaseadorResponse> findAprobadosPorCalificacion();
 
+    /**
+     * IDs de la lista que existen
+     * Se usa en: ImportacionServiceImpl para validar las filas antes de insertarlas
+     */
+    @Query("SELECT p.id FROM Paseador p WHERE p.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+}
@@ -1,14 +1,25 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.PaseoCalificable;
+import Petfy.Petfy_Back.dto.response.PaseoPendiente;
+import Petfy.Petfy_Back.dto.response.PaseoResponse;
+import Petfy.Petfy_Back.dto.response.ReservaPaseador;
+import Petfy.Petfy_Back.model.Paseador;
 import Petfy.Petfy_Back.model.Paseo;
 import Petfy.Petfy_Back.model.Paseo.EstadoPaseo;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para la entidad Paseo
@@ -69,6 +80,162 @@ public interface PaseoRepository extends JpaRepository<Paseo, Long> {
     List<Paseo> findPaseosPorRangoFecha(@Param("clienteId") Long clienteId, 
                                          @Param("startDate") LocalDate startDate, 
                                          @Param("endDate") LocalDate endDate);
-}
 
+    // Proyecciones a PaseoResponse
+    // Resuelven cliente y paseador con JOINs en una sola consulta, sin cargar entidades
+    // (evita el N+1 de PaseoResponse.fromEntity sobre paseador.usuario y usuario.paseador)
+    // Los filtros usan p.clienteId / p.paseadorId (columnas FK de paseos) para que el
+    // plan parta de los índices de paseos y no de la tabla unida
+
+    String SELECT_PASEO_RESPONSE = "SELECT new Petfy.Petfy_Back.dto.response.PaseoResponse("
+        + "p.id, p.fecha, p.horaInicio, p.horaFin, p.direccion, pu.username, c.username, "
+        + "p.estado, p.fechaCreacion, p.isCompleted) "
+        + "FROM Paseo p JOIN p.cliente c LEFT JOIN p.paseador pa LEFT JOIN pa.usuario pu ";
+
+    /**
+     * Paseos de un cliente en un estado
+     * Se usa en: requests.component.ts -> pendingRequests / confirmedRequests
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.clienteId = :clienteId AND p.estado = :estado")
+    List<PaseoResponse> findResponsesByClienteIdAndEstado(@Param("clienteId") Long clienteId,
+                                                           @Param("estado") EstadoPaseo estado);
+
+    /**
+     * Un paseo por ID
+     * Se usa en: walker-requests.component.ts -> acceptRequest() (respuesta tras aceptar)
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.id = :paseoId")
+    Optional<PaseoResponse> findResponseById(@Param("paseoId") Long paseoId);
+
+    /**
+     * Todos los paseos pendientes con su paseador asignado y versión
+     * Se usa en: TableroPaseosPendientes -> carga al arrancar
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.PaseoPendiente("
+        + "p.id, p.fecha, p.horaInicio, p.horaFin, p.direccion, pu.username, c.username, "
+        + "p.estado, p.fechaCreacion, p.isCompleted, p.paseadorId, p.version) "
+        + "FROM Paseo p JOIN p.cliente c LEFT JOIN p.paseador pa LEFT JOIN pa.usuario pu "
+        + "WHERE p.estado = 'PENDIENTE'")
+    List<PaseoPendiente> findPendientes();
+
+    /**
+     * Paseos que ocupan a su paseador (CONFIRMADO / EN_PROGRESO) desde una fecha
+     * Se usa en: AgendaPaseadores -> carga al arrancar
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.ReservaPaseador("
+        + "p.id, p.paseadorId, p.fecha, p.horaInicio, p.horaFin, p.version) "
+        + "FROM Paseo p WHERE p.estado IN ('CONFIRMADO', 'EN_PROGRESO') "
+        + "AND p.paseadorId IS NOT NULL AND p.fecha >= :desde")
+    List<ReservaPaseador> findReservasDesde(@Param("desde") LocalDate desde);
+
+    /**
+     * Estado actual de un paseo, sin cargar la entidad
+     */
+    @Query("SELECT p.estado FROM Paseo p WHERE p.id = :paseoId")
+    Optional<EstadoPaseo> findEstadoById(@Param("paseoId") Long paseoId);
+
+    /**
+     * Versión actual de un paseo (@Version), sin cargar la entidad
+     */
+    @Query("SELECT p.version FROM Paseo p WHERE p.id = :paseoId")
+    Optional<Long> findVersionById(@Param("paseoId") Long paseoId);
+
+    /**
+     * Paseos de un paseador (por ID de Paseador)
+     * Se usa en: walker-requests.component.ts -> loadRequests()
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.paseadorId = :paseadorId")
+    List<PaseoResponse> findResponsesByPaseadorId(@Param("paseadorId") Long paseadorId);
 
+    /**
+     * Paseos finalizados de un cliente en un rango de fechas
+     * Se usa en: history.component.ts -> filterWalks()
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.clienteId = :clienteId AND p.fecha BETWEEN :startDate AND :endDate "
+        + "AND p.isCompleted = true")
+    List<PaseoResponse> findResponsesPorRangoFecha(@Param("clienteId") Long clienteId,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
+    // Paginación por clave (keyset) sobre (fecha, hora_inicio, id)
+    // Cada página devuelve los paseos estrictamente posteriores al cursor (ver CursorPaseo)
+
+    String DESPUES_DEL_CURSOR = "(p.fecha > :fecha "
+        + "OR (p.fecha = :fecha AND p.horaInicio > :horaInicio) "
+        + "OR (p.fecha = :fecha AND p.horaInicio = :horaInicio AND p.id > :id)) ";
+
+    String ORDEN_KEYSET = "ORDER BY p.fecha, p.horaInicio, p.id";
+
+    /**
+     * Página de paseos de un cliente
+     * Se usa en: requests.component.ts -> loadRequests()
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.clienteId = :clienteId AND " + DESPUES_DEL_CURSOR + ORDEN_KEYSET)
+    List<PaseoResponse> findPaginaByClienteId(@Param("clienteId") Long clienteId,
+                                              @Param("fecha") LocalDate fecha,
+                                              @Param("horaInicio") LocalTime horaInicio,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    /**
+     * Página de paseos en un estado
+     * (GET /pendientes responde desde TableroPaseosPendientes; esta consulta queda como su equivalente en SQL)
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.estado = :estado AND " + DESPUES_DEL_CURSOR + ORDEN_KEYSET)
+    List<PaseoResponse> findPaginaByEstado(@Param("estado") EstadoPaseo estado,
+                                           @Param("fecha") LocalDate fecha,
+                                           @Param("horaInicio") LocalTime horaInicio,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    /**
+     * Página de paseos de un paseador (por ID de Paseador) en un estado
+     * Se usa en: walker-requests.component.ts -> confirmedRequests
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.paseadorId = :paseadorId AND p.estado = :estado AND "
+        + DESPUES_DEL_CURSOR + ORDEN_KEYSET)
+    List<PaseoResponse> findPaginaByPaseadorIdAndEstado(@Param("paseadorId") Long paseadorId,
+                                                        @Param("estado") EstadoPaseo estado,
+                                                        @Param("fecha") LocalDate fecha,
+                                                        @Param("horaInicio") LocalTime horaInicio,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    /**
+     * Página de paseos finalizados de un cliente
+     * Se usa en: history.component.ts -> finalizedWalks
+     */
+    @Query(SELECT_PASEO_RESPONSE + "WHERE p.clienteId = :clienteId AND p.isCompleted = true AND "
+        + DESPUES_DEL_CURSOR + ORDEN_KEYSET)
+    List<PaseoResponse> findPaginaFinalizadosPorCliente(@Param("clienteId") Long clienteId,
+                                                        @Param("fecha") LocalDate fecha,
+                                                        @Param("horaInicio") LocalTime horaInicio,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    /**
+     * Acepta un paseo pendiente en una sola sentencia (compare-and-set sobre estado y paseador)
+     * Solo se aplica si el paseo sigue PENDIENTE y no tiene paseador o ya está asignado a este paseador;
+     * entre varios paseadores que aceptan a la vez, solo uno obtiene 1 fila afectada
+     * Se usa en: walker-requests.component.ts -> acceptRequest()
+     *
+     * @return Filas actualizadas (1 si este paseador ganó la aceptación, 0 si no)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Paseo p SET p.paseador = :paseador, p.estado = 'CONFIRMADO', "
+        + "p.fechaConfirmacion = :fechaConfirmacion, p.version = p.version + 1 "
+        + "WHERE p.id = :paseoId AND p.estado = 'PENDIENTE' "
+        + "AND (p.paseadorId IS NULL OR p.paseadorId = :paseadorId)")
+    int aceptarSiPendiente(@Param("paseoId") Long paseoId,
+                           @Param("paseador") Paseador paseador,
+                           @Param("paseadorId") Long paseadorId,
+                           @Param("fechaConfirmacion") LocalDateTime fechaConfirmacion);
+
+    /**
+     * Cliente, paseador y estado de los paseos de la lista
+     * Se usa en: ImportacionServiceImpl para validar las calificaciones importadas
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.PaseoCalificable(p.id, p.clienteId, p.paseadorId, p.estado) "
+        + "FROM Paseo p WHERE p.id IN :ids")
+    List<PaseoCalificable> findCalificables(@Param("ids") Collection<Long> ids);
+}
@@ -1,9 +1,18 @@
 package Petfy.Petfy_Back.repository;
 
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
 import Petfy.Petfy_Back.model.Solicitud;
+import Petfy.Petfy_Back.model.Usuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +25,8 @@ public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     /**
      * Busca una solicitud pendiente o aprobada por el ID del usuario (la más reciente)
      */
-    Optional<Solicitud> findFirstByUsuarioIdOrderByFechaSolicitudDesc(Long usuarioId);
+    @Query("SELECT s FROM Solicitud s WHERE s.usuario.id = :usuarioId ORDER BY s.fechaSolicitud DESC LIMIT 1")
+    Optional<Solicitud> findFirstByUsuarioIdOrderByFechaSolicitudDesc(@Param("usuarioId") Long usuarioId);
     
     /**
      * Busca todas las solicitudes pendientes
@@ -26,16 +36,55 @@ public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     /**
      * Busca todas las solicitudes de un usuario específico
      */
-    List<Solicitud> findAllByUsuarioId(Long usuarioId);
+    @Query("SELECT s FROM Solicitud s WHERE s.usuario.id = :usuarioId")
+    List<Solicitud> findAllByUsuarioId(@Param("usuarioId") Long usuarioId);
     
     /**
      * Busca todas las solicitudes aprobadas por un admin específico
      */
-    List<Solicitud> findByAdminAprobadorId(Long adminId);
+    @Query("SELECT s FROM Solicitud s WHERE s.adminAprobador.id = :adminId")
+    List<Solicitud> findByAdminAprobadorId(@Param("adminId") Long adminId);
     
     /**
      * Verifica si existe una solicitud pendiente para un usuario
      */
     boolean existsByUsuarioIdAndEstado(Long usuarioId, Solicitud.EstadoSolicitud estado);
-}
 
+    /**
+     * Página de la cola de revisión: solicitudes pendientes en orden de llegada, posteriores
+     * al cursor (fechaSolicitud, id). Recorre idx_solicitudes_estado_fecha sin ordenar en memoria
+     */
+    @Query("SELECT new Petfy.Petfy_Back.dto.response.SolicitudResponse(s.id, u.id, u.username, u.email, "
+        + "s.telefono, s.descripcion, s.fechaSolicitud, p.id, "
+        + "CASE WHEN s.rutaDocumento IS NOT NULL THEN true ELSE false END, "
+        + "CASE WHEN p.rutaMiniatura IS NOT NULL THEN true ELSE false END) "
+        + "FROM Solicitud s JOIN s.usuario u LEFT JOIN Paseador p ON p.usuario = u "
+        + "WHERE s.estado = 'PENDIENTE' AND (s.fechaSolicitud > :fecha "
+        + "OR (s.fechaSolicitud = :fecha AND s.id > :id)) "
+        + "ORDER BY s.fechaSolicitud, s.id")
+    List<SolicitudResponse> findPendientesDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                                    @Param("id") Long id,
+                                                    Limit limit);
+
+    /**
+     * Bloquea (SELECT ... FOR UPDATE) las solicitudes de la lista que siguen pendientes, con su usuario
+     * 
+     * Dos admins revisando las mismas solicitudes a la vez: el segundo espera y ya no las ve pendientes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Solicitud s JOIN FETCH s.usuario WHERE s.id IN :ids AND s.estado = 'PENDIENTE' ORDER BY s.id")
+    List<Solicitud> bloquearPendientes(@Param("ids") List<Long> ids);
+
+    /**
+     * Aprueba o rechaza con un solo UPDATE las solicitudes de la lista
+     */
+    @Modifying
+    @Query("UPDATE Solicitud s SET s.estado = :estado, s.adminAprobador = :admin, "
+        + "s.fechaAprobacion = :fecha, s.comentarioAdmin = :comentario "
+        + "WHERE s.id IN :ids AND s.estado = 'PENDIENTE'")
+    int resolver(@Param("ids") List<Long> ids,
+                 @Param("estado") Solicitud.EstadoSolicitud estado,
+                 @Param("admin") Usuario admin,
+                 @Param("fecha") LocalDateTime fecha,
+                 @Param("comentario") String comentario);
+}
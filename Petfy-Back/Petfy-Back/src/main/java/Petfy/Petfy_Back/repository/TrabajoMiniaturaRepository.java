@@ -0,0 +1,57 @@
+package Petfy.Petfy_Back.repository;
+
+import Petfy.Petfy_Back.model.TrabajoMiniatura;
+import Petfy.Petfy_Back.model.TrabajoMiniatura.EstadoTrabajo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad TrabajoMiniatura
+ * Lo usa MiniaturasDocumentos (cola persistente de miniaturas por generar)
+ */
+@Repository
+public interface TrabajoMiniaturaRepository extends JpaRepository<TrabajoMiniatura, Long> {
+
+    /**
+     * IDs de los siguientes trabajos pendientes, en orden de llegada (idx_trabajos_miniaturas_estado)
+     */
+    @Query("SELECT t.id FROM TrabajoMiniatura t WHERE t.estado = 'PENDIENTE' ORDER BY t.id")
+    List<Long> findIdsPendientes(Limit limit);
+
+    /**
+     * Toma un trabajo pendiente para procesarlo (cuenta un intento)
+     *
+     * @return 1 si lo tomó, 0 si ya no estaba pendiente
+     */
+    @Modifying
+    @Query("UPDATE TrabajoMiniatura t SET t.estado = 'EN_PROCESO', t.intentos = t.intentos + 1, "
+        + "t.fechaActualizacion = :ahora WHERE t.id = :id AND t.estado = 'PENDIENTE'")
+    int tomar(@Param("id") Long id, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Deja un trabajo en su estado final (LISTO / ERROR) o de nuevo PENDIENTE para reintentarlo
+     */
+    @Modifying
+    @Query("UPDATE TrabajoMiniatura t SET t.estado = :estado, t.error = :error, "
+        + "t.fechaActualizacion = :ahora WHERE t.id = :id")
+    int terminar(@Param("id") Long id,
+                 @Param("estado") EstadoTrabajo estado,
+                 @Param("error") String error,
+                 @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Vuelve a PENDIENTE los trabajos que quedaron EN_PROCESO al apagarse la aplicación
+     */
+    @Modifying
+    @Query("UPDATE TrabajoMiniatura t SET t.estado = 'PENDIENTE' WHERE t.estado = 'EN_PROCESO'")
+    int liberarEnProceso();
+
+    long countByEstado(EstadoTrabajo estado);
+}
@@ -2,8 +2,13 @@ package Petfy.Petfy_Back.repository;
 
 import Petfy.Petfy_Back.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -36,6 +41,19 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * Se usaría en: register.component.ts para validar username único
      */
     boolean existsByUsername(String username);
-}
 
+    /**
+     * Da rol WALKER a los clientes de la lista con un solo UPDATE (aprobación de solicitudes)
+     * Un ADMIN conserva su rol
+     */
+    @Modifying
+    @Query("UPDATE Usuario u SET u.rol = 'WALKER' WHERE u.id IN :ids AND u.rol = 'CUSTOMER'")
+    int promoverAPaseador(@Param("ids") List<Long> ids);
 
+    /**
+     * IDs de la lista que existen
+     * Se usa en: ImportacionServiceImpl para validar las filas antes de insertarlas
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,230 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.ReservaPaseador;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Agenda en memoria de las franjas ocupadas de los paseadores (paseos CONFIRMADO / EN_PROGRESO)
+ *
+ * Índice de intervalos por fecha: cada día guarda sus reservas ordenadas por hora de inicio y
+ * la duración de la reserva más larga. Las reservas que se solapan con [inicio, fin) empiezan
+ * antes de fin y no antes de (inicio - duración máxima), así que se recorre solo ese tramo del
+ * día sin importar cuántos paseadores o reservas haya en total.
+ *
+ * Se carga desde PaseoRepository al arrancar y lo mantienen las transiciones de
+ * PaseoServiceImpl después de cada commit, con la versión del paseo para descartar cambios
+ * atrasados (igual que TableroPaseosPendientes).
+ *
+ * Supone una sola instancia del backend.
+ */
+@Component
+public class AgendaPaseadores {
+
+    // Tiempo que se recuerda la versión de una reserva liberada (solo para descartar cambios atrasados)
+    private static final long RETENCION_LIBERADAS_MS = 5 * 60 * 1000;
+
+    private static final int FIN_DEL_DIA = 24 * 60 * 60;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    private final ConcurrentSkipListMap<LocalDate, Dia> dias = new ConcurrentSkipListMap<>();
+
+    // Última versión conocida de cada paseo; solo se accede con el lock
+    private final Object lock = new Object();
+    private final Map<Long, Registro> registros = new HashMap<>();
+    private final ArrayDeque<Registro> liberadas = new ArrayDeque<>();
+
+    /**
+     * Carga las reservas desde hoy
+     * Pensado para el arranque: los cambios confirmados mientras se ejecuta la consulta se pierden
+     */
+    @PostConstruct
+    public void recargar() {
+        List<ReservaPaseador> reservas = paseoRepository.findReservasDesde(LocalDate.now());
+        synchronized (lock) {
+            dias.clear();
+            registros.clear();
+            liberadas.clear();
+            reservas.forEach(this::indexar);
+        }
+    }
+
+    /**
+     * Agrega o reemplaza la reserva de un paseo al confirmar la transacción actual
+     */
+    public void reservarAlConfirmar(ReservaPaseador reserva) {
+        alConfirmar(() -> reservar(reserva));
+    }
+
+    /**
+     * Libera la franja de un paseo que dejó de ocupar a su paseador al confirmar la transacción actual
+     *
+     * @param version Versión del paseo después del cambio
+     */
+    public void liberarAlConfirmar(Long paseoId, Long version) {
+        alConfirmar(() -> liberar(paseoId, version));
+    }
+
+    public void reservar(ReservaPaseador reserva) {
+        synchronized (lock) {
+            Registro actual = registros.get(reserva.paseoId());
+            if (actual != null && actual.version >= version(reserva.version())) {
+                return; // Cambio atrasado
+            }
+            if (actual != null && actual.reserva != null) {
+                desindexar(actual.reserva);
+            }
+            indexar(reserva);
+            purgarDiasPasados();
+        }
+    }
+
+    public void liberar(Long paseoId, Long version) {
+        synchronized (lock) {
+            Registro actual = registros.get(paseoId);
+            if (actual != null && actual.version >= version(version)) {
+                return; // Cambio atrasado
+            }
+            if (actual != null && actual.reserva != null) {
+                desindexar(actual.reserva);
+            }
+            Registro liberada = new Registro(paseoId, version(version), null, System.currentTimeMillis());
+            registros.put(paseoId, liberada);
+            liberadas.addLast(liberada);
+            purgarLiberadas(liberada.desde);
+        }
+    }
+
+    /**
+     * Paseadores con alguna reserva que se solapa con [horaInicio, horaFin) en la fecha
+     * (una reserva que termina justo cuando empieza la franja no la ocupa)
+     */
+    public Set<Long> paseadoresOcupados(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        Dia dia = dias.get(fecha);
+        Set<Long> ocupados = new HashSet<>();
+        if (dia == null) {
+            return ocupados;
+        }
+        int inicio = horaInicio.toSecondOfDay();
+        int fin = segundoFinal(horaInicio, horaFin);
+
+        // Solo pueden solaparse las reservas que empiezan en [inicio - duración máxima, fin)
+        Clave desde = new Clave(Math.max(0, inicio - dia.duracionMaxima), Long.MIN_VALUE);
+        Clave hasta = new Clave(fin, Long.MIN_VALUE);
+        for (Franja franja : dia.porInicio.subMap(desde, true, hasta, false).values()) {
+            if (franja.fin > inicio) {
+                ocupados.add(franja.paseadorId);
+            }
+        }
+        return ocupados;
+    }
+
+    public int getReservas() {
+        return dias.values().stream().mapToInt(dia -> dia.porInicio.size()).sum();
+    }
+
+    public int getRegistros() {
+        synchronized (lock) {
+            return registros.size();
+        }
+    }
+
+    private void indexar(ReservaPaseador reserva) {
+        Franja franja = new Franja(reserva.horaInicio().toSecondOfDay(),
+            segundoFinal(reserva.horaInicio(), reserva.horaFin()), reserva.paseadorId());
+        Dia dia = dias.computeIfAbsent(reserva.fecha(), fecha -> new Dia());
+        dia.porInicio.put(new Clave(franja.inicio, reserva.paseoId()), franja);
+        // Solo crece: una cota mayor que la real recorre más reservas, pero el resultado es el mismo
+        dia.duracionMaxima = Math.max(dia.duracionMaxima, franja.fin - franja.inicio);
+        registros.put(reserva.paseoId(), new Registro(reserva.paseoId(), version(reserva.version()), reserva, 0));
+    }
+
+    private void desindexar(ReservaPaseador reserva) {
+        Dia dia = dias.get(reserva.fecha());
+        if (dia != null) {
+            dia.porInicio.remove(new Clave(reserva.horaInicio().toSecondOfDay(), reserva.paseoId()));
+            if (dia.porInicio.isEmpty()) {
+                dias.remove(reserva.fecha(), dia);
+            }
+        }
+    }
+
+    // Los días pasados ya no se consultan: se olvidan junto con los registros de sus reservas
+    private void purgarDiasPasados() {
+        Map<LocalDate, Dia> pasados = dias.headMap(LocalDate.now());
+        for (Dia dia : pasados.values()) {
+            for (Clave clave : dia.porInicio.keySet()) {
+                registros.remove(clave.paseoId());
+            }
+        }
+        pasados.clear();
+    }
+
+    // Olvida las marcas de reservas liberadas que ya no pueden recibir cambios atrasados
+    private void purgarLiberadas(long ahora) {
+        while (!liberadas.isEmpty() && ahora - liberadas.peekFirst().desde > RETENCION_LIBERADAS_MS) {
+            Registro vieja = liberadas.pollFirst();
+            registros.remove(vieja.paseoId, vieja);
+        }
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cambio.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cambio.run();
+            }
+        });
+    }
+
+    // Un paseo que termina a la hora de inicio o antes se toma como que termina a medianoche
+    private static int segundoFinal(LocalTime horaInicio, LocalTime horaFin) {
+        return horaFin.isAfter(horaInicio) ? horaFin.toSecondOfDay() : FIN_DEL_DIA;
+    }
+
+    private static long version(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Reservas de un día ordenadas por hora de inicio
+     */
+    private static class Dia {
+        private final ConcurrentSkipListMap<Clave, Franja> porInicio = new ConcurrentSkipListMap<>(
+            Comparator.comparingInt(Clave::inicio).thenComparingLong(Clave::paseoId));
+        private volatile int duracionMaxima;
+    }
+
+    private record Clave(int inicio, long paseoId) {
+    }
+
+    private record Franja(int inicio, int fin, Long paseadorId) {
+    }
+
+    /**
+     * reserva es null para un paseo liberado; desde es el momento en que se liberó
+     */
+    private record Registro(Long paseoId, long version, ReservaPaseador reserva, long desde) {
+    }
+}
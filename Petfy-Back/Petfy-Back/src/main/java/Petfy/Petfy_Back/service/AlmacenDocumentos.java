@@ -0,0 +1,184 @@
+package Petfy.Petfy_Back.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Almacén de documentos subidos (imágenes de documentos de paseadores), direccionado por contenido
+ *
+ * Cada archivo se copia por canales NIO a un temporal de {uploadDir}/.tmp calculando su SHA-256
+ * en la misma pasada, y después se mueve a {uploadDir}/{2 primeros del hash}/{hash}.{extensión}:
+ * - Dos subidas con el mismo contenido quedan en un solo archivo (la segunda solo borra su temporal)
+ * - El archivo final aparece completo o no aparece (el movimiento es atómico dentro del directorio)
+ *
+ * No usa la base de datos: se llama antes de abrir la transacción que guarda la ruta, así una
+ * subida lenta no retiene una conexión del pool
+ *
+ * Para descargar, leer() valida la ruta guardada y da el ETag: el hash si el archivo está
+ * direccionado por contenido, o tamaño y fecha de modificación para los subidos antes
+ */
+@Component
+public class AlmacenDocumentos {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    private static final Pattern EXTENSION_VALIDA = Pattern.compile("[a-z0-9]{1,10}");
+
+    // Hash del contenido, con sufijo para los derivados (MiniaturasDocumentos: {hash}-miniatura.jpg)
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}(-[a-z]+)?");
+
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+
+    // Métricas
+    private final AtomicLong guardados = new AtomicLong();
+    private final AtomicLong duplicados = new AtomicLong();
+    private final AtomicLong bytesEscritos = new AtomicLong();
+
+    /**
+     * Documento ya guardado en su ruta final
+     *
+     * @param ruta Ruta del archivo (la que se guarda en Paseador.rutaDocumento)
+     * @param hash SHA-256 del contenido en hexadecimal
+     * @param duplicado true si ya existía un archivo con el mismo contenido
+     */
+    public record DocumentoGuardado(String ruta, String hash, long tamanio, boolean duplicado) {
+    }
+
+    /**
+     * Documento listo para enviar
+     *
+     * @param archivo Ruta absoluta, dentro del directorio de subidas
+     * @param etag ETag para If-None-Match / If-Range (débil si el archivo no está direccionado por contenido)
+     */
+    public record DocumentoAlmacenado(Path archivo, long tamanio, String etag, String tipoContenido) {
+    }
+
+    public DocumentoGuardado guardar(MultipartFile archivo) throws IOException {
+        Path raiz = Paths.get(uploadDir);
+        Path temporal = Files.createTempFile(Files.createDirectories(raiz.resolve(".tmp")), "subida-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            long tamanio = 0;
+            try (ReadableByteChannel origen = Channels.newChannel(archivo.getInputStream());
+                 FileChannel destino = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+                while (origen.read(buffer) != -1) {
+                    buffer.flip();
+                    sha256.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        tamanio += destino.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                destino.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path finalPath = raiz.resolve(hash.substring(0, 2)).resolve(hash + extension(archivo.getOriginalFilename()));
+            boolean duplicado = Files.exists(finalPath);
+            if (!duplicado) {
+                Files.createDirectories(finalPath.getParent());
+                // Si otra subida con el mismo contenido llega a la vez, el contenido reemplazado es idéntico
+                Files.move(temporal, finalPath, StandardCopyOption.ATOMIC_MOVE);
+                guardados.incrementAndGet();
+                bytesEscritos.addAndGet(tamanio);
+            } else {
+                duplicados.incrementAndGet();
+            }
+            return new DocumentoGuardado(finalPath.toString(), hash, tamanio, duplicado);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Documento de una ruta guardada (Paseador.rutaDocumento), vacío si no existe o si la ruta
+     * queda fuera del directorio de subidas
+     */
+    public Optional<DocumentoAlmacenado> leer(String ruta) {
+        if (ruta == null || ruta.isBlank()) {
+            return Optional.empty();
+        }
+        Path raiz = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path archivo = Paths.get(ruta).toAbsolutePath().normalize();
+        if (!archivo.startsWith(raiz)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes atributos;
+        try {
+            atributos = Files.readAttributes(archivo, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        if (!atributos.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        String nombre = archivo.getFileName().toString();
+        int punto = nombre.indexOf('.');
+        String base = punto < 0 ? nombre : nombre.substring(0, punto);
+        String etag = HASH.matcher(base).matches()
+            ? "\"" + base + "\""
+            : "W/\"" + atributos.size() + "-" + atributos.lastModifiedTime().toMillis() + "\"";
+        String tipoContenido = MediaTypeFactory.getMediaType(nombre)
+            .map(MediaType::toString)
+            .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        return Optional.of(new DocumentoAlmacenado(archivo, atributos.size(), etag, tipoContenido));
+    }
+
+    public long getGuardados() {
+        return guardados.get();
+    }
+
+    public long getDuplicados() {
+        return duplicados.get();
+    }
+
+    public long getBytesEscritos() {
+        return bytesEscritos.get();
+    }
+
+    // Extensión del nombre original en minúsculas (".jpg"), o ninguna si no es alfanumérica y corta
+    private static String extension(String nombreOriginal) {
+        if (nombreOriginal == null) {
+            return "";
+        }
+        int punto = nombreOriginal.lastIndexOf('.');
+        if (punto < 0) {
+            return "";
+        }
+        String extension = nombreOriginal.substring(punto + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION_VALIDA.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package Petfy.Petfy_Back.service;
 
 import Petfy.Petfy_Back.dto.request.LoginRequest;
+import Petfy.Petfy_Back.dto.request.RefreshTokenRequest;
 import Petfy.Petfy_Back.dto.request.RegisterRequest;
 import Petfy.Petfy_Back.dto.request.UpdateUsuarioRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.LoginResponse;
 import Petfy.Petfy_Back.dto.response.UsuarioResponse;
 
 /**
@@ -23,9 +25,9 @@ public interface AuthService {
      * Frontend: register.component.ts -> authService.register()
      * 
      * @param request Datos del usuario a registrar
-     * @return ApiResponse con el usuario creado o mensaje de error
+     * @return ApiResponse con el usuario creado y sus tokens, o mensaje de error
      */
-    ApiResponse<UsuarioResponse> register(RegisterRequest request);
+    ApiResponse<LoginResponse> register(RegisterRequest request);
 
     /**
      * Autentica un usuario existente
@@ -33,9 +35,19 @@ public interface AuthService {
      * Frontend: login.component.ts -> authService.login()
      * 
      * @param request Credenciales de login (email y password)
-     * @return ApiResponse con el usuario autenticado o mensaje de error
+     * @return ApiResponse con el usuario autenticado y sus tokens, o mensaje de error
      */
-    ApiResponse<UsuarioResponse> login(LoginRequest request);
+    ApiResponse<LoginResponse> login(LoginRequest request);
+
+    /**
+     * Emite un nuevo par de tokens a partir de un refresh token válido
+     * 
+     * Frontend: auth.interceptor.ts -> cuando el accessToken expira (401)
+     * 
+     * @param request Refresh token emitido en el login
+     * @return ApiResponse con los nuevos tokens o mensaje de error
+     */
+    ApiResponse<LoginResponse> refrescarToken(RefreshTokenRequest request);
 
     /**
      * Obtiene el usuario actual autenticado
@@ -52,8 +64,8 @@ public interface AuthService {
      * 
      * Frontend: auth.service.ts -> logout()
      * 
-     * Nota: En Basic Auth stateless, el logout se maneja en el frontend
-     * eliminando las credenciales almacenadas
+     * Nota: Los tokens son stateless, el logout se maneja en el frontend
+     * eliminando los tokens almacenados
      */
     void logout();
 
@@ -0,0 +1,34 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.ChatEventoResponse;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Broker de eventos de chat entre el servicio que los genera y las conexiones WebSocket
+ * 
+ * La implementación por defecto (BrokerChatsLocal) reparte en memoria: sirve con una sola
+ * instancia del backend. Con varias instancias se reemplaza por una que publique en un broker
+ * compartido (Redis pub/sub, RabbitMQ...) con chats.broker=<otro valor>; cada instancia se
+ * suscribe y entrega a las conexiones que tiene abiertas.
+ */
+public interface BrokerChats {
+
+    /**
+     * Evento y usuarios a los que hay que entregarlo
+     */
+    record Publicacion(Collection<Long> usuarioIds, ChatEventoResponse evento) {
+    }
+
+    /**
+     * Publica el evento cuando se confirme la transacción actual
+     * (si la transacción se revierte, el evento no se envía)
+     */
+    void publicarAlConfirmar(Publicacion publicacion);
+
+    /**
+     * Registra quien recibe las publicaciones (SesionesChat)
+     */
+    void suscribir(Consumer<Publicacion> receptor);
+}
@@ -0,0 +1,46 @@
+package Petfy.Petfy_Back.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broker de chats en memoria: entrega cada publicación a los receptores de esta instancia
+ * 
+ * Los receptores no bloquean (SesionesChat solo encola en cada conexión), así que se
+ * llaman directamente en el hilo que confirma la transacción.
+ */
+@Component
+@ConditionalOnProperty(name = "chats.broker", havingValue = "local", matchIfMissing = true)
+public class BrokerChatsLocal implements BrokerChats {
+
+    private final List<Consumer<Publicacion>> receptores = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicarAlConfirmar(Publicacion publicacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(publicacion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(publicacion);
+            }
+        });
+    }
+
+    @Override
+    public void suscribir(Consumer<Publicacion> receptor) {
+        receptores.add(receptor);
+    }
+
+    private void publicar(Publicacion publicacion) {
+        receptores.forEach(receptor -> receptor.accept(publicacion));
+    }
+}
@@ -0,0 +1,106 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.request.CursorChat;
+import Petfy.Petfy_Back.dto.request.CursorMensaje;
+import Petfy.Petfy_Back.dto.request.MensajeRequest;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+import Petfy.Petfy_Back.dto.response.ChatResponse;
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+import Petfy.Petfy_Back.dto.response.NoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+
+/**
+ * Interfaz del servicio de chats entre clientes y paseadores
+ * 
+ * Mapea los métodos del frontend:
+ * - chat.component.ts -> loadChats() -> bandeja de entrada paginada
+ * - chat.component.ts -> openChat() -> obtener o crear el chat con otro usuario
+ * - chat.component.ts -> loadMessages() -> obtener mensajes paginados
+ * - chat.component.ts -> sendMessage() -> enviar mensaje
+ * - chat.component.ts -> loadUnread() -> mensajes sin leer por chat
+ */
+public interface ChatService {
+
+    /**
+     * Obtiene el chat entre dos usuarios, creándolo si todavía no existe
+     * 
+     * Frontend: chat.component.ts -> openChat()
+     * 
+     * @param usuarioId ID del usuario autenticado
+     * @param otroUsuarioId ID del usuario con el que quiere conversar
+     * @return ApiResponse con el chat
+     */
+    ApiResponse<ChatResponse> obtenerOCrearChat(Long usuarioId, Long otroUsuarioId);
+
+    /**
+     * Verifica si el usuario participa del chat
+     * 
+     * @param chatId ID del chat
+     * @param usuarioId ID del usuario
+     * @return true si es uno de los dos participantes
+     */
+    boolean esParticipante(Long chatId, Long usuarioId);
+
+    /**
+     * Obtiene una página de mensajes del chat en orden de envío
+     * 
+     * Frontend: chat.component.ts -> loadMessages()
+     * 
+     * Sin cursores devuelve los últimos mensajes; con antes, los anteriores (historial) y
+     * con despues, los posteriores (nuevos). next es el cursor para seguir en la misma dirección.
+     * 
+     * @param chatId ID del chat
+     * @param antes Cursor para traer mensajes anteriores, o null
+     * @param despues Cursor para traer mensajes posteriores, o null (se ignora si hay antes)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de mensajes, del más viejo al más nuevo
+     */
+    PaginaResponse<MensajeResponse> obtenerMensajes(Long chatId, CursorMensaje antes, CursorMensaje despues, int size);
+
+    /**
+     * Envía un mensaje al chat
+     * 
+     * Frontend: chat.component.ts -> sendMessage()
+     * 
+     * @param chatId ID del chat
+     * @param usuarioId ID del usuario que envía el mensaje
+     * @param request Contenido del mensaje
+     * @return ApiResponse con el mensaje creado
+     */
+    ApiResponse<MensajeResponse> enviarMensaje(Long chatId, Long usuarioId, MensajeRequest request);
+
+    /**
+     * Marca como leídos los mensajes que el otro participante envió al usuario, hasta un mensaje
+     * 
+     * Frontend: chat.component.ts -> markAsRead(), a través de LecturasChat
+     * 
+     * @param chatId ID del chat
+     * @param usuarioId ID del usuario que leyó los mensajes
+     * @param hastaId ID del último mensaje leído (inclusive)
+     * @return ApiResponse con la cantidad de mensajes marcados
+     */
+    ApiResponse<Integer> marcarLeidos(Long chatId, Long usuarioId, Long hastaId);
+
+    /**
+     * Obtiene la bandeja de entrada del usuario, del chat con actividad más reciente al más viejo
+     * 
+     * Frontend: chat.component.ts -> loadChats()
+     * 
+     * @param usuarioId ID del usuario
+     * @param cursor Posición desde la que continuar (CursorChat.INICIO para la primera página)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de chats con el otro participante, el último mensaje y los no leídos
+     */
+    PaginaResponse<ChatBandejaResponse> obtenerBandeja(Long usuarioId, CursorChat cursor, int size);
+
+    /**
+     * Obtiene los mensajes sin leer del usuario, en total y por chat
+     * 
+     * Frontend: chat.component.ts -> loadUnread()
+     * 
+     * @param usuarioId ID del usuario
+     * @return Total y chats con mensajes sin leer
+     */
+    NoLeidosResponse obtenerNoLeidos(Long usuarioId);
+}
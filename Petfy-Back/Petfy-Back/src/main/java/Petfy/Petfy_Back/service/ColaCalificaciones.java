@@ -0,0 +1,291 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.CalificacionPendiente;
+import Petfy.Petfy_Back.model.CalificacionDiaria;
+import Petfy.Petfy_Back.repository.CalificacionDiariaRepository;
+import Petfy.Petfy_Back.repository.CalificacionRepository;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola en memoria de calificaciones de paseo pendientes de sumar a su paseador
+ *
+ * POST /api/calificaciones solo inserta la calificación (agregada = false) y encola su ID
+ * después del commit. Cada intervalo se vacía la cola:
+ * - Se agrupan las calificaciones por paseador: un solo UPDATE por paseador y por vaciado,
+ *   aunque haya recibido muchas calificaciones (ráfagas al terminar los paseos); el mismo
+ *   UPDATE suma el histograma de estrellas y las ventanas de 30/90 días
+ * - También se suman a calificaciones_diarias, de donde VentanasCalificaciones recalcula las
+ *   ventanas al cambiar de día
+ * - En la misma transacción se marcan como agregadas, así nunca se suman dos veces
+ * - La cola solo lleva IDs; suma y paseador se leen de la base de datos al vaciar
+ *
+ * Al arrancar se vuelven a encolar las calificaciones con agregada = false, que son las que
+ * estaban en la cola (o sin confirmar su vaciado) cuando se apagó la aplicación.
+ *
+ * Supone una sola instancia del backend. Un lock deja un solo hilo vaciando a la vez, y
+ * VentanasCalificaciones lo toma para recalcular sin cruzarse con un vaciado (sinVaciar).
+ */
+@Component
+public class ColaCalificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaCalificaciones.class);
+
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private CalificacionDiariaRepository calificacionDiariaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Máximo de calificaciones por transacción de vaciado
+    @Value("${calificaciones.cola.lote:1000}")
+    private int lote;
+
+    private final LinkedBlockingQueue<Long> cola = new LinkedBlockingQueue<>();
+
+    // Se retiene hasta confirmar la transacción de cada lote
+    private final ReentrantLock vaciado = new ReentrantLock();
+
+    // Métricas
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong agregadas = new AtomicLong();
+    private final AtomicLong actualizacionesPaseador = new AtomicLong();
+    private final AtomicLong vaciados = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile long ultimaLatenciaMs;
+    private volatile long maxLatenciaMs;
+
+    /**
+     * Encola la calificación al confirmar la transacción actual
+     * (si la transacción se revierte, la calificación no existe y no se encola)
+     */
+    public void encolarAlConfirmar(Long calificacionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            encolar(calificacionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                encolar(calificacionId);
+            }
+        });
+    }
+
+    /**
+     * Encola varias calificaciones al confirmar la transacción actual (importaciones)
+     */
+    public void encolarAlConfirmar(List<Long> calificacionIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            calificacionIds.forEach(this::encolar);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                calificacionIds.forEach(ColaCalificaciones.this::encolar);
+            }
+        });
+    }
+
+    public void encolar(Long calificacionId) {
+        cola.add(calificacionId);
+        encoladas.incrementAndGet();
+    }
+
+    /**
+     * Vuelve a encolar las calificaciones que no llegaron a sumarse antes del último apagado
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reencolarPendientes() {
+        List<Long> pendientes = calificacionRepository.findIdsNoAgregadas();
+        if (!pendientes.isEmpty()) {
+            log.info("Reencolando {} calificación(es) pendientes de sumar", pendientes.size());
+            pendientes.forEach(this::encolar);
+        }
+    }
+
+    /**
+     * Suma a sus paseadores todas las calificaciones encoladas
+     *
+     * @return Calificaciones sumadas
+     */
+    @Scheduled(fixedDelayString = "${calificaciones.cola.intervalo-ms:1000}")
+    public int vaciar() {
+        if (cola.isEmpty()) {
+            return 0;
+        }
+        vaciado.lock();
+        try {
+            return vaciarLotes();
+        } finally {
+            vaciado.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta la tarea sin ningún vaciado en curso (la tarea debe confirmar su propia transacción)
+     */
+    public void sinVaciar(Runnable tarea) {
+        vaciado.lock();
+        try {
+            tarea.run();
+        } finally {
+            vaciado.unlock();
+        }
+    }
+
+    private int vaciarLotes() {
+        long inicio = System.nanoTime();
+        int total = 0;
+        List<Long> ids = new ArrayList<>(Math.min(cola.size(), lote));
+        while (cola.drainTo(ids, lote) > 0) {
+            List<Long> loteIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            ids.clear();
+            try {
+                Integer sumadas = transactionTemplate.execute(status -> agregarLote(loteIds));
+                total += sumadas != null ? sumadas : 0;
+            } catch (RuntimeException e) {
+                // Siguen con agregada = false: se reintentan en el próximo vaciado
+                errores.incrementAndGet();
+                cola.addAll(loteIds);
+                log.error("No se pudo sumar un lote de {} calificación(es); se reintentará", loteIds.size(), e);
+                break;
+            }
+        }
+
+        long latenciaMs = (System.nanoTime() - inicio) / 1_000_000;
+        ultimaLatenciaMs = latenciaMs;
+        maxLatenciaMs = Math.max(maxLatenciaMs, latenciaMs);
+        vaciados.incrementAndGet();
+        return total;
+    }
+
+    private int agregarLote(List<Long> ids) {
+        // Solo las que siguen sin agregar (un ID repetido o ya sumado no cuenta dos veces)
+        List<CalificacionPendiente> pendientes = calificacionRepository.findPendientesDeAgregar(ids);
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate hoy = LocalDate.now();
+        Map<Long, Acumulado> porPaseador = new HashMap<>();
+        Map<Long, Map<LocalDate, Acumulado>> porPaseadorYDia = new HashMap<>();
+        for (CalificacionPendiente pendiente : pendientes) {
+            LocalDate dia = pendiente.fecha() != null ? pendiente.fecha().toLocalDate() : hoy;
+            int estrellas = pendiente.calificacion();
+            porPaseador.computeIfAbsent(pendiente.paseadorId(), id -> new Acumulado())
+                .sumar(estrellas, dia, hoy);
+            porPaseadorYDia.computeIfAbsent(pendiente.paseadorId(), id -> new HashMap<>())
+                .computeIfAbsent(dia, d -> new Acumulado())
+                .sumar(estrellas, dia, hoy);
+        }
+
+        porPaseador.forEach((paseadorId, a) -> paseadorRepository.sumarCalificaciones(paseadorId,
+            a.suma, a.cantidad,
+            a.estrellas[0], a.estrellas[1], a.estrellas[2], a.estrellas[3], a.estrellas[4],
+            a.suma30Dias, a.total30Dias, a.suma90Dias, a.total90Dias));
+        porPaseadorYDia.forEach((paseadorId, dias) -> dias.forEach((dia, a) -> {
+            if (!dia.isBefore(VentanasCalificaciones.desde90Dias(hoy))) {
+                sumarAlDia(paseadorId, dia, a);
+            }
+        }));
+        calificacionRepository.marcarAgregadas(pendientes.stream().map(CalificacionPendiente::id).toList());
+
+        agregadas.addAndGet(pendientes.size());
+        actualizacionesPaseador.addAndGet(porPaseador.size());
+        return pendientes.size();
+    }
+
+    private void sumarAlDia(Long paseadorId, LocalDate dia, Acumulado a) {
+        // Un solo vaciado a la vez: entre el UPDATE y el INSERT nadie más crea la fila del día
+        if (calificacionDiariaRepository.sumar(paseadorId, dia, a.suma, a.cantidad) == 0) {
+            calificacionDiariaRepository.save(new CalificacionDiaria(null, paseadorId, dia, a.suma, a.cantidad));
+        }
+    }
+
+    public int getProfundidad() {
+        return cola.size();
+    }
+
+    public long getEncoladas() {
+        return encoladas.get();
+    }
+
+    public long getAgregadas() {
+        return agregadas.get();
+    }
+
+    public long getActualizacionesPaseador() {
+        return actualizacionesPaseador.get();
+    }
+
+    public long getVaciados() {
+        return vaciados.get();
+    }
+
+    public long getErrores() {
+        return errores.get();
+    }
+
+    public long getUltimaLatenciaMs() {
+        return ultimaLatenciaMs;
+    }
+
+    public long getMaxLatenciaMs() {
+        return maxLatenciaMs;
+    }
+
+    /**
+     * Suma, cantidad, histograma y ventanas de un grupo de calificaciones
+     */
+    private static class Acumulado {
+        private long suma;
+        private int cantidad;
+        private final int[] estrellas = new int[5];
+        private long suma30Dias;
+        private int total30Dias;
+        private long suma90Dias;
+        private int total90Dias;
+
+        private void sumar(int calificacion, LocalDate dia, LocalDate hoy) {
+            suma += calificacion;
+            cantidad++;
+            estrellas[calificacion - 1]++;
+            if (!dia.isBefore(VentanasCalificaciones.desde30Dias(hoy))) {
+                suma30Dias += calificacion;
+                total30Dias++;
+            }
+            if (!dia.isBefore(VentanasCalificaciones.desde90Dias(hoy))) {
+                suma90Dias += calificacion;
+                total90Dias++;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.ConciliacionCalificacion;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Verifica periódicamente la suma y el total de calificaciones guardados en paseadores
+ * contra la tabla calificaciones, y corrige los que no coinciden
+ *
+ * Los agregados se mantienen con un UPDATE incremental por calificación; esto detecta
+ * desvíos (calificaciones borradas o cargadas a mano, errores) sin recalcular en cada calificación.
+ * Recorre los paseadores por rangos de ID para que cada consulta tenga un costo acotado.
+ */
+@Component
+public class ConciliacionCalificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionCalificaciones.class);
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Value("${calificaciones.conciliacion.lote:500}")
+    private int lote;
+
+    /**
+     * @return Cantidad de paseadores corregidos
+     */
+    @Scheduled(initialDelayString = "${calificaciones.conciliacion.intervalo-ms:3600000}",
+               fixedDelayString = "${calificaciones.conciliacion.intervalo-ms:3600000}")
+    public int conciliar() {
+        long maxId = paseadorRepository.findMaxId().orElse(0L);
+        int corregidos = 0;
+        for (long desde = 1; desde <= maxId; desde += lote) {
+            List<ConciliacionCalificacion> descuadres =
+                paseadorRepository.findDescuadresCalificaciones(desde, desde + lote - 1);
+            for (ConciliacionCalificacion descuadre : descuadres) {
+                corregidos += corregir(descuadre);
+            }
+        }
+        if (corregidos > 0) {
+            log.warn("Conciliación de calificaciones: {} paseador(es) corregido(s)", corregidos);
+        }
+        return corregidos;
+    }
+
+    private int corregir(ConciliacionCalificacion descuadre) {
+        int totalGuardado = descuadre.totalGuardado() != null ? descuadre.totalGuardado() : 0;
+        log.warn("Paseador {}: suma/total guardados {}/{}, calculados {}/{}",
+            descuadre.paseadorId(), descuadre.sumaGuardada(), totalGuardado,
+            descuadre.sumaReal(), descuadre.totalReal());
+        // Solo si nadie los cambió desde la lectura; si no, se revisa en la próxima pasada
+        return paseadorRepository.corregirCalificaciones(descuadre.paseadorId(),
+            descuadre.sumaReal(), descuadre.totalReal().intValue(),
+            descuadre.sumaGuardada(), totalGuardado);
+    }
+}
@@ -0,0 +1,156 @@
+package Petfy.Petfy_Back.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envío de documentos guardados (AlmacenDocumentos) sin copiarlos por el heap
+ *
+ * - Con Tomcat (conector NIO) se usa sendfile: se indica archivo y rango en atributos de la
+ *   petición y el contenedor los escribe directo al socket después de volver del controlador
+ * - Si no hay sendfile, FileChannel.transferTo() hacia la salida de la respuesta
+ *
+ * Soporta un rango (Range: bytes=...), If-Range e If-None-Match con el ETag del documento.
+ * Los documentos no cambian una vez guardados: se cachean un año en el navegador (private,
+ * solo lo descarga un admin autenticado).
+ */
+@Component
+public class EnvioDocumentos {
+
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    // Atributos de sendfile de Tomcat (org.apache.catalina.Globals)
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    // Métricas
+    private final AtomicLong enviosSendfile = new AtomicLong();
+    private final AtomicLong enviosTransferTo = new AtomicLong();
+    private final AtomicLong noModificados = new AtomicLong();
+    private final AtomicLong parciales = new AtomicLong();
+
+    public void enviar(AlmacenDocumentos.DocumentoAlmacenado documento,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long tamanio = documento.tamanio();
+        response.setHeader(HttpHeaders.ETAG, documento.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), documento.etag())) {
+            noModificados.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // [inicio, fin) del archivo a enviar
+        long inicio = 0;
+        long fin = tamanio;
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        if (rango != null && rangoVigente(request.getHeader(HttpHeaders.IF_RANGE), documento.etag())) {
+            List<HttpRange> rangos;
+            try {
+                rangos = HttpRange.parseRanges(rango);
+            } catch (IllegalArgumentException e) {
+                rangos = List.of();
+            }
+            // Con varios rangos se envía el archivo completo (el servidor puede ignorar Range)
+            if (rangos.size() == 1) {
+                try {
+                    inicio = rangos.get(0).getRangeStart(tamanio);
+                    fin = rangos.get(0).getRangeEnd(tamanio) + 1;
+                } catch (IllegalArgumentException e) {
+                    inicio = tamanio;
+                }
+                if (inicio >= tamanio || inicio >= fin) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanio);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                parciales.incrementAndGet();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + (fin - 1) + "/" + tamanio);
+            }
+        }
+
+        response.setContentType(documento.tipoContenido());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline");
+        response.setContentLengthLong(fin - inicio);
+        if ("HEAD".equals(request.getMethod()) || fin == inicio) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, documento.archivo().toRealPath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, fin);
+            enviosSendfile.incrementAndGet();
+            return;
+        }
+
+        try (FileChannel archivo = FileChannel.open(documento.archivo(), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = inicio;
+            while (posicion < fin) {
+                long enviados = archivo.transferTo(posicion, fin - posicion, salida);
+                if (enviados <= 0) {
+                    break; // El archivo se acortó mientras se enviaba
+                }
+                posicion += enviados;
+            }
+        }
+        enviosTransferTo.incrementAndGet();
+    }
+
+    public long getEnviosSendfile() {
+        return enviosSendfile.get();
+    }
+
+    public long getEnviosTransferTo() {
+        return enviosTransferTo.get();
+    }
+
+    public long getNoModificados() {
+        return noModificados.get();
+    }
+
+    public long getParciales() {
+        return parciales.get();
+    }
+
+    // If-None-Match: comparación débil contra cada ETag de la lista (o "*")
+    private static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String propio = sinDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || sinDebil(valor).equals(propio)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Range: el rango solo vale si el ETag coincide con comparación fuerte (uno débil nunca coincide)
+    private static boolean rangoVigente(String ifRange, String etag) {
+        return ifRange == null || (!etag.startsWith("W/") && ifRange.trim().equals(etag));
+    }
+
+    private static String sinDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,36 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+
+import java.io.InputStream;
+
+/**
+ * Interfaz del servicio de importación de historial (solo admins)
+ * 
+ * Carga paseos y calificaciones pasadas desde CSV (UTF-8, con encabezado). Cada importación
+ * es todo o nada: si una fila no es válida no se inserta ninguna
+ */
+public interface ImportacionService {
+
+    /**
+     * Importa paseos ya terminados
+     * 
+     * Columnas: cliente_id, paseador_id, fecha (2024-05-31), hora_inicio (10:00), hora_fin,
+     * direccion, estado (FINALIZADO o CANCELADO) y fecha_creacion (opcional, 2024-05-30T18:00)
+     * 
+     * @param csv Contenido del archivo
+     * @return ApiResponse con la cantidad de paseos importados
+     */
+    ApiResponse<Integer> importarPaseos(InputStream csv);
+
+    /**
+     * Importa calificaciones; las de paseo se suman a su paseador por ColaCalificaciones
+     * 
+     * Columnas: usuario_id, paseo_id (vacío para calificar la app), calificacion (1 a 5),
+     * comentario y fecha_calificacion (opcionales)
+     * 
+     * @param csv Contenido del archivo
+     * @return ApiResponse con la cantidad de calificaciones importadas
+     */
+    ApiResponse<Integer> importarCalificaciones(InputStream csv);
+}
@@ -0,0 +1,137 @@
+package Petfy.Petfy_Back.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector de CSV (RFC 4180) para las importaciones: separador coma, campos entre comillas dobles
+ * con "" para una comilla y saltos de línea dentro de las comillas
+ *
+ * La primera fila es el encabezado: los campos se piden por nombre de columna, sin importar su
+ * orden ni mayúsculas. Lee de a una fila, sin cargar el archivo entero.
+ */
+public class LectorCsv {
+
+    private final Reader entrada;
+    private final Map<String, Integer> columnas = new HashMap<>();
+    private List<String> fila;
+    private int numeroFila; // 1 = encabezado
+    private int siguiente = -2; // Carácter leído de más (-2: ninguno)
+
+    public LectorCsv(Reader entrada) throws IOException {
+        this.entrada = entrada;
+        List<String> encabezado = leerFila();
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        for (int i = 0; i < encabezado.size(); i++) {
+            // Sin la marca de orden de bytes que agregan algunas planillas al exportar en UTF-8
+            columnas.put(encabezado.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Avanza a la siguiente fila de datos (las filas vacías se saltean)
+     *
+     * @return false al llegar al final del archivo
+     */
+    public boolean siguiente() throws IOException {
+        do {
+            fila = leerFila();
+        } while (fila != null && fila.size() == 1 && fila.get(0).isEmpty());
+        return fila != null;
+    }
+
+    /**
+     * Número de la fila actual en el archivo (el encabezado es la fila 1), para los mensajes de error
+     */
+    public int getNumeroFila() {
+        return numeroFila;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el encabezado no tiene la columna
+     */
+    public void requerirColumnas(String... nombres) {
+        for (String nombre : nombres) {
+            if (!columnas.containsKey(nombre)) {
+                throw new IllegalArgumentException("Falta la columna " + nombre);
+            }
+        }
+    }
+
+    /**
+     * Valor de la columna en la fila actual, sin espacios alrededor; null si está vacío o la
+     * columna no existe
+     */
+    public String get(String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.size()) {
+            return null;
+        }
+        String valor = fila.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private List<String> leerFila() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+        numeroFila++;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Fila " + numeroFila + ": comillas sin cerrar");
+                }
+                if (c == '"') {
+                    int d = leer();
+                    if (d == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = d;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int d = leer();
+                if (d != '\n') {
+                    siguiente = d;
+                }
+                break;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private int leer() throws IOException {
+        if (siguiente != -2) {
+            int c = siguiente;
+            siguiente = -2;
+            return c;
+        }
+        return entrada.read();
+    }
+}
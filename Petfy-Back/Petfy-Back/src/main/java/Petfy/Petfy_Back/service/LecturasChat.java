@@ -0,0 +1,102 @@
+package Petfy.Petfy_Back.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lecturas de chat pendientes de escribir ("leí hasta el mensaje X")
+ *
+ * El cliente avisa cada vez que se desplaza por la conversación. En vez de un UPDATE por aviso,
+ * se guarda el mayor "hasta" de cada (chat, usuario) y cada chats.lecturas.intervalo-ms se
+ * escribe una sola vez por par con ChatService.marcarLeidos (un UPDATE sobre mensajes y otro
+ * sobre el contador del chat).
+ *
+ * Una lectura pendiente se pierde si la aplicación se cae antes del próximo vaciado: el cliente
+ * vuelve a avisar la próxima vez que abra el chat. Supone una sola instancia del backend.
+ */
+@Component
+public class LecturasChat {
+
+    private static final Logger log = LoggerFactory.getLogger(LecturasChat.class);
+
+    @Autowired
+    private ChatService chatService;
+
+    private final Map<Clave, Long> pendientes = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicLong registradas = new AtomicLong();
+    private final AtomicLong escrituras = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+
+    /**
+     * Registra que el usuario leyó el chat hasta el mensaje hastaId (inclusive)
+     */
+    public void registrar(Long chatId, Long usuarioId, Long hastaId) {
+        registradas.incrementAndGet();
+        pendientes.merge(new Clave(chatId, usuarioId), hastaId, Math::max);
+    }
+
+    /**
+     * Escribe las lecturas pendientes, una por chat y usuario
+     *
+     * @return Mensajes marcados como leídos
+     */
+    @Scheduled(fixedDelayString = "${chats.lecturas.intervalo-ms:500}")
+    public int vaciar() {
+        int marcados = 0;
+        for (Clave clave : List.copyOf(pendientes.keySet())) {
+            // Quitar primero: un aviso que llega mientras se escribe queda para el próximo vaciado
+            Long hastaId = pendientes.remove(clave);
+            if (hastaId == null) {
+                continue;
+            }
+            try {
+                Integer resultado = chatService.marcarLeidos(clave.chatId(), clave.usuarioId(), hastaId).getData();
+                marcados += resultado != null ? resultado : 0;
+                escrituras.incrementAndGet();
+            } catch (RuntimeException e) {
+                errores.incrementAndGet();
+                pendientes.merge(clave, hastaId, Math::max);
+                log.error("No se pudo marcar como leído el chat {} para el usuario {}", clave.chatId(), clave.usuarioId(), e);
+            }
+        }
+        return marcados;
+    }
+
+    /**
+     * Escribe lo pendiente al apagar la aplicación
+     */
+    @PreDestroy
+    void vaciarAlApagar() {
+        vaciar();
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    public long getRegistradas() {
+        return registradas.get();
+    }
+
+    public long getEscrituras() {
+        return escrituras.get();
+    }
+
+    public long getErrores() {
+        return errores.get();
+    }
+
+    private record Clave(Long chatId, Long usuarioId) {
+    }
+}
@@ -0,0 +1,354 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.model.TrabajoMiniatura;
+import Petfy.Petfy_Back.model.TrabajoMiniatura.EstadoTrabajo;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.TrabajoMiniaturaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Genera en segundo plano las miniaturas JPEG de los documentos de paseadores
+ *
+ * - PaseadorServiceImpl programa un trabajo (trabajos_miniaturas) en la misma transacción que
+ *   guarda al paseador: si la solicitud se confirma, el trabajo existe aunque la aplicación se
+ *   reinicie antes de procesarlo
+ * - Cada intervalo se toman tantos pendientes como cupos libres haya (2 por hilo) y se procesan
+ *   en un pool fijo de miniaturas.hilos hilos: una ráfaga de solicitudes espera en la base de
+ *   datos, no en memoria ni en hilos de las peticiones
+ * - La imagen se decodifica salteando píxeles (nunca a tamaño completo), se reduce a
+ *   miniaturas.lado-maximo px y se guarda como JPEG junto al documento ({hash}-miniatura.jpg);
+ *   la ruta queda en Paseador.rutaMiniatura
+ * - Un error se reintenta hasta miniaturas.intentos veces; un documento que no es una imagen
+ *   (PDF) queda en ERROR sin reintentos
+ *
+ * Solo ImageIO del JDK (sin dependencias nativas). Supone una sola instancia del backend: al
+ * arrancar, los trabajos EN_PROCESO vuelven a PENDIENTE.
+ */
+@Component
+public class MiniaturasDocumentos {
+
+    private static final Logger log = LoggerFactory.getLogger(MiniaturasDocumentos.class);
+
+    public static final String SUFIJO_MINIATURA = "-miniatura.jpg";
+
+    private static final int LARGO_MAXIMO_ERROR = 500;
+
+    @Autowired
+    private TrabajoMiniaturaRepository trabajoMiniaturaRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${miniaturas.hilos:2}")
+    private int hilos;
+
+    @Value("${miniaturas.lado-maximo:320}")
+    private int ladoMaximo;
+
+    @Value("${miniaturas.calidad:0.75}")
+    private float calidad;
+
+    @Value("${miniaturas.intentos:3}")
+    private int maxIntentos;
+
+    private ThreadPoolExecutor trabajadores;
+
+    // Trabajos tomados que todavía no terminaron (en un hilo o esperando uno)
+    private Semaphore cupos;
+
+    // Métricas
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicLong generadas = new AtomicLong();
+    private final AtomicLong reutilizadas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile long ultimaLatenciaMs;
+    private volatile long maxLatenciaMs;
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger numero = new AtomicInteger();
+        trabajadores = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "miniaturas-" + numero.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        cupos = new Semaphore(hilos * 2);
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        // Los trabajos sin terminar siguen EN_PROCESO: se liberan al arrancar
+        trabajadores.shutdownNow();
+        trabajadores.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Programa la miniatura del documento de un paseador en la transacción actual
+     */
+    public void programar(Long paseadorId, String rutaDocumento) {
+        TrabajoMiniatura trabajo = new TrabajoMiniatura();
+        trabajo.setPaseadorId(paseadorId);
+        trabajo.setRutaDocumento(rutaDocumento);
+        trabajoMiniaturaRepository.save(trabajo);
+    }
+
+    /**
+     * Vuelve a PENDIENTE los trabajos que estaban procesándose cuando se apagó la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void liberarInterrumpidos() {
+        Integer liberados = transactionTemplate.execute(status -> trabajoMiniaturaRepository.liberarEnProceso());
+        if (liberados != null && liberados > 0) {
+            log.info("Reprogramando {} miniatura(s) interrumpidas", liberados);
+        }
+    }
+
+    /**
+     * Toma los siguientes trabajos pendientes y los pasa al pool (tantos como cupos libres)
+     *
+     * @return Trabajos tomados
+     */
+    @Scheduled(fixedDelayString = "${miniaturas.intervalo-ms:1000}")
+    public int tomarPendientes() {
+        int libres = cupos.availablePermits();
+        if (libres == 0) {
+            return 0;
+        }
+        List<Long> ids = trabajoMiniaturaRepository.findIdsPendientes(Limit.of(libres));
+        int tomados = 0;
+        for (Long id : ids) {
+            if (!cupos.tryAcquire()) {
+                break;
+            }
+            Integer tomado = transactionTemplate.execute(
+                status -> trabajoMiniaturaRepository.tomar(id, LocalDateTime.now()));
+            if (tomado == null || tomado == 0) {
+                cupos.release();
+                continue;
+            }
+            try {
+                trabajadores.execute(() -> {
+                    try {
+                        procesar(id);
+                    } finally {
+                        cupos.release();
+                    }
+                });
+                tomados++;
+            } catch (RejectedExecutionException e) {
+                // Apagándose: el trabajo queda EN_PROCESO y se libera al arrancar
+                cupos.release();
+                break;
+            }
+        }
+        return tomados;
+    }
+
+    /**
+     * Genera la miniatura de un trabajo ya tomado y deja el trabajo LISTO, PENDIENTE (para
+     * reintentarlo) o en ERROR
+     */
+    public void procesar(Long trabajoId) {
+        TrabajoMiniatura trabajo = trabajoMiniaturaRepository.findById(trabajoId).orElse(null);
+        if (trabajo == null) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        enCurso.incrementAndGet();
+        try {
+            AlmacenDocumentos.DocumentoAlmacenado documento = almacenDocumentos.leer(trabajo.getRutaDocumento())
+                .orElse(null);
+            if (documento == null) {
+                terminar(trabajo, EstadoTrabajo.ERROR, "Documento no encontrado");
+                return;
+            }
+
+            String rutaMiniatura = rutaMiniatura(trabajo.getRutaDocumento());
+            Path destino = Paths.get(rutaMiniatura);
+            if (Files.exists(destino)) {
+                // Mismo documento (mismo hash) de otra solicitud: la miniatura ya existe
+                reutilizadas.incrementAndGet();
+            } else {
+                BufferedImage imagen = leerReducida(documento.archivo());
+                if (imagen == null) {
+                    terminar(trabajo, EstadoTrabajo.ERROR, "El documento no es una imagen");
+                    return;
+                }
+                escribirJpeg(escalar(imagen), destino);
+                generadas.incrementAndGet();
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                paseadorRepository.registrarMiniatura(trabajo.getPaseadorId(), rutaMiniatura);
+                trabajoMiniaturaRepository.terminar(trabajo.getId(), EstadoTrabajo.LISTO, null, LocalDateTime.now());
+            });
+        } catch (Exception e) {
+            errores.incrementAndGet();
+            boolean reintentar = trabajo.getIntentos() < maxIntentos;
+            log.warn("No se pudo generar la miniatura del trabajo {} (intento {}){}", trabajo.getId(),
+                trabajo.getIntentos(), reintentar ? "; se reintentará" : "", e);
+            terminar(trabajo, reintentar ? EstadoTrabajo.PENDIENTE : EstadoTrabajo.ERROR, String.valueOf(e.getMessage()));
+        } finally {
+            enCurso.decrementAndGet();
+            long latenciaMs = (System.nanoTime() - inicio) / 1_000_000;
+            ultimaLatenciaMs = latenciaMs;
+            maxLatenciaMs = Math.max(maxLatenciaMs, latenciaMs);
+        }
+    }
+
+    /**
+     * Ruta de la miniatura de un documento: en el mismo directorio, {nombre sin extensión}-miniatura.jpg
+     */
+    public static String rutaMiniatura(String rutaDocumento) {
+        Path documento = Paths.get(rutaDocumento);
+        String nombre = documento.getFileName().toString();
+        int punto = nombre.indexOf('.');
+        String base = punto < 0 ? nombre : nombre.substring(0, punto);
+        return documento.resolveSibling(base + SUFIJO_MINIATURA).toString();
+    }
+
+    public long getPendientes() {
+        return trabajoMiniaturaRepository.countByEstado(EstadoTrabajo.PENDIENTE);
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    public long getGeneradas() {
+        return generadas.get();
+    }
+
+    public long getReutilizadas() {
+        return reutilizadas.get();
+    }
+
+    public long getErrores() {
+        return errores.get();
+    }
+
+    public long getUltimaLatenciaMs() {
+        return ultimaLatenciaMs;
+    }
+
+    public long getMaxLatenciaMs() {
+        return maxLatenciaMs;
+    }
+
+    private void terminar(TrabajoMiniatura trabajo, EstadoTrabajo estado, String error) {
+        String mensaje = error != null && error.length() > LARGO_MAXIMO_ERROR
+            ? error.substring(0, LARGO_MAXIMO_ERROR)
+            : error;
+        transactionTemplate.executeWithoutResult(status ->
+            trabajoMiniaturaRepository.terminar(trabajo.getId(), estado, mensaje, LocalDateTime.now()));
+    }
+
+    // Decodifica leyendo 1 de cada "paso" píxeles: como mucho unas 2 veces el tamaño de la miniatura
+    private BufferedImage leerReducida(Path archivo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(archivo.toFile())) {
+            if (entrada == null) {
+                return null;
+            }
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                int lado = Math.max(lector.getWidth(0), lector.getHeight(0));
+                int paso = Math.max(1, lado / (ladoMaximo * 2));
+                ImageReadParam parametros = lector.getDefaultReadParam();
+                parametros.setSourceSubsampling(paso, paso, 0, 0);
+                return lector.read(0, parametros);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    private BufferedImage escalar(BufferedImage imagen) {
+        double factor = Math.min(1.0, (double) ladoMaximo / Math.max(imagen.getWidth(), imagen.getHeight()));
+        int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * factor));
+        int alto = Math.max(1, (int) Math.round(imagen.getHeight() * factor));
+        BufferedImage miniatura = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = miniatura.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG no tiene transparencia: fondo blanco para los PNG
+            grafico.setColor(Color.WHITE);
+            grafico.fillRect(0, 0, ancho, alto);
+            grafico.drawImage(imagen, 0, 0, ancho, alto, null);
+        } finally {
+            grafico.dispose();
+        }
+        return miniatura;
+    }
+
+    // Escribe a un temporal y lo mueve: la miniatura aparece completa o no aparece
+    private void escribirJpeg(BufferedImage imagen, Path destino) throws IOException {
+        Path temporal = Files.createTempFile(destino.getParent(), "miniatura-", ".part");
+        try {
+            ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream salida = ImageIO.createImageOutputStream(temporal.toFile())) {
+                escritor.setOutput(salida);
+                ImageWriteParam parametros = escritor.getDefaultWriteParam();
+                parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                parametros.setCompressionQuality(calidad);
+                escritor.write(null, new IIOImage(imagen, null, null), parametros);
+            } finally {
+                escritor.dispose();
+            }
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+}
@@ -2,8 +2,14 @@ package Petfy.Petfy_Back.service;
 
 import Petfy.Petfy_Back.dto.request.WalkerApplicationRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaseadorResponse;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Interfaz del servicio de paseadores
  * 
@@ -26,13 +32,33 @@ public interface PaseadorService {
     ApiResponse<Void> solicitarSerPaseador(Long usuarioId, WalkerApplicationRequest request, MultipartFile documentImage);
 
     /**
-     * Obtiene todos los paseadores aprobados disponibles
+     * Obtiene los paseadores aprobados, de mejor a peor calificación
+     * Con fecha y horario, solo los que no tienen un paseo confirmado o en progreso que se solape
      * 
      * Frontend: request.component.ts -> walkers[] (para mostrar lista de paseadores)
      * 
-     * @return Lista de paseadores aprobados
+     * @param fecha Fecha del paseo, null para no filtrar por disponibilidad
+     * @param horaInicio Hora de inicio (requerida si hay fecha)
+     * @param horaFin Hora de fin (requerida si hay fecha)
+     * @return Lista de paseadores disponibles
+     */
+    List<PaseadorResponse> obtenerPaseadoresDisponibles(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin);
+
+    /**
+     * Ruta del documento de identidad que subió el paseador
+     * 
+     * @param paseadorId ID del paseador
+     * @return Ruta guardada, vacío si el paseador no existe o no subió documento
+     */
+    Optional<String> obtenerRutaDocumento(Long paseadorId);
+
+    /**
+     * Ruta de la miniatura del documento del paseador (MiniaturasDocumentos)
+     * 
+     * @param paseadorId ID del paseador
+     * @return Ruta guardada, vacío si la miniatura todavía no se generó
      */
-    // List<PaseadorResponse> obtenerPaseadoresDisponibles();
+    Optional<String> obtenerRutaMiniatura(Long paseadorId);
 
     /**
      * Obtiene un paseador aleatorio disponible para una fecha/hora específica
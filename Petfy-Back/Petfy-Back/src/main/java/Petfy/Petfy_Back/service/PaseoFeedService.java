@@ -0,0 +1,36 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.PaseoEventoResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Interfaz del feed en tiempo real de paseos pendientes
+ * 
+ * Reemplaza el polling de GET /api/paseos/pendientes: cada paseador recibe una
+ * vez la lista completa y después solo los cambios
+ * 
+ * Frontend: walker-requests.component.ts -> pendingRequests
+ */
+public interface PaseoFeedService {
+
+    /**
+     * Suscribe un paseador al feed
+     * El primer evento ("snapshot") trae todos los paseos pendientes (un PaseoEventoResponse
+     * "agregado" por paseo); después llegan eventos "agregado", "eliminado" y "aceptado",
+     * ordenados por versión del paseo (ver PaseoEventoResponse)
+     * 
+     * @return SseEmitter de la conexión
+     */
+    SseEmitter suscribir();
+
+    /**
+     * Publica un cambio a todos los suscriptores cuando se confirme la transacción actual
+     * (si la transacción se revierte, el evento no se envía)
+     */
+    void publicarAlConfirmar(PaseoEventoResponse evento);
+
+    /**
+     * Cantidad de conexiones abiertas
+     */
+    int getSuscriptores();
+}
@@ -1,7 +1,9 @@
 package Petfy.Petfy_Back.service;
 
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
 import Petfy.Petfy_Back.dto.request.PaseoRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
 import Petfy.Petfy_Back.dto.response.PaseoResponse;
 
 import java.time.LocalDate;
@@ -41,14 +43,16 @@ public interface PaseoService {
     ApiResponse<PaseoResponse> actualizarPaseo(Long paseoId, PaseoRequest request);
 
     /**
-     * Obtiene todos los paseos de un cliente
+     * Obtiene una página de los paseos de un cliente, ordenados por fecha y hora
      * 
      * Frontend: requests.component.ts -> loadRequests()
      * 
      * @param clienteId ID del cliente
-     * @return Lista de paseos del cliente
+     * @param cursor Posición desde la que continuar (CursorPaseo.INICIO para la primera página)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de paseos del cliente
      */
-    List<PaseoResponse> obtenerPaseosPorCliente(Long clienteId);
+    PaginaResponse<PaseoResponse> obtenerPaseosPorCliente(Long clienteId, CursorPaseo cursor, int size);
 
     /**
      * Obtiene todos los paseos pendientes de un cliente
@@ -81,23 +85,35 @@ public interface PaseoService {
     List<PaseoResponse> obtenerPaseosPorPaseador(Long paseadorId);
 
     /**
-     * Obtiene todos los paseos pendientes disponibles para paseadores
+     * Obtiene una página de los paseos pendientes disponibles para paseadores
+     * Se responde desde TableroPaseosPendientes, sin consultar la base de datos
      * 
      * Frontend: walker-requests.component.ts -> pendingRequests
      * 
-     * @return Lista de paseos pendientes
+     * @param cursor Posición desde la que continuar (CursorPaseo.INICIO para la primera página)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @param desde Fecha mínima del paseo (inclusive), null para no filtrar
+     * @param hasta Fecha máxima del paseo (inclusive), null para no filtrar
+     * @param asignacion Todos, solo los abiertos ("Aleatorio") o solo los asignados al paseador
+     * @param paseadorId ID del paseador que consulta (se usa con ASIGNADOS)
+     * @return Página de paseos pendientes
      */
-    List<PaseoResponse> obtenerPaseosPendientes();
+    PaginaResponse<PaseoResponse> obtenerPaseosPendientes(CursorPaseo cursor, int size,
+                                                          LocalDate desde, LocalDate hasta,
+                                                          TableroPaseosPendientes.Asignacion asignacion,
+                                                          Long paseadorId);
 
     /**
-     * Obtiene todos los paseos confirmados de un paseador
+     * Obtiene una página de los paseos confirmados de un paseador
      * 
      * Frontend: walker-requests.component.ts -> confirmedRequests
      * 
      * @param paseadorId ID del paseador
-     * @return Lista de paseos confirmados
+     * @param cursor Posición desde la que continuar (CursorPaseo.INICIO para la primera página)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de paseos confirmados
      */
-    List<PaseoResponse> obtenerPaseosConfirmadosPorPaseador(Long paseadorId);
+    PaginaResponse<PaseoResponse> obtenerPaseosConfirmadosPorPaseador(Long paseadorId, CursorPaseo cursor, int size);
 
     /**
      * Acepta un paseo pendiente (paseador acepta la solicitud)
@@ -141,14 +157,16 @@ public interface PaseoService {
     ApiResponse<PaseoResponse> finalizarPaseo(Long paseoId);
 
     /**
-     * Obtiene paseos finalizados de un cliente
+     * Obtiene una página de los paseos finalizados de un cliente
      * 
      * Frontend: history.component.ts -> loadFinalizedWalks()
      * 
      * @param clienteId ID del cliente
-     * @return Lista de paseos finalizados
+     * @param cursor Posición desde la que continuar (CursorPaseo.INICIO para la primera página)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de paseos finalizados
      */
-    List<PaseoResponse> obtenerPaseosFinalizadosPorCliente(Long clienteId);
+    PaginaResponse<PaseoResponse> obtenerPaseosFinalizadosPorCliente(Long clienteId, CursorPaseo cursor, int size);
 
     /**
      * Obtiene paseos finalizados filtrados por rango de fechas
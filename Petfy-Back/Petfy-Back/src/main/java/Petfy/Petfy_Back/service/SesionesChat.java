@@ -0,0 +1,251 @@
+package Petfy.Petfy_Back.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conexiones WebSocket de chat abiertas en esta instancia, por usuario
+ *
+ * - Cada publicación de BrokerChats se serializa a JSON una sola vez y se encola en las
+ *   conexiones de sus destinatarios; quien publica nunca espera a la red
+ * - Cada conexión tiene su cola acotada (chats.ws.buffer-mensajes) y la vacía un hilo virtual
+ *   solo mientras hay algo que enviar: una conexión inactiva no ocupa ningún hilo
+ * - Cliente lento: si su cola se llena o un envío lleva más de chats.ws.envio-limite-ms, la
+ *   conexión se cierra (1007 SESSION_NOT_RELIABLE) y el cliente recarga con GET /mensajes?despues=
+ * - Los mensajes de una conexión salen en el orden en que se encolaron
+ */
+@Component
+public class SesionesChat {
+
+    private static final Logger log = LoggerFactory.getLogger(SesionesChat.class);
+
+    @Autowired
+    private BrokerChats brokerChats;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${chats.ws.buffer-mensajes:256}")
+    private int bufferMensajes;
+
+    @Value("${chats.ws.envio-limite-ms:10000}")
+    private long envioLimiteMs;
+
+    private final Map<Long, Set<Conexion>> porUsuario = new ConcurrentHashMap<>();
+    private final Map<String, Conexion> porSesion = new ConcurrentHashMap<>();
+
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("chats-ws-", 0).factory());
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "chats-ws-heartbeat");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Métricas
+    private final AtomicLong entregados = new AtomicLong();
+    private final AtomicLong desconectadasLentas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+
+    public SesionesChat(@Value("${chats.ws.heartbeat-seconds:25}") long heartbeatSeconds) {
+        // Ping periódico: mantiene viva la conexión en proxies y detecta clientes desconectados
+        heartbeats.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PostConstruct
+    void suscribir() {
+        brokerChats.suscribir(this::entregar);
+    }
+
+    public void registrar(WebSocketSession sesion, Long usuarioId) {
+        Conexion conexion = new Conexion(sesion, usuarioId, bufferMensajes);
+        porSesion.put(sesion.getId(), conexion);
+        // Se agrega dentro de compute: olvidar() no puede quitar el set vacío entre que se obtiene y se agrega
+        porUsuario.compute(usuarioId, (id, conexiones) -> {
+            if (conexiones == null) {
+                conexiones = ConcurrentHashMap.newKeySet();
+            }
+            conexiones.add(conexion);
+            return conexiones;
+        });
+    }
+
+    public void quitar(WebSocketSession sesion) {
+        Conexion conexion = porSesion.remove(sesion.getId());
+        if (conexion != null) {
+            olvidar(conexion);
+        }
+    }
+
+    public int getConexiones() {
+        return porSesion.size();
+    }
+
+    public int getUsuariosConectados() {
+        return porUsuario.size();
+    }
+
+    public long getEntregados() {
+        return entregados.get();
+    }
+
+    public long getDesconectadasLentas() {
+        return desconectadasLentas.get();
+    }
+
+    public long getErrores() {
+        return errores.get();
+    }
+
+    /**
+     * Cierra las conexiones al apagar la aplicación, antes del apagado ordenado del servidor web
+     */
+    @EventListener(ContextClosedEvent.class)
+    void cerrar() {
+        heartbeats.shutdownNow();
+        envios.shutdownNow();
+        for (Conexion conexion : porSesion.values()) {
+            try {
+                conexion.sesion.close(CloseStatus.GOING_AWAY);
+            } catch (IOException | RuntimeException e) {
+                // Ya cerrada
+            }
+        }
+        porSesion.clear();
+        porUsuario.clear();
+    }
+
+    private void entregar(BrokerChats.Publicacion publicacion) {
+        TextMessage mensaje;
+        try {
+            mensaje = new TextMessage(objectMapper.writeValueAsString(publicacion.evento()));
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el evento del chat {}", publicacion.evento().getChatId(), e);
+            return;
+        }
+        for (Long usuarioId : publicacion.usuarioIds()) {
+            Set<Conexion> conexiones = porUsuario.get(usuarioId);
+            if (conexiones != null) {
+                conexiones.forEach(conexion -> conexion.encolar(mensaje));
+            }
+        }
+    }
+
+    private void olvidar(Conexion conexion) {
+        porUsuario.computeIfPresent(conexion.usuarioId, (id, conexiones) -> {
+            conexiones.remove(conexion);
+            return conexiones.isEmpty() ? null : conexiones;
+        });
+    }
+
+    private void enviarHeartbeat() {
+        PingMessage ping = new PingMessage();
+        porSesion.values().forEach(conexion -> conexion.encolar(ping));
+    }
+
+    /**
+     * Una conexión WebSocket con su cola de salida acotada
+     */
+    private final class Conexion {
+
+        private final WebSocketSession sesion;
+        private final Long usuarioId;
+        private final LinkedBlockingQueue<WebSocketMessage<?>> pendientes;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long inicioEnvio; // 0 si no hay un envío en curso
+
+        private Conexion(WebSocketSession sesion, Long usuarioId, int capacidad) {
+            this.sesion = sesion;
+            this.usuarioId = usuarioId;
+            this.pendientes = new LinkedBlockingQueue<>(capacidad);
+        }
+
+        private void encolar(WebSocketMessage<?> mensaje) {
+            long inicio = inicioEnvio;
+            if (!pendientes.offer(mensaje)
+                    || (inicio != 0 && System.currentTimeMillis() - inicio > envioLimiteMs)) {
+                desconectarLenta();
+                return;
+            }
+            programarEnvio();
+        }
+
+        private void programarEnvio() {
+            if (!envios.isShutdown() && enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            try {
+                WebSocketMessage<?> mensaje;
+                while ((mensaje = pendientes.poll()) != null) {
+                    inicioEnvio = System.currentTimeMillis();
+                    sesion.sendMessage(mensaje);
+                    if (mensaje instanceof TextMessage) {
+                        entregados.incrementAndGet();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cliente desconectado
+                errores.incrementAndGet();
+                pendientes.clear();
+                quitar(sesion);
+                cerrarSesion(CloseStatus.SERVER_ERROR);
+            } finally {
+                inicioEnvio = 0;
+                enviando.set(false);
+            }
+            // Un mensaje encolado entre el último poll y enviando = false
+            if (!pendientes.isEmpty() && sesion.isOpen()) {
+                programarEnvio();
+            }
+        }
+
+        private void desconectarLenta() {
+            if (porSesion.remove(sesion.getId(), this)) {
+                desconectadasLentas.incrementAndGet();
+                olvidar(this);
+                pendientes.clear();
+                if (!envios.isShutdown()) {
+                    // Fuera del hilo que publica: cerrar puede esperar al envío bloqueado
+                    envios.execute(() -> cerrarSesion(CloseStatus.SESSION_NOT_RELIABLE));
+                }
+            }
+        }
+
+        private void cerrarSesion(CloseStatus estado) {
+            try {
+                sesion.close(estado);
+            } catch (IOException | RuntimeException e) {
+                // Ya cerrada
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.request.CursorSolicitud;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
+
+import java.util.List;
+
+/**
+ * Interfaz del servicio de revisión de solicitudes de paseador (solo admins)
+ * 
+ * Las solicitudes se crean en PaseadorService.solicitarSerPaseador() cuando el paseador
+ * queda PENDIENTE
+ */
+public interface SolicitudService {
+
+    /**
+     * Obtiene una página de la cola de revisión
+     * 
+     * @param cursor Cursor de la página anterior (CursorSolicitud.INICIO para la primera)
+     * @param size Tamaño de página pedido (se limita al máximo permitido)
+     * @return Página de solicitudes pendientes, de la más vieja a la más nueva
+     */
+    PaginaResponse<SolicitudResponse> obtenerPendientes(CursorSolicitud cursor, int size);
+
+    /**
+     * Aprueba las solicitudes pendientes de la lista: el paseador queda APROBADO y el usuario
+     * pasa a rol WALKER. Las que ya no están pendientes se ignoran
+     * 
+     * @param adminId ID del admin que aprueba
+     * @param ids IDs de las solicitudes
+     * @param comentario Comentario opcional para las solicitudes
+     * @return ApiResponse con la cantidad de solicitudes aprobadas
+     */
+    ApiResponse<Integer> aprobar(Long adminId, List<Long> ids, String comentario);
+
+    /**
+     * Rechaza las solicitudes pendientes de la lista: el paseador queda RECHAZADO y el usuario
+     * conserva su rol. Las que ya no están pendientes se ignoran
+     * 
+     * @param adminId ID del admin que rechaza
+     * @param ids IDs de las solicitudes
+     * @param comentario Comentario opcional para las solicitudes
+     * @return ApiResponse con la cantidad de solicitudes rechazadas
+     */
+    ApiResponse<Integer> rechazar(Long adminId, List<Long> ids, String comentario);
+}
@@ -0,0 +1,260 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
+import Petfy.Petfy_Back.dto.response.PaseoPendiente;
+import Petfy.Petfy_Back.dto.response.PaseoResponse;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Tablero en memoria de los paseos PENDIENTE (lo que ven los paseadores)
+ *
+ * Reemplaza la consulta a "paseos" en cada GET /api/paseos/pendientes:
+ * - Índices ordenados por (fecha, hora_inicio, id), igual que la paginación por cursor:
+ *   un rango de fechas o franja horaria es un subMap y la página siguiente un tailMap
+ * - Un índice con los paseos abiertos ("Aleatorio") y uno por paseador asignado
+ * - Lecturas sin bloqueo (ConcurrentSkipListMap); las escrituras se serializan con un lock
+ *
+ * Se carga desde PaseoRepository al arrancar y lo mantienen las transiciones de
+ * PaseoServiceImpl después de cada commit. Cada cambio lleva la versión del paseo (@Version):
+ * si dos commits del mismo paseo llegan en otro orden, el más viejo se descarta. Los paseos
+ * quitados dejan una marca con su versión durante RETENCION_QUITADOS_MS para eso.
+ *
+ * Supone una sola instancia del backend: los cambios hechos por otra instancia no llegan aquí.
+ */
+@Component
+public class TableroPaseosPendientes {
+
+    // Tiempo que se recuerda la versión de un paseo quitado (solo para descartar cambios atrasados)
+    private static final long RETENCION_QUITADOS_MS = 5 * 60 * 1000;
+
+    private static final Comparator<CursorPaseo> ORDEN = Comparator
+        .comparing(CursorPaseo::fecha)
+        .thenComparing(CursorPaseo::horaInicio)
+        .thenComparing(CursorPaseo::id);
+
+    /**
+     * Filtro por paseador asignado
+     */
+    public enum Asignacion {
+        TODOS,      // Todos los pendientes
+        ABIERTOS,   // Sin paseador asignado ("Aleatorio"), cualquiera puede aceptarlos
+        ASIGNADOS   // Asignados al paseador que consulta
+    }
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    private final ConcurrentSkipListMap<CursorPaseo, PaseoResponse> todos = new ConcurrentSkipListMap<>(ORDEN);
+    private final ConcurrentSkipListMap<CursorPaseo, PaseoResponse> abiertos = new ConcurrentSkipListMap<>(ORDEN);
+    private final Map<Long, ConcurrentSkipListMap<CursorPaseo, PaseoResponse>> porPaseador = new ConcurrentHashMap<>();
+
+    // Último estado conocido de cada paseo; solo se accede con el lock
+    private final Object lock = new Object();
+    private final Map<Long, Registro> registros = new HashMap<>();
+    private final ArrayDeque<Registro> quitados = new ArrayDeque<>();
+
+    /**
+     * Carga los pendientes desde la base de datos
+     * Pensado para el arranque: los cambios confirmados mientras se ejecuta la consulta se pierden
+     */
+    @PostConstruct
+    public void recargar() {
+        List<PaseoPendiente> pendientes = paseoRepository.findPendientes();
+        synchronized (lock) {
+            todos.clear();
+            abiertos.clear();
+            porPaseador.clear();
+            registros.clear();
+            quitados.clear();
+            pendientes.forEach(this::indexar);
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un paseo pendiente al confirmar la transacción actual
+     */
+    public void agregarAlConfirmar(PaseoPendiente paseo) {
+        alConfirmar(() -> agregar(paseo));
+    }
+
+    /**
+     * Quita un paseo que dejó de estar pendiente al confirmar la transacción actual
+     *
+     * @param version Versión del paseo después del cambio
+     */
+    public void quitarAlConfirmar(Long paseoId, Long version) {
+        alConfirmar(() -> quitar(paseoId, version));
+    }
+
+    public void agregar(PaseoPendiente paseo) {
+        synchronized (lock) {
+            Registro actual = registros.get(paseo.paseo().getId());
+            if (actual != null && actual.version >= version(paseo.version())) {
+                return; // Cambio atrasado
+            }
+            if (actual != null && actual.pendiente != null) {
+                desindexar(actual.pendiente);
+            }
+            indexar(paseo);
+        }
+    }
+
+    public void quitar(Long paseoId, Long version) {
+        synchronized (lock) {
+            Registro actual = registros.get(paseoId);
+            if (actual != null && actual.version >= version(version)) {
+                return; // Cambio atrasado
+            }
+            if (actual != null && actual.pendiente != null) {
+                desindexar(actual.pendiente);
+            }
+            Registro quitado = new Registro(paseoId, version(version), null, System.currentTimeMillis());
+            registros.put(paseoId, quitado);
+            quitados.addLast(quitado);
+            purgarQuitados(quitado.desde);
+        }
+    }
+
+    /**
+     * Paseos pendientes estrictamente después del cursor, en orden (fecha, hora_inicio, id)
+     *
+     * @param desde Fecha mínima (inclusive) o null
+     * @param hasta Fecha máxima (inclusive) o null
+     * @param paseadorId Paseador que consulta (solo para ASIGNADOS)
+     * @param max Cantidad máxima de paseos
+     */
+    public List<PaseoResponse> listar(CursorPaseo cursor, LocalDate desde, LocalDate hasta,
+                                      Asignacion asignacion, Long paseadorId, int max) {
+        ConcurrentNavigableMap<CursorPaseo, PaseoResponse> indice = switch (asignacion) {
+            case TODOS -> todos;
+            case ABIERTOS -> abiertos;
+            case ASIGNADOS -> porPaseador.get(paseadorId);
+        };
+        if (indice == null) {
+            return Collections.emptyList();
+        }
+
+        CursorPaseo inferior = cursor;
+        if (desde != null) {
+            CursorPaseo inicioDelDia = new CursorPaseo(desde, LocalTime.MIN, 0L);
+            if (ORDEN.compare(inicioDelDia, inferior) > 0) {
+                inferior = inicioDelDia;
+            }
+        }
+
+        NavigableMap<CursorPaseo, PaseoResponse> rango;
+        if (hasta != null) {
+            CursorPaseo superior = new CursorPaseo(hasta.plusDays(1), LocalTime.MIN, 0L);
+            if (ORDEN.compare(inferior, superior) >= 0) {
+                return Collections.emptyList();
+            }
+            rango = indice.subMap(inferior, false, superior, false);
+        } else {
+            rango = indice.tailMap(inferior, false);
+        }
+
+        List<PaseoResponse> paseos = new ArrayList<>(Math.min(max, 64));
+        for (PaseoResponse paseo : rango.values()) {
+            if (paseos.size() >= max) {
+                break;
+            }
+            paseos.add(paseo);
+        }
+        return paseos;
+    }
+
+    /**
+     * Todos los paseos pendientes con su versión, en orden (snapshot del feed en tiempo real)
+     */
+    public List<PaseoPendiente> listarTodos() {
+        synchronized (lock) {
+            List<PaseoPendiente> pendientes = new ArrayList<>(todos.size());
+            for (CursorPaseo clave : todos.keySet()) {
+                pendientes.add(registros.get(clave.id()).pendiente);
+            }
+            return pendientes;
+        }
+    }
+
+    public int getTamanio() {
+        return todos.size();
+    }
+
+    private void indexar(PaseoPendiente paseo) {
+        CursorPaseo clave = paseo.clave();
+        todos.put(clave, paseo.paseo());
+        if (paseo.paseadorId() == null) {
+            abiertos.put(clave, paseo.paseo());
+        } else {
+            porPaseador.computeIfAbsent(paseo.paseadorId(), id -> new ConcurrentSkipListMap<>(ORDEN))
+                .put(clave, paseo.paseo());
+        }
+        registros.put(paseo.paseo().getId(), new Registro(paseo.paseo().getId(), version(paseo.version()), paseo, 0));
+    }
+
+    private void desindexar(PaseoPendiente paseo) {
+        CursorPaseo clave = paseo.clave();
+        todos.remove(clave);
+        if (paseo.paseadorId() == null) {
+            abiertos.remove(clave);
+        } else {
+            ConcurrentSkipListMap<CursorPaseo, PaseoResponse> asignados = porPaseador.get(paseo.paseadorId());
+            if (asignados != null) {
+                asignados.remove(clave);
+                if (asignados.isEmpty()) {
+                    porPaseador.remove(paseo.paseadorId());
+                }
+            }
+        }
+    }
+
+    // Olvida las marcas de paseos quitados que ya no pueden recibir cambios atrasados
+    private void purgarQuitados(long ahora) {
+        while (!quitados.isEmpty() && ahora - quitados.peekFirst().desde > RETENCION_QUITADOS_MS) {
+            Registro viejo = quitados.pollFirst();
+            registros.remove(viejo.paseoId, viejo);
+        }
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cambio.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cambio.run();
+            }
+        });
+    }
+
+    private static long version(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * pendiente es null para un paseo quitado; desde es el momento en que se quitó
+     */
+    private record Registro(Long paseoId, long version, PaseoPendiente pendiente, long desde) {
+    }
+}
@@ -0,0 +1,65 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.repository.CalificacionDiariaRepository;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Promedios de los últimos 30 y 90 días de cada paseador
+ *
+ * Durante el día ColaCalificaciones los hace crecer con cada lote. Al cambiar de día las
+ * calificaciones más viejas salen de la ventana: se recalculan desde calificaciones_diarias
+ * (una fila por paseador y día) y se borran los días que ya no entran en ninguna ventana.
+ * También se recalculan al arrancar, por si la aplicación estuvo apagada al cambiar de día.
+ *
+ * Las dos ejecuciones (la diaria y la de arranque, una tarea única con initialDelay = 0) toman
+ * el lock de vaciado de ColaCalificaciones hasta confirmar, así no se cruzan con un vaciado
+ * aunque el scheduler tenga varios hilos.
+ */
+@Component
+public class VentanasCalificaciones {
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private CalificacionDiariaRepository calificacionDiariaRepository;
+
+    @Autowired
+    private ColaCalificaciones colaCalificaciones;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Primer día de la ventana de 30 días (hoy incluido)
+     */
+    public static LocalDate desde30Dias(LocalDate hoy) {
+        return hoy.minusDays(29);
+    }
+
+    /**
+     * Primer día de la ventana de 90 días (hoy incluido)
+     */
+    public static LocalDate desde90Dias(LocalDate hoy) {
+        return hoy.minusDays(89);
+    }
+
+    @Scheduled(initialDelay = 0)
+    @Scheduled(cron = "${calificaciones.ventanas.cron:0 1 0 * * *}")
+    public void recalcular() {
+        recalcular(LocalDate.now());
+    }
+
+    public void recalcular(LocalDate hoy) {
+        colaCalificaciones.sinVaciar(() -> transactionTemplate.executeWithoutResult(status -> {
+            calificacionDiariaRepository.deleteAnterioresA(desde90Dias(hoy));
+            paseadorRepository.recalcularVentanas(desde30Dias(hoy), desde90Dias(hoy));
+        }));
+    }
+}
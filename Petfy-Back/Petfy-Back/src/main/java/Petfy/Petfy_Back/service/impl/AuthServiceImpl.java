@@ -1,9 +1,13 @@
 package Petfy.Petfy_Back.service.impl;
 
+import Petfy.Petfy_Back.config.CredencialesCache;
+import Petfy.Petfy_Back.config.TokenService;
 import Petfy.Petfy_Back.dto.request.LoginRequest;
+import Petfy.Petfy_Back.dto.request.RefreshTokenRequest;
 import Petfy.Petfy_Back.dto.request.RegisterRequest;
 import Petfy.Petfy_Back.dto.request.UpdateUsuarioRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.LoginResponse;
 import Petfy.Petfy_Back.dto.response.UsuarioResponse;
 import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.repository.UsuarioRepository;
@@ -30,8 +34,14 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private CredencialesCache credencialesCache;
+
     @Override
-    public ApiResponse<UsuarioResponse> register(RegisterRequest request) {
+    public ApiResponse<LoginResponse> register(RegisterRequest request) {
         // Validar que las contraseñas coincidan
         if (!request.getPassword().equals(request.getConfirmPassword())) {
             return ApiResponse.error("Las contraseñas no coinciden");
@@ -57,15 +67,15 @@ public class AuthServiceImpl implements AuthService {
         // Guardar usuario
         Usuario usuarioGuardado = usuarioRepository.save(usuario);
 
-        // Retornar respuesta exitosa
+        // Retornar respuesta exitosa (el registro deja la sesión iniciada)
         return ApiResponse.success(
             "Usuario registrado exitosamente",
-            UsuarioResponse.fromEntity(usuarioGuardado)
+            crearLoginResponse(usuarioGuardado)
         );
     }
 
     @Override
-    public ApiResponse<UsuarioResponse> login(LoginRequest request) {
+    public ApiResponse<LoginResponse> login(LoginRequest request) {
         // Buscar usuario por email
         Usuario usuario = usuarioRepository.findByEmail(request.getEmail())
             .orElse(null);
@@ -79,13 +89,31 @@ public class AuthServiceImpl implements AuthService {
             return ApiResponse.error("Email o contraseña incorrectos");
         }
 
-        // Retornar respuesta exitosa con el usuario
+        // Retornar respuesta exitosa con el usuario y sus tokens
         return ApiResponse.success(
             "Inicio de sesión exitoso",
-            UsuarioResponse.fromEntity(usuario)
+            crearLoginResponse(usuario)
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<LoginResponse> refrescarToken(RefreshTokenRequest request) {
+        TokenService.TokenClaims claims = tokenService.validar(request.getRefreshToken(), TokenService.TIPO_REFRESH);
+        if (claims == null) {
+            return ApiResponse.error("Sesión expirada, vuelve a iniciar sesión");
+        }
+
+        // Se recarga el usuario para que los nuevos tokens reflejen cambios de rol o email
+        Usuario usuario = usuarioRepository.findById(claims.getUid())
+            .orElse(null);
+        if (usuario == null || !usuario.getEmail().equals(claims.getSub())) {
+            return ApiResponse.error("Sesión expirada, vuelve a iniciar sesión");
+        }
+
+        return ApiResponse.success("Token renovado", crearLoginResponse(usuario));
+    }
+
     @Override
     public UsuarioResponse getCurrentUser(String email) {
         Usuario usuario = usuarioRepository.findByEmail(email)
@@ -96,9 +124,8 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void logout() {
-        // En Basic Auth stateless, el logout se maneja principalmente en el frontend
-        // Eliminando las credenciales del localStorage
-        // Este método está aquí por si se implementa JWT en el futuro
+        // Los tokens son stateless, el logout se maneja principalmente en el frontend
+        // eliminando los tokens del localStorage (el accessToken expira solo)
     }
 
     @Override
@@ -118,11 +145,24 @@ public class AuthServiceImpl implements AuthService {
         usuario.setUsername(request.getUsername());
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
 
+        // Descartar las credenciales cacheadas de Basic Auth al confirmar el cambio
+        credencialesCache.invalidarAlConfirmar(email);
+
         return ApiResponse.success(
             "Nombre de usuario actualizado exitosamente",
             UsuarioResponse.fromEntity(usuarioActualizado)
         );
     }
-}
-
 
+    /**
+     * Arma la respuesta de login con un nuevo par de tokens
+     */
+    private LoginResponse crearLoginResponse(Usuario usuario) {
+        return LoginResponse.fromEntity(
+            usuario,
+            tokenService.generarAccessToken(usuario),
+            tokenService.generarRefreshToken(usuario),
+            tokenService.getAccessTtlSeconds()
+        );
+    }
+}
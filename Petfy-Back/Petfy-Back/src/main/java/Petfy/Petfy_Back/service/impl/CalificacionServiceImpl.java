@@ -3,14 +3,13 @@ package Petfy.Petfy_Back.service.impl;
 import Petfy.Petfy_Back.dto.request.CalificacionRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
 import Petfy.Petfy_Back.model.Calificacion;
-import Petfy.Petfy_Back.model.Paseador;
 import Petfy.Petfy_Back.model.Paseo;
 import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.repository.CalificacionRepository;
-import Petfy.Petfy_Back.repository.PaseadorRepository;
 import Petfy.Petfy_Back.repository.PaseoRepository;
 import Petfy.Petfy_Back.repository.UsuarioRepository;
 import Petfy.Petfy_Back.service.CalificacionService;
+import Petfy.Petfy_Back.service.ColaCalificaciones;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,7 +34,7 @@ public class CalificacionServiceImpl implements CalificacionService {
     private PaseoRepository paseoRepository;
 
     @Autowired
-    private PaseadorRepository paseadorRepository;
+    private ColaCalificaciones colaCalificaciones;
 
     @Override
     public ApiResponse<Void> crearCalificacion(Long usuarioId, CalificacionRequest request) {
@@ -87,12 +86,16 @@ public class CalificacionServiceImpl implements CalificacionService {
         calificacion.setTipo(tipo);
         calificacion.setComentario(request.getComentario());
 
+        // Si es calificación de paseo, se suma al paseador después, en lote (ColaCalificaciones):
+        // la respuesta no espera ni bloquea la fila del paseador
+        boolean sumarAlPaseador = tipo == Calificacion.TipoCalificacion.PASEO && paseo.getPaseador() != null;
+        calificacion.setAgregada(!sumarAlPaseador);
+
         // Guardar calificación
         calificacionRepository.save(calificacion);
 
-        // Si es calificación de paseo, actualizar el promedio del paseador
-        if (tipo == Calificacion.TipoCalificacion.PASEO && paseo.getPaseador() != null) {
-            actualizarCalificacionPromedioPaseador(paseo.getPaseador().getId());
+        if (sumarAlPaseador) {
+            colaCalificaciones.encolarAlConfirmar(calificacion.getId());
         }
 
         String mensaje = tipo == Calificacion.TipoCalificacion.APP
@@ -103,28 +106,4 @@ public class CalificacionServiceImpl implements CalificacionService {
 
         return ApiResponse.success(mensaje);
     }
-
-    /**
-     * Actualiza la calificación promedio de un paseador
-     */
-    private void actualizarCalificacionPromedioPaseador(Long paseadorId) {
-        // Calcular promedio de calificaciones
-        Double promedio = calificacionRepository.calcularPromedioCalificacionesPaseador(paseadorId);
-        
-        if (promedio != null) {
-            // Obtener el paseador y actualizar su calificación promedio
-            Paseador paseador = paseadorRepository.findById(paseadorId)
-                .orElse(null);
-            
-            if (paseador != null) {
-                // Contar total de calificaciones
-                long totalCalificaciones = calificacionRepository.findCalificacionesPorPaseador(paseadorId).size();
-                
-                paseador.setCalificacionPromedio(promedio);
-                paseador.setTotalCalificaciones((int) totalCalificaciones);
-                paseadorRepository.save(paseador);
-            }
-        }
-    }
 }
-
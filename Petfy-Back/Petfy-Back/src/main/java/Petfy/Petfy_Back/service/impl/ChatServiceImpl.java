@@ -0,0 +1,193 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.CursorChat;
+import Petfy.Petfy_Back.dto.request.CursorMensaje;
+import Petfy.Petfy_Back.dto.request.MensajeRequest;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+import Petfy.Petfy_Back.dto.response.ChatEventoResponse;
+import Petfy.Petfy_Back.dto.response.ChatResponse;
+import Petfy.Petfy_Back.dto.response.ChatNoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+import Petfy.Petfy_Back.dto.response.NoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.model.Chat;
+import Petfy.Petfy_Back.model.Mensaje;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.ChatRepository;
+import Petfy.Petfy_Back.repository.MensajeRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.BrokerChats;
+import Petfy.Petfy_Back.service.ChatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación del servicio de chats
+ * 
+ * Cada par de usuarios tiene un solo chat, guardado con el menor id como usuario1: abrirlo es
+ * una búsqueda en uk_chats_par, y crearlo es un INSERT IGNORE que tolera aperturas simultáneas
+ * 
+ * Los mensajes se leen por páginas con un cursor (fecha_envio, id) sobre idx_mensajes_chat_fecha:
+ * abrir una conversación larga cuesta lo mismo que abrir una corta
+ * 
+ * Los mensajes sin leer de cada participante se cuentan en el chat (no_leidos_usuario1/2):
+ * se suman al enviar y se restan al marcar como leídos, siempre con la fila del chat bloqueada
+ * antes de tocar mensajes, así dos operaciones sobre el mismo chat no se cruzan
+ * 
+ * Cada chat guarda su último mensaje y su última actividad: la bandeja de entrada se pagina
+ * por (ultima_actividad, id) sin leer los mensajes de cada conversación
+ * 
+ * Cada mensaje enviado se publica en BrokerChats después del commit, para entregarlo por
+ * WebSocket a los dos participantes
+ */
+@Service
+@Transactional
+public class ChatServiceImpl implements ChatService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private MensajeRepository mensajeRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private BrokerChats brokerChats;
+
+    @Override
+    public ApiResponse<ChatResponse> obtenerOCrearChat(Long usuarioId, Long otroUsuarioId) {
+        if (usuarioId.equals(otroUsuarioId)) {
+            return ApiResponse.error("No puedes abrir un chat contigo mismo");
+        }
+        // Par ordenado: el chat de (A, B) y el de (B, A) son la misma fila de uk_chats_par
+        Long usuario1Id = Math.min(usuarioId, otroUsuarioId);
+        Long usuario2Id = Math.max(usuarioId, otroUsuarioId);
+        Optional<ChatResponse> existente = chatRepository.findPar(usuario1Id, usuario2Id, otroUsuarioId);
+        if (existente.isPresent()) {
+            return ApiResponse.success("Chat encontrado", existente.get());
+        }
+
+        Usuario otro = usuarioRepository.findById(otroUsuarioId)
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        // Si otra petición crea el mismo chat al mismo tiempo, una de las dos no inserta nada
+        boolean creado = chatRepository.crearParSiNoExiste(usuario1Id, usuario2Id, LocalDateTime.now()) > 0;
+        Chat chat = chatRepository.bloquearPar(usuario1Id, usuario2Id)
+            .orElseThrow(() -> new RuntimeException("Chat no encontrado"));
+
+        ChatResponse response = new ChatResponse(chat.getId(), otro.getId(), otro.getUsername(), chat.getFechaCreacion());
+        return ApiResponse.success(creado ? "Chat creado" : "Chat encontrado", response);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean esParticipante(Long chatId, Long usuarioId) {
+        return chatRepository.esParticipante(chatId, usuarioId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<MensajeResponse> obtenerMensajes(Long chatId, CursorMensaje antes, CursorMensaje despues, int size) {
+        int tamanio = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(tamanio + 1); // Uno de más para saber si hay otra página
+
+        if (antes == null && despues != null) {
+            List<MensajeResponse> mensajes = mensajeRepository.findPosteriores(
+                chatId, despues.fechaEnvio(), despues.id(), limit);
+            String next = null;
+            if (mensajes.size() > tamanio) {
+                mensajes = mensajes.subList(0, tamanio);
+                next = CursorMensaje.de(mensajes.get(tamanio - 1)).codificar();
+            }
+            return new PaginaResponse<>(mensajes, next, tamanio);
+        }
+
+        // Del más nuevo al más viejo: se invierte para devolverlos en orden de envío
+        List<MensajeResponse> mensajes = antes == null
+            ? mensajeRepository.findUltimos(chatId, limit)
+            : mensajeRepository.findAnteriores(chatId, antes.fechaEnvio(), antes.id(), limit);
+        String next = null;
+        if (mensajes.size() > tamanio) {
+            mensajes = mensajes.subList(0, tamanio);
+            next = CursorMensaje.de(mensajes.get(tamanio - 1)).codificar();
+        }
+        mensajes = new ArrayList<>(mensajes);
+        Collections.reverse(mensajes);
+        return new PaginaResponse<>(mensajes, next, tamanio);
+    }
+
+    @Override
+    public ApiResponse<MensajeResponse> enviarMensaje(Long chatId, Long usuarioId, MensajeRequest request) {
+        Long destinatarioId = chatRepository.findOtroParticipante(chatId, usuarioId)
+            .orElseThrow(() -> new RuntimeException("Chat no encontrado"));
+
+        // Primero el chat (bloquea su fila), después el mensaje: el mismo orden que marcarLeidos
+        chatRepository.sumarNoLeido(chatId, destinatarioId);
+
+        Mensaje mensaje = new Mensaje();
+        mensaje.setChat(chatRepository.getReferenceById(chatId));
+        mensaje.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        mensaje.setContenido(request.getContenido().trim());
+        mensaje = mensajeRepository.save(mensaje);
+        chatRepository.registrarUltimoMensaje(chatId, mensaje.getId(), mensaje.getFechaEnvio());
+
+        MensajeResponse response = MensajeResponse.fromEntity(mensaje);
+        brokerChats.publicarAlConfirmar(new BrokerChats.Publicacion(
+            List.of(destinatarioId, usuarioId), ChatEventoResponse.mensaje(response)));
+        return ApiResponse.success("Mensaje enviado", response);
+    }
+
+    @Override
+    public ApiResponse<Integer> marcarLeidos(Long chatId, Long usuarioId, Long hastaId) {
+        chatRepository.bloquear(chatId);
+        int marcados = mensajeRepository.marcarLeidosHasta(chatId, usuarioId, hastaId);
+        if (marcados > 0) {
+            chatRepository.restarNoLeidos(chatId, usuarioId, marcados);
+        }
+        return ApiResponse.success("Mensajes marcados como leídos", marcados);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ChatBandejaResponse> obtenerBandeja(Long usuarioId, CursorChat cursor, int size) {
+        int tamanio = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(tamanio + 1); // Uno de más para saber si hay otra página
+
+        // Como mucho tamanio + 1 chats de cada lado del par: se juntan, se ordenan y se corta a la página
+        List<ChatBandejaResponse> chats = new ArrayList<>(chatRepository.findBandejaComoUsuario1(
+            usuarioId, cursor.ultimaActividad(), cursor.id(), limit));
+        chats.addAll(chatRepository.findBandejaComoUsuario2(
+            usuarioId, cursor.ultimaActividad(), cursor.id(), limit));
+        chats.sort(Comparator.comparing(ChatBandejaResponse::getLastActivity)
+            .thenComparing(ChatBandejaResponse::getChatId)
+            .reversed());
+
+        String next = null;
+        if (chats.size() > tamanio) {
+            chats = chats.subList(0, tamanio);
+            next = CursorChat.despuesDe(chats.get(tamanio - 1)).codificar();
+        }
+        return new PaginaResponse<>(chats, next, tamanio);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoLeidosResponse obtenerNoLeidos(Long usuarioId) {
+        List<ChatNoLeidosResponse> chats = chatRepository.findNoLeidos(usuarioId);
+        int total = chats.stream().mapToInt(ChatNoLeidosResponse::getUnread).sum();
+        return new NoLeidosResponse(total, chats);
+    }
+}
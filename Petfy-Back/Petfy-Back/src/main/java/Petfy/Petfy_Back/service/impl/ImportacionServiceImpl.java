@@ -0,0 +1,382 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaseoCalificable;
+import Petfy.Petfy_Back.model.Calificacion;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.CalificacionRepository;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.ColaCalificaciones;
+import Petfy.Petfy_Back.service.ImportacionService;
+import Petfy.Petfy_Back.service.LectorCsv;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Implementación del servicio de importación de historial
+ * 
+ * 1. Se lee y valida todo el CSV fuera de la transacción (una subida lenta no retiene una
+ *    conexión del pool)
+ * 2. Se comprueban los IDs referenciados con una consulta por cada LOTE_IDS distintos
+ * 3. Se insertan las filas en una sola transacción con persist(): Paseo y Calificacion toman
+ *    sus IDs por bloques (generador_ids), así Hibernate agrupa los INSERT en lotes JDBC
+ *    (hibernate.jdbc.batch_size) en lugar de un viaje a la base por fila. Cada LOTE filas se
+ *    vacía el contexto de persistencia para que no crezca con el archivo
+ * 
+ * Las referencias a usuarios, paseadores y paseos son getReference(): no se cargan las entidades
+ */
+@Service
+@Transactional
+public class ImportacionServiceImpl implements ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+
+    // Filas por flush/clear (varios lotes JDBC de hibernate.jdbc.batch_size)
+    static final int LOTE = 1000;
+
+    // IDs por consulta de validación (IN (...))
+    private static final int LOTE_IDS = 1000;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+
+    @Autowired
+    private ColaCalificaciones colaCalificaciones;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${importaciones.max-filas:200000}")
+    private int maxFilas;
+
+    private record FilaPaseo(int numero, Long clienteId, Long paseadorId, LocalDate fecha, LocalTime horaInicio,
+                             LocalTime horaFin, String direccion, Paseo.EstadoPaseo estado,
+                             LocalDateTime fechaCreacion) {
+    }
+
+    private record FilaCalificacion(int numero, Long usuarioId, Long paseoId, int calificacion,
+                                    String comentario, LocalDateTime fecha) {
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApiResponse<Integer> importarPaseos(InputStream csv) {
+        List<FilaPaseo> filas;
+        try {
+            filas = leerPaseos(csv);
+        } catch (IOException e) {
+            return ApiResponse.error("Error al leer el archivo: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+        return insertar(filas, "paseos", () -> transactionTemplate.execute(status -> insertarPaseos(filas)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApiResponse<Integer> importarCalificaciones(InputStream csv) {
+        List<FilaCalificacion> filas;
+        try {
+            filas = leerCalificaciones(csv);
+        } catch (IOException e) {
+            return ApiResponse.error("Error al leer el archivo: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+        return insertar(filas, "calificaciones",
+            () -> transactionTemplate.execute(status -> insertarCalificaciones(filas)));
+    }
+
+    private ApiResponse<Integer> insertar(List<?> filas, String tipo, Supplier<ApiResponse<Integer>> insercion) {
+        if (filas.isEmpty()) {
+            return ApiResponse.error("El archivo no tiene filas");
+        }
+        long inicio = System.nanoTime();
+        try {
+            ApiResponse<Integer> respuesta = insercion.get();
+            if (respuesta.isSuccess()) {
+                log.info("Importados {} {} en {} ms", respuesta.getData(), tipo, (System.nanoTime() - inicio) / 1_000_000);
+            }
+            return respuesta;
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // entityManager.flush() no pasa por la traducción de excepciones de Spring: llega la de
+            // Hibernate (p. ej. un paseo calificado por otra transacción después de validar)
+            return ApiResponse.error("No se pudo importar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    // Lectura y validación de cada fila (sin base de datos)
+
+    private List<FilaPaseo> leerPaseos(InputStream csv) throws IOException {
+        LectorCsv lector = lector(csv);
+        lector.requerirColumnas("cliente_id", "paseador_id", "fecha", "hora_inicio", "hora_fin", "direccion", "estado");
+        List<FilaPaseo> filas = new ArrayList<>();
+        while (lector.siguiente()) {
+            int numero = lector.getNumeroFila();
+            verificarMaximo(filas.size());
+            try {
+                String valorEstado = requerido(lector, "estado");
+                Paseo.EstadoPaseo estado = switch (valorEstado) {
+                    case "FINALIZADO" -> Paseo.EstadoPaseo.FINALIZADO;
+                    case "CANCELADO" -> Paseo.EstadoPaseo.CANCELADO;
+                    default -> null;
+                };
+                if (estado == null) {
+                    // Los paseos activos ocupan agenda y tablero: se crean desde la aplicación
+                    throw new IllegalArgumentException("solo se importan paseos FINALIZADO o CANCELADO");
+                }
+                Long paseadorId = id(lector.get("paseador_id"));
+                if (estado == Paseo.EstadoPaseo.FINALIZADO && paseadorId == null) {
+                    throw new IllegalArgumentException("un paseo FINALIZADO requiere paseador_id");
+                }
+                LocalTime horaInicio = LocalTime.parse(requerido(lector, "hora_inicio"));
+                LocalTime horaFin = LocalTime.parse(requerido(lector, "hora_fin"));
+                if (!horaFin.isAfter(horaInicio)) {
+                    throw new IllegalArgumentException("hora_fin debe ser posterior a hora_inicio");
+                }
+                String fechaCreacion = lector.get("fecha_creacion");
+                filas.add(new FilaPaseo(numero, id(requerido(lector, "cliente_id")), paseadorId,
+                    LocalDate.parse(requerido(lector, "fecha")), horaInicio, horaFin,
+                    requerido(lector, "direccion"), estado,
+                    fechaCreacion != null ? LocalDateTime.parse(fechaCreacion) : null));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw errorFila(numero, e);
+            }
+        }
+        return filas;
+    }
+
+    private List<FilaCalificacion> leerCalificaciones(InputStream csv) throws IOException {
+        LectorCsv lector = lector(csv);
+        lector.requerirColumnas("usuario_id", "paseo_id", "calificacion");
+        List<FilaCalificacion> filas = new ArrayList<>();
+        Set<Long> paseos = new HashSet<>();
+        while (lector.siguiente()) {
+            int numero = lector.getNumeroFila();
+            verificarMaximo(filas.size());
+            try {
+                int calificacion = Integer.parseInt(requerido(lector, "calificacion"));
+                if (calificacion < 1 || calificacion > 5) {
+                    throw new IllegalArgumentException("la calificación debe estar entre 1 y 5");
+                }
+                Long paseoId = id(lector.get("paseo_id"));
+                if (paseoId != null && !paseos.add(paseoId)) {
+                    throw new IllegalArgumentException("el paseo " + paseoId + " se califica más de una vez");
+                }
+                String fecha = lector.get("fecha_calificacion");
+                filas.add(new FilaCalificacion(numero, id(requerido(lector, "usuario_id")), paseoId, calificacion,
+                    lector.get("comentario"), fecha != null ? LocalDateTime.parse(fecha) : null));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw errorFila(numero, e);
+            }
+        }
+        return filas;
+    }
+
+    // Inserción (dentro de la transacción)
+
+    private ApiResponse<Integer> insertarPaseos(List<FilaPaseo> filas) {
+        Set<Long> clientes = existentes(ids(filas, FilaPaseo::clienteId), usuarioRepository::findIdsExistentes);
+        Set<Long> paseadores = existentes(ids(filas, FilaPaseo::paseadorId), paseadorRepository::findIdsExistentes);
+        for (FilaPaseo fila : filas) {
+            if (!clientes.contains(fila.clienteId())) {
+                return ApiResponse.error("Fila " + fila.numero() + ": usuario " + fila.clienteId() + " no encontrado");
+            }
+            if (fila.paseadorId() != null && !paseadores.contains(fila.paseadorId())) {
+                return ApiResponse.error("Fila " + fila.numero() + ": paseador " + fila.paseadorId() + " no encontrado");
+            }
+        }
+
+        for (int i = 0; i < filas.size(); i++) {
+            FilaPaseo fila = filas.get(i);
+            Paseo paseo = new Paseo();
+            paseo.setCliente(entityManager.getReference(Usuario.class, fila.clienteId()));
+            if (fila.paseadorId() != null) {
+                paseo.setPaseador(entityManager.getReference(Paseador.class, fila.paseadorId()));
+            }
+            paseo.setFecha(fila.fecha());
+            paseo.setHoraInicio(fila.horaInicio());
+            paseo.setHoraFin(fila.horaFin());
+            paseo.setDireccion(fila.direccion());
+            paseo.setEstado(fila.estado());
+            paseo.setFechaCreacion(fila.fechaCreacion());
+            if (fila.estado() == Paseo.EstadoPaseo.FINALIZADO) {
+                paseo.setFechaInicio(fila.fecha().atTime(fila.horaInicio()));
+                paseo.setFechaFin(fila.fecha().atTime(fila.horaFin()));
+                paseo.setIsCompleted(true);
+            }
+            entityManager.persist(paseo);
+            vaciarCadaLote(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ApiResponse.success("Paseos importados: " + filas.size(), filas.size());
+    }
+
+    private ApiResponse<Integer> insertarCalificaciones(List<FilaCalificacion> filas) {
+        Set<Long> usuarios = existentes(ids(filas, FilaCalificacion::usuarioId), usuarioRepository::findIdsExistentes);
+        Set<Long> paseoIds = ids(filas, FilaCalificacion::paseoId);
+        Map<Long, PaseoCalificable> paseos = new HashMap<>();
+        consultarPorLotes(paseoIds, paseoRepository::findCalificables)
+            .forEach(paseo -> paseos.put(paseo.id(), paseo));
+        Set<Long> calificados = existentes(paseoIds, calificacionRepository::findPaseoIdsCalificados);
+
+        for (FilaCalificacion fila : filas) {
+            String error = null;
+            if (!usuarios.contains(fila.usuarioId())) {
+                error = "usuario " + fila.usuarioId() + " no encontrado";
+            } else if (fila.paseoId() != null) {
+                PaseoCalificable paseo = paseos.get(fila.paseoId());
+                if (paseo == null) {
+                    error = "paseo " + fila.paseoId() + " no encontrado";
+                } else if (!paseo.clienteId().equals(fila.usuarioId())) {
+                    error = "el paseo " + fila.paseoId() + " no es del usuario " + fila.usuarioId();
+                } else if (paseo.estado() != Paseo.EstadoPaseo.FINALIZADO) {
+                    error = "el paseo " + fila.paseoId() + " no está finalizado";
+                } else if (calificados.contains(fila.paseoId())) {
+                    error = "el paseo " + fila.paseoId() + " ya está calificado";
+                }
+            }
+            if (error != null) {
+                return ApiResponse.error("Fila " + fila.numero() + ": " + error);
+            }
+        }
+
+        // Las de paseo con paseador se suman después, en lote, como las creadas desde la aplicación
+        List<Long> porSumar = new ArrayList<>();
+        for (int i = 0; i < filas.size(); i++) {
+            FilaCalificacion fila = filas.get(i);
+            Calificacion calificacion = new Calificacion();
+            calificacion.setUsuario(entityManager.getReference(Usuario.class, fila.usuarioId()));
+            boolean sumarAlPaseador = false;
+            if (fila.paseoId() != null) {
+                calificacion.setPaseo(entityManager.getReference(Paseo.class, fila.paseoId()));
+                calificacion.setTipo(Calificacion.TipoCalificacion.PASEO);
+                sumarAlPaseador = paseos.get(fila.paseoId()).paseadorId() != null;
+            } else {
+                calificacion.setTipo(Calificacion.TipoCalificacion.APP);
+            }
+            calificacion.setCalificacion(fila.calificacion());
+            calificacion.setComentario(fila.comentario());
+            calificacion.setFechaCalificacion(fila.fecha());
+            calificacion.setAgregada(!sumarAlPaseador);
+            entityManager.persist(calificacion);
+            if (sumarAlPaseador) {
+                porSumar.add(calificacion.getId());
+            }
+            vaciarCadaLote(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        colaCalificaciones.encolarAlConfirmar(porSumar);
+        return ApiResponse.success("Calificaciones importadas: " + filas.size(), filas.size());
+    }
+
+    // Métodos auxiliares
+
+    private void vaciarCadaLote(int indice) {
+        if ((indice + 1) % LOTE == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private void verificarMaximo(int filas) {
+        if (filas >= maxFilas) {
+            throw new IllegalArgumentException("El archivo supera el máximo de " + maxFilas + " filas");
+        }
+    }
+
+    private static LectorCsv lector(InputStream csv) throws IOException {
+        return new LectorCsv(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+    }
+
+    private static String requerido(LectorCsv lector, String columna) {
+        String valor = lector.get(columna);
+        if (valor == null) {
+            throw new IllegalArgumentException("falta " + columna);
+        }
+        return valor;
+    }
+
+    private static Long id(String valor) {
+        return valor != null ? Long.valueOf(valor) : null;
+    }
+
+    private static IllegalArgumentException errorFila(int numero, RuntimeException e) {
+        String detalle = e instanceof NumberFormatException || e instanceof DateTimeParseException
+            ? "valor inválido (" + e.getMessage() + ")"
+            : e.getMessage();
+        return new IllegalArgumentException("Fila " + numero + ": " + detalle, e);
+    }
+
+    private static <T> Set<Long> ids(List<T> filas, Function<T, Long> campo) {
+        Set<Long> ids = new HashSet<>();
+        for (T fila : filas) {
+            Long id = campo.apply(fila);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Set<Long> existentes(Set<Long> ids, Function<Collection<Long>, List<Long>> consulta) {
+        return new HashSet<>(consultarPorLotes(ids, consulta));
+    }
+
+    private static <R> List<R> consultarPorLotes(Set<Long> ids, Function<Collection<Long>, List<R>> consulta) {
+        List<Long> todos = new ArrayList<>(ids);
+        List<R> resultado = new ArrayList<>();
+        for (int desde = 0; desde < todos.size(); desde += LOTE_IDS) {
+            resultado.addAll(consulta.apply(todos.subList(desde, Math.min(desde + LOTE_IDS, todos.size()))));
+        }
+        return resultado;
+    }
+}
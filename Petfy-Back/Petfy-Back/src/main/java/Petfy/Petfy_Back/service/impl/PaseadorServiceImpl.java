@@ -1,30 +1,45 @@
 package Petfy.Petfy_Back.service.impl;
 
+import Petfy.Petfy_Back.config.CredencialesCache;
 import Petfy.Petfy_Back.dto.request.WalkerApplicationRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaseadorResponse;
 import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Solicitud;
 import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.SolicitudRepository;
 import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.AgendaPaseadores;
+import Petfy.Petfy_Back.service.AlmacenDocumentos;
+import Petfy.Petfy_Back.service.MiniaturasDocumentos;
 import Petfy.Petfy_Back.service.PaseadorService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementación del servicio de paseadores
  * 
  * Simula la lógica según el frontend:
  * - walker-application.component.ts -> submitApplication()
+ * - request.component.ts -> walkers[] -> paseadores disponibles
+ * 
+ * El documento de la solicitud se guarda en AlmacenDocumentos fuera de la transacción; su
+ * miniatura la genera MiniaturasDocumentos en segundo plano
+ * 
+ * Toda solicitud deja al paseador PENDIENTE y guarda su Solicitud, que los admins revisan en
+ * la cola de SolicitudService (el rol WALKER solo se asigna al aprobarla)
  */
 @Service
 @Transactional
@@ -36,11 +51,44 @@ public class PaseadorServiceImpl implements PaseadorService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    @Value("${file.upload.dir:./uploads}")
-    private String uploadDir;
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private CredencialesCache credencialesCache;
+
+    @Autowired
+    private AgendaPaseadores agendaPaseadores;
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Autowired
+    private MiniaturasDocumentos miniaturasDocumentos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ApiResponse<Void> solicitarSerPaseador(Long usuarioId, WalkerApplicationRequest request, MultipartFile documentImage) {
+        // Guardar imagen del documento antes de tocar la base de datos: la copia no retiene
+        // una conexión del pool (con open-in-view, la primera consulta la toma hasta el fin de la petición)
+        String rutaDocumento = null;
+        if (documentImage != null && !documentImage.isEmpty()) {
+            try {
+                rutaDocumento = almacenDocumentos.guardar(documentImage).ruta();
+            } catch (IOException e) {
+                return ApiResponse.error("Error al guardar el documento: " + e.getMessage());
+            }
+        }
+
+        // Solo la ruta final del documento entra en la transacción
+        String ruta = rutaDocumento;
+        return transactionTemplate.execute(status -> registrarSolicitud(usuarioId, request, ruta));
+    }
+
+    private ApiResponse<Void> registrarSolicitud(Long usuarioId, WalkerApplicationRequest request, String rutaDocumento) {
         // Buscar usuario
         Usuario usuario = usuarioRepository.findById(usuarioId)
             .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -50,82 +98,70 @@ public class PaseadorServiceImpl implements PaseadorService {
             return ApiResponse.error("Ya eres un paseador registrado");
         }
 
-        // Guardar imagen del documento
-        String rutaDocumento = null;
-        if (documentImage != null && !documentImage.isEmpty()) {
-            try {
-                rutaDocumento = guardarArchivo(documentImage);
-            } catch (IOException e) {
-                return ApiResponse.error("Error al guardar el documento: " + e.getMessage());
-            }
-        }
-
         // Crear registro de Paseador
         Paseador paseador = new Paseador();
         paseador.setUsuario(usuario);
         paseador.setTelefono(request.getPhone());
         paseador.setDescripcion(request.getDescription());
         paseador.setRutaDocumento(rutaDocumento);
-        
-        // Validar código de aprobación
-        // Si el código es "cascuino", aprobar automáticamente, sino dejar en PENDIENTE
-        String validationCode = request.getValidationCode();
-        
-        // Validar que el código sea exactamente "cascuino" (case-insensitive)
-        boolean codigoValido = validationCode != null 
-            && !validationCode.trim().isEmpty() 
-            && validationCode.trim().equalsIgnoreCase("cascuino");
-        
-        if (codigoValido) {
-            paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.APROBADO);
-        } else {
-            // Si el código es incorrecto o no existe, dejar en PENDIENTE
-            paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.PENDIENTE);
-        }
+        // Toda solicitud queda PENDIENTE hasta que un admin la apruebe (SolicitudService)
+        paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.PENDIENTE);
 
         // Guardar paseador
         paseadorRepository.save(paseador);
 
-        // Actualizar rol del usuario a WALKER solo si fue aprobado
-        if (paseador.getEstadoAprobacion() == Paseador.EstadoAprobacion.APROBADO) {
-            usuario.setRol(Usuario.RolUsuario.WALKER);
-            // Sincronizar la relación bidireccional
-            usuario.setPaseador(paseador);
-            // Guardar y forzar persistencia inmediata
-            Usuario usuarioActualizado = usuarioRepository.save(usuario);
-            usuarioRepository.flush(); // Forzar flush para asegurar persistencia inmediata
-            
-            return ApiResponse.success("¡Solicitud aprobada! Ya eres un paseador. Ahora puedes ver las solicitudes de los clientes.");
-        } else {
-            // Si está pendiente, solo guardar el paseador sin cambiar el rol
-            // Sincronizar la relación bidireccional
-            usuario.setPaseador(paseador);
-            usuarioRepository.save(usuario);
-            usuarioRepository.flush();
-            
-            return ApiResponse.success("Solicitud enviada. Tu solicitud quedó en revisión y será evaluada por nuestro equipo.");
+        // La miniatura del documento se genera en segundo plano, después del commit
+        if (rutaDocumento != null) {
+            miniaturasDocumentos.programar(paseador.getId(), rutaDocumento);
         }
+
+        // El usuario ahora tiene paseadorId: descartar sus credenciales cacheadas
+        credencialesCache.invalidarAlConfirmar(usuario.getEmail());
+
+        // Dejar la solicitud en la cola de revisión, sin cambiar el rol
+        Solicitud solicitud = new Solicitud();
+        solicitud.setUsuario(usuario);
+        solicitud.setTelefono(request.getPhone());
+        solicitud.setDescripcion(request.getDescription());
+        solicitud.setRutaDocumento(rutaDocumento);
+        solicitudRepository.save(solicitud);
+
+        // Sincronizar la relación bidireccional
+        usuario.setPaseador(paseador);
+        usuarioRepository.save(usuario);
+        usuarioRepository.flush();
+
+        return ApiResponse.success("Solicitud enviada. Tu solicitud quedó en revisión y será evaluada por nuestro equipo.");
     }
 
-    /**
-     * Guarda un archivo en el sistema de archivos
-     */
-    private String guardarArchivo(MultipartFile file) throws IOException {
-        // Crear directorio si no existe
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaseadorResponse> obtenerPaseadoresDisponibles(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        // Una consulta con los aprobados ya ordenados por calificación
+        List<PaseadorResponse> aprobados = paseadorRepository.findAprobadosPorCalificacion();
+        if (fecha == null) {
+            return aprobados;
         }
 
-        // Generar nombre único para el archivo
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
+        // Las franjas ocupadas salen de la agenda en memoria, no de una consulta por paseador
+        Set<Long> ocupados = agendaPaseadores.paseadoresOcupados(fecha, horaInicio, horaFin);
+        if (ocupados.isEmpty()) {
+            return aprobados;
+        }
+        return aprobados.stream()
+            .filter(paseador -> !ocupados.contains(paseador.getId()))
+            .toList();
+    }
 
-        // Guardar archivo
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> obtenerRutaDocumento(Long paseadorId) {
+        return paseadorRepository.findRutaDocumentoById(paseadorId);
+    }
 
-        return filePath.toString();
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> obtenerRutaMiniatura(Long paseadorId) {
+        return paseadorRepository.findRutaMiniaturaById(paseadorId);
     }
 }
-
-
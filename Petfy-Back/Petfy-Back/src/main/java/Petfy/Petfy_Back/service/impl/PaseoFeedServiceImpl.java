@@ -0,0 +1,265 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.response.PaseoEventoResponse;
+import Petfy.Petfy_Back.service.PaseoFeedService;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementación del feed de paseos pendientes con Server-Sent Events
+ *
+ * - Cada suscriptor tiene su cola acotada (paseos.feed.buffer-eventos) y la vacía un hilo
+ *   virtual solo mientras hay algo que enviar: quien publica nunca espera a la red y un
+ *   cliente trabado no frena a los demás
+ * - Cliente lento: si su cola se llena o un envío lleva más de paseos.feed.envio-limite-ms, se
+ *   cierra su conexión; EventSource se reconecta solo y recibe un snapshot nuevo
+ * - Suscribir (leer el snapshot y encolarlo primero) y publicar (encolar en todos) se hacen con
+ *   el mismo lock, así cada suscriptor recibe el snapshot antes que cualquier cambio posterior
+ *   a él; encolar no bloquea, el lock se retiene solo lo que tarda repartir
+ * - Cada evento se serializa a JSON una sola vez y se reparte a todas las conexiones:
+ *   el costo es O(cambios × suscriptores) en vez de O(paseadores × pendientes) por cada polling
+ * - Los eventos se publican después del commit (PaseoServiceImpl), nunca para cambios revertidos
+ * - El snapshot sale de TableroPaseosPendientes, que se actualiza en el mismo commit antes de
+ *   publicar el evento, así que no consulta la base de datos por cada conexión
+ * - El snapshot es un evento "agregado" por pendiente, con la versión del paseo como todos
+ *   los eventos: el cliente ignora los de versión igual o menor a la última aplicada para ese
+ *   paseoId, así un cambio repetido del snapshot o dos commits publicados en otro orden no lo
+ *   dejan inconsistente
+ */
+@Service
+public class PaseoFeedServiceImpl implements PaseoFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaseoFeedServiceImpl.class);
+
+    private static final String EVENTO_SNAPSHOT = "snapshot";
+
+    @Autowired
+    private TableroPaseosPendientes tablero;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paseos.feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${paseos.feed.buffer-eventos:256}")
+    private int bufferEventos;
+
+    @Value("${paseos.feed.envio-limite-ms:10000}")
+    private long envioLimiteMs;
+
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+
+    // Ordena snapshot y eventos entre sí (ver comentario de la clase)
+    private final Object lock = new Object();
+
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("paseos-feed-", 0).factory());
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "paseos-feed-heartbeat");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Métricas
+    private final AtomicLong desconectadosLentos = new AtomicLong();
+
+    public PaseoFeedServiceImpl(@Value("${paseos.feed.heartbeat-seconds:25}") long heartbeatSeconds) {
+        // Comentario SSE periódico: mantiene viva la conexión en proxies y detecta clientes desconectados
+        heartbeats.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public SseEmitter suscribir() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter, bufferEventos);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+
+        synchronized (lock) {
+            // Los eventos publicados antes ya están reflejados en el snapshot y los posteriores
+            // se encolan detrás de él
+            List<PaseoEventoResponse> pendientes = tablero.listarTodos().stream()
+                .map(pendiente -> PaseoEventoResponse.agregado(pendiente.paseo(), pendiente.version()))
+                .toList();
+            try {
+                suscriptor.encolar(SseEmitter.event()
+                    .name(EVENTO_SNAPSHOT)
+                    .data(objectMapper.writeValueAsString(pendientes), MediaType.APPLICATION_JSON)
+                    .build());
+            } catch (JsonProcessingException e) {
+                emitter.completeWithError(e);
+                return emitter;
+            }
+            suscriptores.add(suscriptor);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publicarAlConfirmar(PaseoEventoResponse evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(evento);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(evento);
+            }
+        });
+    }
+
+    @Override
+    public int getSuscriptores() {
+        return suscriptores.size();
+    }
+
+    public long getDesconectadosLentos() {
+        return desconectadosLentos.get();
+    }
+
+    /**
+     * Cierra las conexiones al apagar la aplicación, antes del apagado ordenado del servidor web
+     * (si no, el servidor esperaría a que cada SSE abierto venza)
+     */
+    @EventListener(ContextClosedEvent.class)
+    void cerrar() {
+        heartbeats.shutdownNow();
+        envios.shutdownNow();
+        suscriptores.forEach(suscriptor -> suscriptor.emitter.complete());
+        suscriptores.clear();
+    }
+
+    private void publicar(PaseoEventoResponse evento) {
+        if (envios.isShutdown()) {
+            return; // Aplicación apagándose
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el evento del paseo {}", evento.getPaseoId(), e);
+            return;
+        }
+        Set<SseEmitter.DataWithMediaType> datos = SseEmitter.event()
+            .name(evento.getTipo())
+            .data(json, MediaType.APPLICATION_JSON)
+            .build();
+        synchronized (lock) {
+            suscriptores.forEach(suscriptor -> suscriptor.encolar(datos));
+        }
+    }
+
+    private void enviarHeartbeat() {
+        Set<SseEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        suscriptores.forEach(suscriptor -> suscriptor.encolar(ping));
+    }
+
+    /**
+     * Una conexión SSE con su cola de salida acotada
+     */
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final LinkedBlockingQueue<Set<SseEmitter.DataWithMediaType>> pendientes;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+        private volatile long inicioEnvio; // 0 si no hay un envío en curso
+
+        private Suscriptor(SseEmitter emitter, int capacidad) {
+            this.emitter = emitter;
+            this.pendientes = new LinkedBlockingQueue<>(capacidad);
+        }
+
+        private void encolar(Set<SseEmitter.DataWithMediaType> evento) {
+            long inicio = inicioEnvio;
+            if (!pendientes.offer(evento)
+                    || (inicio != 0 && System.currentTimeMillis() - inicio > envioLimiteMs)) {
+                desconectarLento();
+                return;
+            }
+            programarEnvio();
+        }
+
+        private void programarEnvio() {
+            if (!envios.isShutdown() && enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            try {
+                Set<SseEmitter.DataWithMediaType> evento;
+                while (!cerrado.get() && (evento = pendientes.poll()) != null) {
+                    inicioEnvio = System.currentTimeMillis();
+                    emitter.send(evento);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cliente desconectado o emitter ya completado
+                cerrar(e);
+            } finally {
+                inicioEnvio = 0;
+                enviando.set(false);
+            }
+            // Un evento encolado entre el último poll y enviando = false
+            if (!pendientes.isEmpty() && !cerrado.get()) {
+                programarEnvio();
+            }
+        }
+
+        private void desconectarLento() {
+            if (suscriptores.remove(this)) {
+                desconectadosLentos.incrementAndGet();
+                pendientes.clear();
+                if (!envios.isShutdown()) {
+                    // Fuera del hilo que publica: completar espera al envío bloqueado
+                    envios.execute(() -> cerrar(null));
+                }
+            }
+        }
+
+        private void cerrar(Exception error) {
+            if (!cerrado.compareAndSet(false, true)) {
+                return;
+            }
+            suscriptores.remove(this);
+            pendientes.clear();
+            try {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                } else {
+                    emitter.complete();
+                }
+            } catch (RuntimeException e) {
+                // Ya completado
+            }
+        }
+    }
+}
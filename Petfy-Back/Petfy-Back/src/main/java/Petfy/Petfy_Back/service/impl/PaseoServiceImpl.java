@@ -1,23 +1,32 @@
 package Petfy.Petfy_Back.service.impl;
 
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
 import Petfy.Petfy_Back.dto.request.PaseoRequest;
 import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.PaseoEventoResponse;
+import Petfy.Petfy_Back.dto.response.PaseoPendiente;
 import Petfy.Petfy_Back.dto.response.PaseoResponse;
+import Petfy.Petfy_Back.dto.response.ReservaPaseador;
 import Petfy.Petfy_Back.model.Paseador;
 import Petfy.Petfy_Back.model.Paseo;
 import Petfy.Petfy_Back.model.Usuario;
 import Petfy.Petfy_Back.repository.PaseadorRepository;
 import Petfy.Petfy_Back.repository.PaseoRepository;
 import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.AgendaPaseadores;
+import Petfy.Petfy_Back.service.PaseoFeedService;
 import Petfy.Petfy_Back.service.PaseoService;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Implementación del servicio de paseos
@@ -35,6 +44,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class PaseoServiceImpl implements PaseoService {
 
+    // Tamaño máximo de página para los listados paginados
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PaseoRepository paseoRepository;
 
@@ -44,6 +56,15 @@ public class PaseoServiceImpl implements PaseoService {
     @Autowired
     private PaseadorRepository paseadorRepository;
 
+    @Autowired
+    private PaseoFeedService paseoFeedService;
+
+    @Autowired
+    private TableroPaseosPendientes tablero;
+
+    @Autowired
+    private AgendaPaseadores agendaPaseadores;
+
     @Override
     public ApiResponse<PaseoResponse> crearPaseo(Long clienteId, PaseoRequest request) {
         // Buscar cliente
@@ -82,10 +103,17 @@ public class PaseoServiceImpl implements PaseoService {
 
         // Guardar paseo
         Paseo paseoGuardado = paseoRepository.save(paseo);
+        PaseoResponse response = PaseoResponse.fromEntity(paseoGuardado);
+
+        // Se registra antes que el evento del feed: el snapshot de un nuevo suscriptor ya lo incluye
+        tablero.agregarAlConfirmar(PaseoPendiente.fromEntity(paseoGuardado));
+
+        // Avisar a los paseadores conectados al feed de pendientes
+        paseoFeedService.publicarAlConfirmar(PaseoEventoResponse.agregado(response, paseoGuardado.getVersion()));
 
         return ApiResponse.success(
             "Solicitud de paseo enviada exitosamente",
-            PaseoResponse.fromEntity(paseoGuardado)
+            response
         );
     }
 
@@ -119,108 +147,109 @@ public class PaseoServiceImpl implements PaseoService {
             }
         }
 
-        // Guardar cambios
-        Paseo paseoActualizado = paseoRepository.save(paseo);
+        // Guardar cambios (flush para conocer la nueva versión que ordena los cambios del tablero)
+        Paseo paseoActualizado = paseoRepository.saveAndFlush(paseo);
+        PaseoResponse response = PaseoResponse.fromEntity(paseoActualizado);
+
+        // Un paseo pendiente se reemplaza en el tablero y el feed; si dejó de estar pendiente se quita
+        if (paseoActualizado.getEstado() == Paseo.EstadoPaseo.PENDIENTE) {
+            tablero.agregarAlConfirmar(PaseoPendiente.fromEntity(paseoActualizado));
+            paseoFeedService.publicarAlConfirmar(PaseoEventoResponse.agregado(response, paseoActualizado.getVersion()));
+        } else {
+            tablero.quitarAlConfirmar(paseoId, paseoActualizado.getVersion());
+            paseoFeedService.publicarAlConfirmar(PaseoEventoResponse.eliminado(paseoId, paseoActualizado.getVersion()));
+        }
+
+        // La franja del paseador se mueve con el paseo, o se libera si vuelve a pendiente
+        if (ocupaAlPaseador(paseoActualizado)) {
+            agendaPaseadores.reservarAlConfirmar(ReservaPaseador.fromEntity(paseoActualizado));
+        } else {
+            agendaPaseadores.liberarAlConfirmar(paseoId, paseoActualizado.getVersion());
+        }
 
         return ApiResponse.success(
             "Paseo modificado exitosamente. Volverá a confirmarse automáticamente.",
-            PaseoResponse.fromEntity(paseoActualizado)
+            response
         );
     }
 
     @Override
-    public List<PaseoResponse> obtenerPaseosPorCliente(Long clienteId) {
-        List<Paseo> paseos = paseoRepository.findByClienteId(clienteId);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+    public PaginaResponse<PaseoResponse> obtenerPaseosPorCliente(Long clienteId, CursorPaseo cursor, int size) {
+        return paginar(cursor, size, limit -> paseoRepository.findPaginaByClienteId(
+            clienteId, cursor.fecha(), cursor.horaInicio(), cursor.id(), limit));
     }
 
     @Override
     public List<PaseoResponse> obtenerPaseosPendientesPorCliente(Long clienteId) {
-        List<Paseo> paseos = paseoRepository.findByClienteIdAndEstado(clienteId, Paseo.EstadoPaseo.PENDIENTE);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+        return paseoRepository.findResponsesByClienteIdAndEstado(clienteId, Paseo.EstadoPaseo.PENDIENTE);
     }
 
     @Override
     public List<PaseoResponse> obtenerPaseosConfirmadosPorCliente(Long clienteId) {
-        List<Paseo> paseos = paseoRepository.findByClienteIdAndEstado(clienteId, Paseo.EstadoPaseo.CONFIRMADO);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+        return paseoRepository.findResponsesByClienteIdAndEstado(clienteId, Paseo.EstadoPaseo.CONFIRMADO);
     }
 
     @Override
     public List<PaseoResponse> obtenerPaseosPorPaseador(Long paseadorId) {
-        List<Paseo> paseos = paseoRepository.findByPaseadorUsuarioId(paseadorId);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+        return paseoRepository.findResponsesByPaseadorId(paseadorId);
     }
 
     @Override
-    public List<PaseoResponse> obtenerPaseosPendientes() {
-        // Obtener todos los paseos pendientes
-        // Estos son los que pueden ver los paseadores y aceptar
-        List<Paseo> paseos = paseoRepository.findByEstado(Paseo.EstadoPaseo.PENDIENTE);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+    public PaginaResponse<PaseoResponse> obtenerPaseosPendientes(CursorPaseo cursor, int size,
+                                                                 LocalDate desde, LocalDate hasta,
+                                                                 TableroPaseosPendientes.Asignacion asignacion,
+                                                                 Long paseadorId) {
+        // Paseos pendientes: los que pueden ver los paseadores y aceptar (desde memoria, sin SQL)
+        return paginar(cursor, size, limit -> tablero.listar(
+            cursor, desde, hasta, asignacion, paseadorId, limit.max()));
     }
 
     @Override
-    public List<PaseoResponse> obtenerPaseosConfirmadosPorPaseador(Long paseadorId) {
-        List<Paseo> paseos = paseoRepository.findByPaseadorUsuarioIdAndEstado(
-            paseadorId, 
-            Paseo.EstadoPaseo.CONFIRMADO
-        );
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+    public PaginaResponse<PaseoResponse> obtenerPaseosConfirmadosPorPaseador(Long paseadorId, CursorPaseo cursor, int size) {
+        return paginar(cursor, size, limit -> paseoRepository.findPaginaByPaseadorIdAndEstado(
+            paseadorId, Paseo.EstadoPaseo.CONFIRMADO, cursor.fecha(), cursor.horaInicio(), cursor.id(), limit));
     }
 
     @Override
     public ApiResponse<PaseoResponse> aceptarPaseo(Long paseoId, Long paseadorId) {
-        // Buscar paseo
-        Paseo paseo = paseoRepository.findById(paseoId)
-            .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
-
-        // Verificar que el paseo esté pendiente
-        if (paseo.getEstado() != Paseo.EstadoPaseo.PENDIENTE) {
-            return ApiResponse.error("Esta solicitud ya fue aceptada o no está disponible");
-        }
-
-        // Buscar paseador
-        Paseador paseador = paseadorRepository.findById(paseadorId)
+        // Verificar que el paseador exista y esté aprobado
+        Paseador.EstadoAprobacion estadoAprobacion = paseadorRepository.findEstadoAprobacionById(paseadorId)
             .orElseThrow(() -> new RuntimeException("Paseador no encontrado"));
 
-        // Verificar que el paseador esté aprobado
-        if (paseador.getEstadoAprobacion() != Paseador.EstadoAprobacion.APROBADO) {
+        if (estadoAprobacion != Paseador.EstadoAprobacion.APROBADO) {
             return ApiResponse.error("No tienes permiso para aceptar paseos");
         }
 
-        // Verificar si el paseo tiene un paseador específico asignado
-        if (paseo.getPaseador() != null) {
-            // Si tiene paseador específico, solo ese paseador puede aceptarlo
-            if (!paseo.getPaseador().getId().equals(paseadorId)) {
-                return ApiResponse.error("Este paseo está asignado a otro paseador");
+        // Aceptar con un UPDATE condicional: si varios paseadores aceptan a la vez
+        // (paseos "Aleatorio"), la base de datos deja ganar a uno solo
+        int actualizados = paseoRepository.aceptarSiPendiente(
+            paseoId, paseadorRepository.getReferenceById(paseadorId), paseadorId, LocalDateTime.now());
+
+        if (actualizados == 0) {
+            // Verificar por qué no se pudo aceptar
+            Paseo.EstadoPaseo estado = paseoRepository.findEstadoById(paseoId)
+                .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
+            if (estado != Paseo.EstadoPaseo.PENDIENTE) {
+                return ApiResponse.error("Esta solicitud ya fue aceptada o no está disponible");
             }
+            return ApiResponse.error("Este paseo está asignado a otro paseador");
         }
-        // Si paseador es null (Aleatorio), cualquier paseador puede aceptarlo
 
-        // Asignar el paseador al paseo
-        paseo.setPaseador(paseador);
-        paseo.setEstado(Paseo.EstadoPaseo.CONFIRMADO);
-        paseo.setFechaConfirmacion(LocalDateTime.now());
+        PaseoResponse response = paseoRepository.findResponseById(paseoId)
+            .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
+        Long version = paseoRepository.findVersionById(paseoId)
+            .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
+
+        tablero.quitarAlConfirmar(paseoId, version);
+        agendaPaseadores.reservarAlConfirmar(new ReservaPaseador(
+            paseoId, paseadorId, response.getDate(), response.getStartTime(), response.getEndTime(), version));
 
-        // Guardar cambios
-        Paseo paseoConfirmado = paseoRepository.save(paseo);
+        // Los demás paseadores lo quitan de su lista
+        paseoFeedService.publicarAlConfirmar(PaseoEventoResponse.aceptado(response, version));
 
         return ApiResponse.success(
             "¡Solicitud aceptada exitosamente!",
-            PaseoResponse.fromEntity(paseoConfirmado)
+            response
         );
     }
 
@@ -231,10 +260,18 @@ public class PaseoServiceImpl implements PaseoService {
             .orElseThrow(() -> new RuntimeException("Paseo no encontrado"));
 
         // Cambiar estado a cancelado
+        Paseo.EstadoPaseo estadoAnterior = paseo.getEstado();
         paseo.setEstado(Paseo.EstadoPaseo.CANCELADO);
 
         // Guardar cambios
-        paseoRepository.save(paseo);
+        Paseo paseoCancelado = paseoRepository.saveAndFlush(paseo);
+
+        if (estadoAnterior == Paseo.EstadoPaseo.PENDIENTE) {
+            tablero.quitarAlConfirmar(paseoId, paseoCancelado.getVersion());
+            paseoFeedService.publicarAlConfirmar(PaseoEventoResponse.eliminado(paseoId, paseoCancelado.getVersion()));
+        } else if (estadoAnterior == Paseo.EstadoPaseo.CONFIRMADO || estadoAnterior == Paseo.EstadoPaseo.EN_PROGRESO) {
+            agendaPaseadores.liberarAlConfirmar(paseoId, paseoCancelado.getVersion());
+        }
 
         return ApiResponse.success("Solicitud cancelada exitosamente");
     }
@@ -280,7 +317,10 @@ public class PaseoServiceImpl implements PaseoService {
         paseo.setFechaFin(LocalDateTime.now());
 
         // Guardar cambios
-        Paseo paseoFinalizado = paseoRepository.save(paseo);
+        Paseo paseoFinalizado = paseoRepository.saveAndFlush(paseo);
+
+        // El paseador queda libre en esa franja
+        agendaPaseadores.liberarAlConfirmar(paseoId, paseoFinalizado.getVersion());
 
         return ApiResponse.success(
             "¡Paseo finalizado!",
@@ -289,19 +329,33 @@ public class PaseoServiceImpl implements PaseoService {
     }
 
     @Override
-    public List<PaseoResponse> obtenerPaseosFinalizadosPorCliente(Long clienteId) {
-        List<Paseo> paseos = paseoRepository.findPaseosFinalizadosPorCliente(clienteId);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+    public PaginaResponse<PaseoResponse> obtenerPaseosFinalizadosPorCliente(Long clienteId, CursorPaseo cursor, int size) {
+        return paginar(cursor, size, limit -> paseoRepository.findPaginaFinalizadosPorCliente(
+            clienteId, cursor.fecha(), cursor.horaInicio(), cursor.id(), limit));
     }
 
     @Override
     public List<PaseoResponse> obtenerPaseosFinalizadosPorRango(Long clienteId, LocalDate startDate, LocalDate endDate) {
-        List<Paseo> paseos = paseoRepository.findPaseosPorRangoFecha(clienteId, startDate, endDate);
-        return paseos.stream()
-            .map(PaseoResponse::fromEntity)
-            .collect(Collectors.toList());
+        return paseoRepository.findResponsesPorRangoFecha(clienteId, startDate, endDate);
+    }
+
+    private boolean ocupaAlPaseador(Paseo paseo) {
+        return paseo.getPaseador() != null
+            && (paseo.getEstado() == Paseo.EstadoPaseo.CONFIRMADO || paseo.getEstado() == Paseo.EstadoPaseo.EN_PROGRESO);
     }
-}
 
+    /**
+     * Ejecuta una consulta keyset pidiendo un elemento de más para saber si hay otra página
+     */
+    private PaginaResponse<PaseoResponse> paginar(CursorPaseo cursor, int size, Function<Limit, List<PaseoResponse>> consulta) {
+        int tamanio = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<PaseoResponse> paseos = consulta.apply(Limit.of(tamanio + 1));
+
+        String next = null;
+        if (paseos.size() > tamanio) {
+            paseos = paseos.subList(0, tamanio);
+            next = CursorPaseo.despuesDe(paseos.get(tamanio - 1)).codificar();
+        }
+        return new PaginaResponse<>(paseos, next, tamanio);
+    }
+}
@@ -0,0 +1,113 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.config.CredencialesCache;
+import Petfy.Petfy_Back.dto.request.CursorSolicitud;
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Solicitud;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.SolicitudRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.SolicitudService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementación del servicio de revisión de solicitudes de paseador
+ * 
+ * La cola se pagina por (fecha_solicitud, id) sobre idx_solicitudes_estado_fecha: revisar la
+ * página 50 cuesta lo mismo que la primera
+ * 
+ * Aprobar o rechazar N solicitudes es una sola transacción con sentencias por lote, no por
+ * solicitud: por cada lote de hasta LOTE IDs, un SELECT ... FOR UPDATE de las que siguen
+ * pendientes y un UPDATE sobre solicitudes, otro sobre paseadores y (al aprobar) otro sobre usuarios
+ */
+@Service
+@Transactional
+public class SolicitudServiceImpl implements SolicitudService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // IDs por sentencia (IN (...)): acota el tamaño de cada sentencia y de sus bloqueos
+    static final int LOTE = 500;
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CredencialesCache credencialesCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<SolicitudResponse> obtenerPendientes(CursorSolicitud cursor, int size) {
+        int tamanio = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Una de más para saber si hay otra página
+        List<SolicitudResponse> solicitudes = solicitudRepository.findPendientesDespuesDe(
+            cursor.fechaSolicitud(), cursor.id(), Limit.of(tamanio + 1));
+
+        String next = null;
+        if (solicitudes.size() > tamanio) {
+            solicitudes = solicitudes.subList(0, tamanio);
+            next = CursorSolicitud.despuesDe(solicitudes.get(tamanio - 1)).codificar();
+        }
+        return new PaginaResponse<>(solicitudes, next, tamanio);
+    }
+
+    @Override
+    public ApiResponse<Integer> aprobar(Long adminId, List<Long> ids, String comentario) {
+        int aprobadas = resolver(adminId, ids, comentario, true);
+        return ApiResponse.success("Solicitudes aprobadas: " + aprobadas, aprobadas);
+    }
+
+    @Override
+    public ApiResponse<Integer> rechazar(Long adminId, List<Long> ids, String comentario) {
+        int rechazadas = resolver(adminId, ids, comentario, false);
+        return ApiResponse.success("Solicitudes rechazadas: " + rechazadas, rechazadas);
+    }
+
+    private int resolver(Long adminId, List<Long> ids, String comentario, boolean aprobar) {
+        Usuario admin = usuarioRepository.findById(adminId)
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        Solicitud.EstadoSolicitud estadoSolicitud = aprobar
+            ? Solicitud.EstadoSolicitud.APROBADA : Solicitud.EstadoSolicitud.RECHAZADA;
+        Paseador.EstadoAprobacion estadoPaseador = aprobar
+            ? Paseador.EstadoAprobacion.APROBADO : Paseador.EstadoAprobacion.RECHAZADO;
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // Ordenados: dos revisiones simultáneas bloquean las filas en el mismo orden
+        List<Long> distintos = ids.stream().distinct().sorted().toList();
+        int resueltas = 0;
+        for (int desde = 0; desde < distintos.size(); desde += LOTE) {
+            List<Long> lote = distintos.subList(desde, Math.min(desde + LOTE, distintos.size()));
+            List<Solicitud> pendientes = solicitudRepository.bloquearPendientes(lote);
+            if (pendientes.isEmpty()) {
+                continue;
+            }
+            List<Long> solicitudIds = pendientes.stream().map(Solicitud::getId).toList();
+            List<Long> usuarioIds = pendientes.stream().map(s -> s.getUsuario().getId()).distinct().toList();
+
+            resueltas += solicitudRepository.resolver(solicitudIds, estadoSolicitud, admin, ahora, comentario);
+            paseadorRepository.resolverPendientes(usuarioIds, estadoPaseador);
+            if (aprobar) {
+                usuarioRepository.promoverAPaseador(usuarioIds);
+            }
+            // Cambia el rol o el estado del paseador: descartar sus credenciales cacheadas
+            pendientes.forEach(s -> credencialesCache.invalidarAlConfirmar(s.getUsuario().getEmail()));
+        }
+        return resueltas;
+    }
+}
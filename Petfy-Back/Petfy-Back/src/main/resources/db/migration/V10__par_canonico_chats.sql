@@ -0,0 +1,53 @@
+-- Cada par de usuarios tiene un solo chat, guardado con usuario1_id < usuario2_id
+-- Buscar el chat de un par es una sola consulta sobre uk_chats_par, y la restricción
+-- impide que dos aperturas simultáneas creen el mismo chat dos veces (ChatServiceImpl)
+
+-- 1. Ordenar los pares: usuario1 y usuario2 se intercambian con sus contadores de no leídos
+--    (con una tabla auxiliar: MySQL asigna de izquierda a derecha en un mismo UPDATE)
+CREATE TABLE chats_invertidos AS
+    SELECT id, usuario1_id, usuario2_id, no_leidos_usuario1, no_leidos_usuario2
+    FROM chats WHERE usuario1_id > usuario2_id;
+
+UPDATE chats SET
+    usuario1_id = (SELECT i.usuario2_id FROM chats_invertidos i WHERE i.id = chats.id),
+    usuario2_id = (SELECT i.usuario1_id FROM chats_invertidos i WHERE i.id = chats.id),
+    no_leidos_usuario1 = (SELECT i.no_leidos_usuario2 FROM chats_invertidos i WHERE i.id = chats.id),
+    no_leidos_usuario2 = (SELECT i.no_leidos_usuario1 FROM chats_invertidos i WHERE i.id = chats.id)
+WHERE id IN (SELECT id FROM chats_invertidos);
+
+DROP TABLE chats_invertidos;
+
+-- 2. Unir los chats repetidos de un mismo par en el más viejo (menor id)
+CREATE TABLE chats_duplicados AS
+    SELECT c.id, k.conservar_id
+    FROM chats c
+    JOIN (SELECT usuario1_id, usuario2_id, MIN(id) AS conservar_id
+          FROM chats GROUP BY usuario1_id, usuario2_id HAVING COUNT(*) > 1) k
+      ON k.usuario1_id = c.usuario1_id AND k.usuario2_id = c.usuario2_id
+    WHERE c.id <> k.conservar_id;
+
+UPDATE mensajes SET chat_id = (SELECT d.conservar_id FROM chats_duplicados d WHERE d.id = mensajes.chat_id)
+WHERE chat_id IN (SELECT id FROM chats_duplicados);
+
+-- Contadores, último mensaje y última actividad de los chats que recibieron mensajes (como en V8 y V9)
+UPDATE chats c SET
+    no_leidos_usuario1 = (SELECT COUNT(*) FROM mensajes m
+                          WHERE m.chat_id = c.id AND m.leido = FALSE AND m.usuario_id = c.usuario2_id),
+    no_leidos_usuario2 = (SELECT COUNT(*) FROM mensajes m
+                          WHERE m.chat_id = c.id AND m.leido = FALSE AND m.usuario_id = c.usuario1_id)
+WHERE c.id IN (SELECT conservar_id FROM chats_duplicados);
+UPDATE chats c SET ultimo_mensaje_id = (
+    SELECT m.id FROM mensajes m WHERE m.chat_id = c.id ORDER BY m.fecha_envio DESC, m.id DESC LIMIT 1)
+WHERE c.id IN (SELECT conservar_id FROM chats_duplicados);
+UPDATE chats c SET ultima_actividad = COALESCE(
+    (SELECT m.fecha_envio FROM mensajes m WHERE m.id = c.ultimo_mensaje_id), c.ultima_actividad)
+WHERE c.id IN (SELECT conservar_id FROM chats_duplicados);
+
+DELETE FROM chats WHERE id IN (SELECT id FROM chats_duplicados);
+
+DROP TABLE chats_duplicados;
+
+-- 3. Un chat por par, siempre ordenado; el índice único reemplaza a idx_chats_usuario1_usuario2
+ALTER TABLE chats ADD CONSTRAINT uk_chats_par UNIQUE (usuario1_id, usuario2_id);
+ALTER TABLE chats ADD CONSTRAINT ck_chats_par_ordenado CHECK (usuario1_id < usuario2_id);
+ALTER TABLE chats DROP INDEX idx_chats_usuario1_usuario2;
@@ -0,0 +1,27 @@
+-- Miniaturas de los documentos de paseadores (para la lista de revisión de los admins)
+-- La ruta de la miniatura va junto a ruta_documento; la genera MiniaturasDocumentos en segundo plano
+
+ALTER TABLE paseadores ADD COLUMN ruta_miniatura VARCHAR(255) NULL;
+
+-- Cola persistente de miniaturas por generar: se inserta en la misma transacción que el
+-- paseador, así una solicitud confirmada nunca se queda sin su trabajo (ni al reiniciar)
+CREATE TABLE trabajos_miniaturas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    paseador_id BIGINT NOT NULL,
+    ruta_documento VARCHAR(255) NOT NULL,
+    estado ENUM('PENDIENTE', 'EN_PROCESO', 'LISTO', 'ERROR') NOT NULL,
+    intentos INTEGER NOT NULL DEFAULT 0,
+    error VARCHAR(500) NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trabajos_miniaturas_paseador FOREIGN KEY (paseador_id) REFERENCES paseadores (id)
+) ENGINE = InnoDB;
+
+-- Siguientes trabajos pendientes en orden de llegada
+CREATE INDEX idx_trabajos_miniaturas_estado ON trabajos_miniaturas (estado, id);
+
+-- Documentos ya subidos
+INSERT INTO trabajos_miniaturas (paseador_id, ruta_documento, estado, intentos, fecha_creacion, fecha_actualizacion)
+SELECT p.id, p.ruta_documento, 'PENDIENTE', 0, CURRENT_TIMESTAMP(6), CURRENT_TIMESTAMP(6)
+FROM paseadores p WHERE p.ruta_documento IS NOT NULL;
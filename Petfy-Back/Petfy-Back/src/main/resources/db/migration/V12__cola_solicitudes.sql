@@ -0,0 +1,11 @@
+-- Cola de revisión de solicitudes de paseador
+-- Desde ahora cada solicitud que queda PENDIENTE se guarda también en solicitudes; los admins
+-- la revisan en orden de llegada con idx_solicitudes_estado_fecha (estado, fecha_solicitud)
+
+-- Paseadores pendientes que se registraron antes, sin su solicitud
+INSERT INTO solicitudes (usuario_id, telefono, descripcion, ruta_documento, estado, fecha_solicitud)
+SELECT p.usuario_id, p.telefono, p.descripcion, p.ruta_documento, 'PENDIENTE',
+       COALESCE(p.fecha_solicitud, CURRENT_TIMESTAMP(6))
+FROM paseadores p
+WHERE p.estado_aprobacion = 'PENDIENTE'
+  AND NOT EXISTS (SELECT 1 FROM solicitudes s WHERE s.usuario_id = p.usuario_id AND s.estado = 'PENDIENTE');
@@ -0,0 +1,16 @@
+-- IDs de paseos y calificaciones por bloques (pooled-lo) en lugar de AUTO_INCREMENT
+-- Con IDENTITY Hibernate tiene que insertar cada fila al persistirla para conocer su ID, así
+-- que no puede agruparlas en lotes JDBC; con un bloque reservado de antemano sí puede
+--
+-- siguiente = primer ID libre: cada instancia reserva [siguiente, siguiente + bloque) con un
+-- UPDATE en su propia transacción. Las columnas id siguen con AUTO_INCREMENT solo por
+-- compatibilidad: los INSERT de estas tablas deben pasar por Hibernate (o reservar su bloque aquí)
+
+CREATE TABLE generador_ids (
+    nombre VARCHAR(64) NOT NULL,
+    siguiente BIGINT NOT NULL,
+    PRIMARY KEY (nombre)
+) ENGINE = InnoDB;
+
+INSERT INTO generador_ids (nombre, siguiente) SELECT 'paseos', COALESCE(MAX(id), 0) + 1 FROM paseos;
+INSERT INTO generador_ids (nombre, siguiente) SELECT 'calificaciones', COALESCE(MAX(id), 0) + 1 FROM calificaciones;
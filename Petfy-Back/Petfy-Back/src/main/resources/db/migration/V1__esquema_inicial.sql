@@ -0,0 +1,99 @@
+-- Esquema inicial de Petfy
+-- Equivale al que generaba Hibernate con spring.jpa.hibernate.ddl-auto=create
+
+CREATE TABLE usuarios (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(20) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    rol ENUM('ADMIN', 'CUSTOMER', 'WALKER') NOT NULL,
+    fecha_registro DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_username UNIQUE (username),
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE paseadores (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    telefono VARCHAR(255) NOT NULL,
+    descripcion TEXT NOT NULL,
+    ruta_documento VARCHAR(255),
+    estado_aprobacion ENUM('APROBADO', 'PENDIENTE', 'RECHAZADO') NOT NULL,
+    calificacion_promedio FLOAT(53),
+    total_calificaciones INTEGER,
+    fecha_solicitud DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_paseadores_usuario UNIQUE (usuario_id),
+    CONSTRAINT fk_paseadores_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE paseos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    cliente_id BIGINT NOT NULL,
+    paseador_id BIGINT,
+    fecha DATE NOT NULL,
+    hora_inicio TIME(6) NOT NULL,
+    hora_fin TIME(6) NOT NULL,
+    direccion VARCHAR(255) NOT NULL,
+    estado ENUM('CANCELADO', 'CONFIRMADO', 'EN_PROGRESO', 'FINALIZADO', 'PENDIENTE') NOT NULL,
+    fecha_creacion DATETIME(6),
+    fecha_confirmacion DATETIME(6),
+    fecha_inicio DATETIME(6),
+    fecha_fin DATETIME(6),
+    is_completed BIT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_paseos_cliente FOREIGN KEY (cliente_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_paseos_paseador FOREIGN KEY (paseador_id) REFERENCES paseadores (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE calificaciones (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    paseo_id BIGINT,
+    tipo ENUM('APP', 'PASEO') NOT NULL,
+    calificacion INTEGER NOT NULL,
+    comentario TEXT,
+    fecha_calificacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_calificaciones_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_calificaciones_paseo FOREIGN KEY (paseo_id) REFERENCES paseos (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE chats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario1_id BIGINT NOT NULL,
+    usuario2_id BIGINT NOT NULL,
+    fecha_creacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_chats_usuario1 FOREIGN KEY (usuario1_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_chats_usuario2 FOREIGN KEY (usuario2_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE mensajes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    chat_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    contenido TEXT NOT NULL,
+    fecha_envio DATETIME(6),
+    leido BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_mensajes_chat FOREIGN KEY (chat_id) REFERENCES chats (id),
+    CONSTRAINT fk_mensajes_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE solicitudes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    admin_aprobador_id BIGINT,
+    telefono VARCHAR(255) NOT NULL,
+    descripcion TEXT NOT NULL,
+    ruta_documento VARCHAR(255),
+    estado ENUM('APROBADA', 'PENDIENTE', 'RECHAZADA') NOT NULL,
+    comentario_admin TEXT,
+    fecha_solicitud DATETIME(6),
+    fecha_aprobacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_solicitudes_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_solicitudes_admin FOREIGN KEY (admin_aprobador_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,22 @@
+-- Índices compuestos para las consultas frecuentes (ver @Table(indexes) en las entidades)
+
+-- Un paseo tiene como máximo una calificación
+ALTER TABLE calificaciones ADD CONSTRAINT uk_calificaciones_paseo UNIQUE (paseo_id);
+
+-- Listados paginados por (fecha, hora_inicio, id)
+CREATE INDEX idx_paseos_cliente_fecha ON paseos (cliente_id, fecha, hora_inicio, id);
+CREATE INDEX idx_paseos_cliente_estado ON paseos (cliente_id, estado);
+CREATE INDEX idx_paseos_estado_fecha ON paseos (estado, fecha, hora_inicio, id);
+CREATE INDEX idx_paseos_paseador_estado_fecha ON paseos (paseador_id, estado, fecha, hora_inicio, id);
+
+-- Mensajes de un chat en orden y conteo de no leídos
+CREATE INDEX idx_mensajes_chat_fecha ON mensajes (chat_id, fecha_envio, id);
+CREATE INDEX idx_mensajes_chat_leido ON mensajes (chat_id, leido);
+
+-- Búsqueda del chat entre dos usuarios y chats donde el usuario es usuario2
+CREATE INDEX idx_chats_usuario1_usuario2 ON chats (usuario1_id, usuario2_id);
+CREATE INDEX idx_chats_usuario2 ON chats (usuario2_id);
+
+-- Cola de solicitudes por estado y solicitudes de un usuario
+CREATE INDEX idx_solicitudes_estado_fecha ON solicitudes (estado, fecha_solicitud);
+CREATE INDEX idx_solicitudes_usuario_estado ON solicitudes (usuario_id, estado);
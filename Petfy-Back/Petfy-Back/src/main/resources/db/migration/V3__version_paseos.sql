@@ -0,0 +1,2 @@
+-- Versión para bloqueo optimista de paseos (@Version en Paseo)
+ALTER TABLE paseos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
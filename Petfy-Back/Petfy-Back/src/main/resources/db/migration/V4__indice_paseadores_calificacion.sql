@@ -0,0 +1,2 @@
+-- Paseadores aprobados ordenados por calificación (GET /api/paseadores/disponibles)
+CREATE INDEX idx_paseadores_estado_calificacion ON paseadores (estado_aprobacion, calificacion_promedio, total_calificaciones);
@@ -0,0 +1,18 @@
+-- Suma de las calificaciones de cada paseador: el promedio se actualiza en O(1) con cada calificación nueva
+
+ALTER TABLE paseadores ADD COLUMN suma_calificaciones BIGINT NOT NULL DEFAULT 0;
+
+-- Cargar suma y total desde las calificaciones existentes
+UPDATE paseadores p SET
+    suma_calificaciones = (
+        SELECT COALESCE(SUM(c.calificacion), 0)
+        FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+        WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO'),
+    total_calificaciones = (
+        SELECT COUNT(*)
+        FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+        WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO');
+
+UPDATE paseadores SET calificacion_promedio = CASE
+    WHEN total_calificaciones > 0 THEN suma_calificaciones * 1.0 / total_calificaciones
+    ELSE 0 END;
@@ -0,0 +1,7 @@
+-- Calificaciones ya sumadas a los agregados del paseador (ColaCalificaciones)
+-- Las existentes ya están incluidas en suma_calificaciones / total_calificaciones (V5)
+
+ALTER TABLE calificaciones ADD COLUMN agregada BIT NOT NULL DEFAULT TRUE;
+
+-- Calificaciones pendientes de sumar (se vuelven a encolar al arrancar)
+CREATE INDEX idx_calificaciones_agregada ON calificaciones (agregada, id);
@@ -0,0 +1,47 @@
+-- Histograma de estrellas y promedios de los últimos 30/90 días por paseador
+-- Se mantienen al sumar cada lote de calificaciones (ColaCalificaciones); leerlos es O(1)
+
+ALTER TABLE paseadores ADD COLUMN estrellas_1 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN estrellas_2 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN estrellas_3 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN estrellas_4 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN estrellas_5 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN suma_30_dias BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN total_30_dias INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN suma_90_dias BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE paseadores ADD COLUMN total_90_dias INTEGER NOT NULL DEFAULT 0;
+
+-- Suma y cantidad de calificaciones por paseador y día (solo los últimos 90 días)
+-- Al cambiar de día, las ventanas se recalculan desde aquí y no desde calificaciones
+CREATE TABLE calificaciones_diarias (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    paseador_id BIGINT NOT NULL,
+    dia DATE NOT NULL,
+    suma BIGINT NOT NULL,
+    cantidad INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_calificaciones_diarias_paseador_dia UNIQUE (paseador_id, dia),
+    CONSTRAINT fk_calificaciones_diarias_paseador FOREIGN KEY (paseador_id) REFERENCES paseadores (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_calificaciones_diarias_dia ON calificaciones_diarias (dia);
+
+-- Cargar desde las calificaciones ya agregadas
+-- (los días de más de 90 días atrás y las ventanas los ajusta VentanasCalificaciones al arrancar)
+UPDATE paseadores p SET
+    estrellas_1 = (SELECT COUNT(*) FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+                   WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO' AND c.agregada = TRUE AND c.calificacion = 1),
+    estrellas_2 = (SELECT COUNT(*) FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+                   WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO' AND c.agregada = TRUE AND c.calificacion = 2),
+    estrellas_3 = (SELECT COUNT(*) FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+                   WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO' AND c.agregada = TRUE AND c.calificacion = 3),
+    estrellas_4 = (SELECT COUNT(*) FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+                   WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO' AND c.agregada = TRUE AND c.calificacion = 4),
+    estrellas_5 = (SELECT COUNT(*) FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+                   WHERE pa.paseador_id = p.id AND c.tipo = 'PASEO' AND c.agregada = TRUE AND c.calificacion = 5);
+
+INSERT INTO calificaciones_diarias (paseador_id, dia, suma, cantidad)
+SELECT pa.paseador_id, CAST(c.fecha_calificacion AS DATE), SUM(c.calificacion), COUNT(*)
+FROM calificaciones c JOIN paseos pa ON pa.id = c.paseo_id
+WHERE c.tipo = 'PASEO' AND c.agregada = TRUE AND pa.paseador_id IS NOT NULL AND c.fecha_calificacion IS NOT NULL
+GROUP BY pa.paseador_id, CAST(c.fecha_calificacion AS DATE);
@@ -0,0 +1,13 @@
+-- Mensajes no leídos de cada participante, guardados en el chat
+-- Se mantienen al enviar y al marcar como leídos (ChatServiceImpl); la lista de chats con
+-- no leídos de un usuario es una sola consulta sobre chats, sin COUNT por conversación
+
+ALTER TABLE chats ADD COLUMN no_leidos_usuario1 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE chats ADD COLUMN no_leidos_usuario2 INTEGER NOT NULL DEFAULT 0;
+
+-- Cargar desde los mensajes existentes (los no leídos de cada participante los envió el otro)
+UPDATE chats c SET
+    no_leidos_usuario1 = (SELECT COUNT(*) FROM mensajes m
+                          WHERE m.chat_id = c.id AND m.leido = FALSE AND m.usuario_id = c.usuario2_id),
+    no_leidos_usuario2 = (SELECT COUNT(*) FROM mensajes m
+                          WHERE m.chat_id = c.id AND m.leido = FALSE AND m.usuario_id = c.usuario1_id);
@@ -0,0 +1,18 @@
+-- Último mensaje y última actividad de cada chat (bandeja de entrada)
+-- Se actualizan al enviar cada mensaje (ChatServiceImpl); la bandeja de un usuario recorre
+-- los índices por (participante, ultima_actividad, id) sin leer mensajes de más
+
+ALTER TABLE chats ADD COLUMN ultimo_mensaje_id BIGINT NULL;
+ALTER TABLE chats ADD COLUMN ultima_actividad DATETIME(6) NULL;
+
+UPDATE chats c SET ultimo_mensaje_id = (
+    SELECT m.id FROM mensajes m WHERE m.chat_id = c.id ORDER BY m.fecha_envio DESC, m.id DESC LIMIT 1);
+UPDATE chats c SET ultima_actividad = COALESCE(
+    (SELECT m.fecha_envio FROM mensajes m WHERE m.id = c.ultimo_mensaje_id), c.fecha_creacion, CURRENT_TIMESTAMP(6));
+
+ALTER TABLE chats MODIFY COLUMN ultima_actividad DATETIME(6) NOT NULL;
+ALTER TABLE chats ADD CONSTRAINT fk_chats_ultimo_mensaje FOREIGN KEY (ultimo_mensaje_id) REFERENCES mensajes (id);
+
+-- Bandeja por participante (idx_chats_usuario2 se queda: respalda la clave foránea)
+CREATE INDEX idx_chats_usuario1_actividad ON chats (usuario1_id, ultima_actividad, id);
+CREATE INDEX idx_chats_usuario2_actividad ON chats (usuario2_id, ultima_actividad, id);
@@ -0,0 +1,132 @@
+package Petfy.Petfy_Back.config;
+
+import Petfy.Petfy_Back.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica CredencialesCache (TTL, LRU, contraseña incorrecta, invalidación por generación)
+ * y que CachedAuthenticationProvider no cachee un usuario invalidado mientras se cargaba
+ */
+class CredencialesCacheTest {
+
+    private static final String EMAIL = "cliente@petfy.com";
+    private static final String PASSWORD = "secreto";
+
+    @Test
+    void entradaVencidaNoSeDevuelve() {
+        CredencialesCache cache = new CredencialesCache(10, 0);
+        assertTrue(cache.guardar(EMAIL, PASSWORD, usuario(1L, Usuario.RolUsuario.CUSTOMER), cache.generacion(EMAIL)));
+
+        assertNull(cache.obtener(EMAIL, PASSWORD));
+        assertEquals(1, cache.getDesalojos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(0, cache.getTamanio());
+    }
+
+    @Test
+    void desalojaLaMenosUsada() {
+        CredencialesCache cache = new CredencialesCache(2, 300);
+        UsuarioAutenticado a = usuario(1L, Usuario.RolUsuario.CUSTOMER);
+        UsuarioAutenticado c = usuario(3L, Usuario.RolUsuario.CUSTOMER);
+        cache.guardar("a@petfy.com", PASSWORD, a, 0);
+        cache.guardar("b@petfy.com", PASSWORD, usuario(2L, Usuario.RolUsuario.CUSTOMER), 0);
+
+        // "a" pasa a ser la más reciente: al llenarse se descarta "b"
+        assertSame(a, cache.obtener("a@petfy.com", PASSWORD));
+        cache.guardar("c@petfy.com", PASSWORD, c, 0);
+
+        assertEquals(2, cache.getTamanio());
+        assertEquals(1, cache.getDesalojos());
+        assertNull(cache.obtener("b@petfy.com", PASSWORD));
+        assertSame(a, cache.obtener("a@petfy.com", PASSWORD));
+        assertSame(c, cache.obtener("c@petfy.com", PASSWORD));
+    }
+
+    @Test
+    void contraseniaIncorrectaNoAcierta() {
+        CredencialesCache cache = new CredencialesCache(10, 300);
+        UsuarioAutenticado usuario = usuario(1L, Usuario.RolUsuario.CUSTOMER);
+        cache.guardar(EMAIL, PASSWORD, usuario, 0);
+
+        assertNull(cache.obtener(EMAIL, "otra"));
+        assertEquals(1, cache.getFallos());
+        assertSame(usuario, cache.obtener(EMAIL, PASSWORD));
+        assertEquals(1, cache.getAciertos());
+    }
+
+    @Test
+    void invalidarDescartaLaEntradaYLasCargasAnteriores() {
+        CredencialesCache cache = new CredencialesCache(10, 300);
+        cache.guardar(EMAIL, PASSWORD, usuario(1L, Usuario.RolUsuario.CUSTOMER), cache.generacion(EMAIL));
+        cache.invalidar(EMAIL);
+        assertNull(cache.obtener(EMAIL, PASSWORD));
+
+        // Una carga que empezó antes de invalidar no se guarda; una posterior sí
+        long leida = cache.generacion(EMAIL);
+        cache.invalidar(EMAIL);
+        assertFalse(cache.guardar(EMAIL, PASSWORD, usuario(1L, Usuario.RolUsuario.CUSTOMER), leida));
+        assertNull(cache.obtener(EMAIL, PASSWORD));
+        assertTrue(cache.guardar(EMAIL, PASSWORD, usuario(1L, Usuario.RolUsuario.WALKER), cache.generacion(EMAIL)));
+        assertEquals(Usuario.RolUsuario.WALKER, cache.obtener(EMAIL, PASSWORD).getRol());
+    }
+
+    @Test
+    void proveedorUsaElCacheYNoGuardaDatosInvalidadosDuranteLaCarga() {
+        CredencialesCache cache = new CredencialesCache(10, 300);
+        AtomicInteger cargas = new AtomicInteger();
+        AtomicInteger invalidarEnCarga = new AtomicInteger();
+        AuthenticationProvider delegado = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                cargas.incrementAndGet();
+                if (!PASSWORD.equals(authentication.getCredentials())) {
+                    throw new BadCredentialsException("Credenciales inválidas");
+                }
+                // Leído antes del cambio de rol, que se confirma antes de volver
+                UsuarioAutenticado cargado = usuario(1L, Usuario.RolUsuario.CUSTOMER);
+                if (invalidarEnCarga.getAndDecrement() > 0) {
+                    cache.invalidar(EMAIL);
+                }
+                return UsernamePasswordAuthenticationToken.authenticated(cargado, null, cargado.getAuthorities());
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return true;
+            }
+        };
+        CachedAuthenticationProvider proveedor = new CachedAuthenticationProvider(delegado, cache);
+
+        invalidarEnCarga.set(1);
+        proveedor.authenticate(basic(PASSWORD));
+        assertEquals(0, cache.getTamanio(), "Invalidado durante la carga: no se cachea");
+
+        proveedor.authenticate(basic(PASSWORD));
+        proveedor.authenticate(basic(PASSWORD));
+        assertEquals(2, cargas.get(), "El tercer intento acierta en el cache");
+
+        assertThrows(BadCredentialsException.class, () -> proveedor.authenticate(basic("otra")));
+        assertEquals(3, cargas.get(), "Una contraseña incorrecta siempre pasa por el proveedor real");
+    }
+
+    private static Authentication basic(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, password);
+    }
+
+    private static UsuarioAutenticado usuario(Long id, Usuario.RolUsuario rol) {
+        return new UsuarioAutenticado(id, null, rol, EMAIL, null);
+    }
+}
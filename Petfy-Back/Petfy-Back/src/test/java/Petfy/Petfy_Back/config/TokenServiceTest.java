@@ -0,0 +1,133 @@
+package Petfy.Petfy_Back.config;
+
+import Petfy.Petfy_Back.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifica que TokenService.validar() rechace todo token que no haya emitido él mismo
+ * con ese tipo y que no haya vencido (es la única autenticación de cada petición)
+ */
+class TokenServiceTest {
+
+    private static final String SECRETO = "petfy-test-secret-no-usar-en-produccion";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TokenService tokenService = crear(SECRETO, 900);
+    private final Usuario usuario = usuario();
+
+    @Test
+    void tokenValidoDevuelveSusClaims() {
+        TokenService.TokenClaims claims = tokenService.validar(
+            tokenService.generarAccessToken(usuario), TokenService.TIPO_ACCESS);
+        assertNotNull(claims);
+        assertEquals("cliente@petfy.com", claims.getSub());
+        assertEquals(7L, claims.getUid());
+        assertEquals("CUSTOMER", claims.getRol());
+        assertNotNull(tokenService.validar(tokenService.generarRefreshToken(usuario), TokenService.TIPO_REFRESH));
+    }
+
+    @Test
+    void firmaAlteradaSeRechaza() {
+        String[] partes = tokenService.generarAccessToken(usuario).split("\\.");
+        byte[] firma = DECODER.decode(partes[2]);
+        firma[0] ^= 1;
+        assertNull(tokenService.validar(partes[0] + "." + partes[1] + "." + ENCODER.encodeToString(firma),
+            TokenService.TIPO_ACCESS));
+    }
+
+    @Test
+    void payloadAlteradoSeRechaza() throws Exception {
+        String[] partes = tokenService.generarAccessToken(usuario).split("\\.");
+        TokenService.TokenClaims claims = objectMapper.readValue(DECODER.decode(partes[1]), TokenService.TokenClaims.class);
+        claims.setRol("ADMIN");
+        String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+        assertNull(tokenService.validar(partes[0] + "." + payload + "." + partes[2], TokenService.TIPO_ACCESS));
+    }
+
+    @Test
+    void cabeceraDistintaSeRechaza() {
+        String[] partes = tokenService.generarAccessToken(usuario).split("\\.");
+        String cabecera = ENCODER.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String contenido = cabecera + "." + partes[1];
+        // Aun firmada con la clave correcta, solo se acepta la cabecera HS256 fija
+        assertNull(tokenService.validar(contenido + "." + firmar(contenido, SECRETO), TokenService.TIPO_ACCESS));
+    }
+
+    @Test
+    void tipoIntercambiadoSeRechaza() {
+        assertNull(tokenService.validar(tokenService.generarRefreshToken(usuario), TokenService.TIPO_ACCESS));
+        assertNull(tokenService.validar(tokenService.generarAccessToken(usuario), TokenService.TIPO_REFRESH));
+    }
+
+    @Test
+    void tokenVencidoSeRechaza() {
+        TokenService vencidos = crear(SECRETO, -1);
+        String token = vencidos.generarAccessToken(usuario);
+        assertNull(vencidos.validar(token, TokenService.TIPO_ACCESS));
+        assertNull(tokenService.validar(token, TokenService.TIPO_ACCESS));
+    }
+
+    @Test
+    void tokenMalFormadoSeRechaza() {
+        String[] partes = tokenService.generarAccessToken(usuario).split("\\.");
+        assertNull(tokenService.validar(null, TokenService.TIPO_ACCESS));
+        assertNull(tokenService.validar("", TokenService.TIPO_ACCESS));
+        assertNull(tokenService.validar("sin-puntos", TokenService.TIPO_ACCESS));
+        assertNull(tokenService.validar(partes[0] + "." + partes[1], TokenService.TIPO_ACCESS));
+        // Base64 inválido en la firma y en el payload
+        assertNull(tokenService.validar(partes[0] + "." + partes[1] + ".%%%", TokenService.TIPO_ACCESS));
+        String payloadInvalido = partes[0] + ".%%%";
+        assertNull(tokenService.validar(payloadInvalido + "." + firmar(payloadInvalido, SECRETO), TokenService.TIPO_ACCESS));
+        // JSON inválido, correctamente firmado
+        String jsonInvalido = partes[0] + "." + ENCODER.encodeToString("{no es json".getBytes(StandardCharsets.UTF_8));
+        assertNull(tokenService.validar(jsonInvalido + "." + firmar(jsonInvalido, SECRETO), TokenService.TIPO_ACCESS));
+    }
+
+    @Test
+    void tokenDeOtroSecretoSeRechaza() {
+        TokenService otro = crear("otro-secreto", 900);
+        assertNull(tokenService.validar(otro.generarAccessToken(usuario), TokenService.TIPO_ACCESS));
+        assertNull(otro.validar(tokenService.generarAccessToken(usuario), TokenService.TIPO_ACCESS));
+    }
+
+    private TokenService crear(String secreto, long accessTtlSeconds) {
+        TokenService servicio = new TokenService();
+        ReflectionTestUtils.setField(servicio, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(servicio, "secret", secreto);
+        ReflectionTestUtils.setField(servicio, "accessTtlSeconds", accessTtlSeconds);
+        ReflectionTestUtils.setField(servicio, "refreshTtlSeconds", 604800L);
+        servicio.init();
+        return servicio;
+    }
+
+    private static String firmar(String contenido, String secreto) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return ENCODER.encodeToString(mac.doFinal(contenido.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Usuario usuario() {
+        Usuario usuario = new Usuario();
+        usuario.setId(7L);
+        usuario.setEmail("cliente@petfy.com");
+        usuario.setRol(Usuario.RolUsuario.CUSTOMER);
+        return usuario;
+    }
+}
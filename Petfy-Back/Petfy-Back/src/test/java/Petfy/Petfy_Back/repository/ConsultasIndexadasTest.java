@@ -0,0 +1,171 @@
+package Petfy.Petfy_Back.repository;
+
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Solicitud;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN (H2 en modo MySQL) que las consultas de los caminos
+ * calientes usen un índice y no un recorrido completo de la tabla
+ */
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "Petfy.Petfy_Back.repository.ConsultasIndexadasTest$CapturadorSql")
+@Transactional
+class ConsultasIndexadasTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 1);
+    private static final LocalTime HORA = LocalTime.of(10, 0);
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+
+    @Autowired
+    private MensajeRepository mensajeRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TrabajoMiniaturaRepository trabajoMiniaturaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limpiarCaptura() {
+        entityManager.clear();
+        CapturadorSql.SENTENCIAS.clear();
+    }
+
+    @Test
+    void consultasDePaseosUsanIndices() {
+        assertUsaIndices(() -> paseoRepository.findByClienteIdAndEstado(1L, Paseo.EstadoPaseo.PENDIENTE));
+        assertUsaIndices(() -> paseoRepository.findByPaseadorUsuarioIdAndEstado(1L, Paseo.EstadoPaseo.CONFIRMADO));
+        assertUsaIndices(() -> paseoRepository.findPaseosPorRangoFecha(1L, FECHA, FECHA.plusDays(30)));
+        assertUsaIndices(() -> paseoRepository.findPaseosFinalizadosPorCliente(1L));
+        assertUsaIndices(() -> paseoRepository.findResponsesByClienteIdAndEstado(1L, Paseo.EstadoPaseo.PENDIENTE));
+        assertUsaIndices(() -> paseoRepository.findResponsesByPaseadorId(1L));
+        assertUsaIndices(() -> paseoRepository.findResponsesPorRangoFecha(1L, FECHA, FECHA.plusDays(30)));
+        assertUsaIndices(() -> paseoRepository.findPaginaByClienteId(1L, FECHA, HORA, 1L, Limit.of(20)));
+        assertUsaIndices(() -> paseoRepository.findPaginaByEstado(
+            Paseo.EstadoPaseo.PENDIENTE, FECHA, HORA, 1L, Limit.of(20)));
+        assertUsaIndices(() -> paseoRepository.findPaginaByPaseadorIdAndEstado(
+            1L, Paseo.EstadoPaseo.CONFIRMADO, FECHA, HORA, 1L, Limit.of(20)));
+        assertUsaIndices(() -> paseoRepository.findPaginaFinalizadosPorCliente(1L, FECHA, HORA, 1L, Limit.of(20)));
+    }
+
+    @Test
+    void consultasDeCalificacionesUsanIndices() {
+        assertUsaIndices(() -> calificacionRepository.findByPaseoId(1L));
+        assertUsaIndices(() -> calificacionRepository.findByUsuarioId(1L));
+        assertUsaIndices(() -> calificacionRepository.calcularPromedioCalificacionesPaseador(1L));
+        assertUsaIndices(() -> calificacionRepository.findCalificacionesPorPaseador(1L));
+    }
+
+    @Test
+    void consultasDeChatsYMensajesUsanIndices() {
+        assertUsaIndices(() -> mensajeRepository.findUltimos(1L, Limit.of(50)));
+        assertUsaIndices(() -> mensajeRepository.findAnteriores(1L, FECHA.atTime(HORA), 1L, Limit.of(50)));
+        assertUsaIndices(() -> mensajeRepository.findPosteriores(1L, FECHA.atTime(HORA), 1L, Limit.of(50)));
+        assertUsaIndices(() -> mensajeRepository.findByChatIdAndLeidoFalse(1L));
+        assertUsaIndices(() -> mensajeRepository.countByChatIdAndLeidoFalse(1L));
+        assertUsaIndices(() -> chatRepository.findPar(1L, 2L, 2L));
+        assertUsaIndices(() -> chatRepository.findByUsuario1Id(1L));
+        assertUsaIndices(() -> chatRepository.findByUsuario2Id(1L));
+        assertUsaIndices(() -> chatRepository.findNoLeidos(1L));
+        assertUsaIndices(() -> chatRepository.findBandejaComoUsuario1(1L, FECHA.atTime(HORA), 1L, Limit.of(20)));
+        assertUsaIndices(() -> chatRepository.findBandejaComoUsuario2(1L, FECHA.atTime(HORA), 1L, Limit.of(20)));
+    }
+
+    @Test
+    void consultasDeUsuariosPaseadoresYSolicitudesUsanIndices() {
+        assertUsaIndices(() -> usuarioRepository.findByEmail("cliente@petfy.com"));
+        assertUsaIndices(() -> usuarioRepository.existsByUsername("cliente"));
+        assertUsaIndices(() -> paseadorRepository.findByUsuarioId(1L));
+        assertUsaIndices(() -> paseadorRepository.findAprobadosPorCalificacion());
+        assertUsaIndices(() -> solicitudRepository.findByEstado(Solicitud.EstadoSolicitud.PENDIENTE));
+        assertUsaIndices(() -> solicitudRepository.existsByUsuarioIdAndEstado(1L, Solicitud.EstadoSolicitud.PENDIENTE));
+        assertUsaIndices(() -> solicitudRepository.findFirstByUsuarioIdOrderByFechaSolicitudDesc(1L));
+        assertUsaIndices(() -> solicitudRepository.findByAdminAprobadorId(1L));
+        assertUsaIndices(() -> solicitudRepository.findPendientesDespuesDe(FECHA.atTime(HORA), 1L, Limit.of(51)));
+        assertUsaIndices(() -> solicitudRepository.bloquearPendientes(List.of(1L, 2L)));
+        assertUsaIndices(() -> trabajoMiniaturaRepository.findIdsPendientes(Limit.of(4)));
+    }
+
+    /**
+     * Ejecuta la consulta del repositorio, captura el SQL generado por Hibernate
+     * y verifica que el plan de H2 no contenga un tableScan
+     */
+    private void assertUsaIndices(Runnable consulta) {
+        CapturadorSql.SENTENCIAS.clear();
+        consulta.run();
+        List<String> sentencias = new ArrayList<>(CapturadorSql.SENTENCIAS);
+        assertFalse(sentencias.isEmpty(), "La consulta no generó SQL");
+
+        for (String sql : sentencias) {
+            String plan = explicar(sql);
+            assertFalse(plan.contains("tableScan"), "Recorrido completo de tabla en:\n" + plan);
+            assertTrue(plan.contains("/*"), "Plan inesperado:\n" + plan);
+        }
+    }
+
+    private String explicar(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+            try (PreparedStatement statement = conexion.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultado = statement.executeQuery()) {
+                resultado.next();
+                return resultado.getString(1);
+            }
+        });
+    }
+
+    /**
+     * Registra el SQL que Hibernate envía a la base de datos
+     */
+    public static class CapturadorSql implements StatementInspector {
+
+        static final List<String> SENTENCIAS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
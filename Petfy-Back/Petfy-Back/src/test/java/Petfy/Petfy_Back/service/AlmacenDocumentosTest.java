@@ -0,0 +1,60 @@
+package Petfy.Petfy_Back.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que los documentos se guarden por su SHA-256 y que el mismo contenido se guarde una sola vez
+ */
+@SpringBootTest
+class AlmacenDocumentosTest {
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Test
+    void mismoContenidoSeGuardaUnaVez() throws Exception {
+        // Contenido único por ejecución: target/test-uploads se conserva entre ejecuciones
+        byte[] contenido = ("documento " + UUID.randomUUID()).repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+
+        AlmacenDocumentos.DocumentoGuardado primero = almacenDocumentos.guardar(
+            new MockMultipartFile("documentImage", "DNI frente.JPG", "image/jpeg", contenido));
+        assertEquals(hash, primero.hash());
+        assertEquals(contenido.length, primero.tamanio());
+        assertFalse(primero.duplicado());
+        assertTrue(primero.ruta().endsWith(hash.substring(0, 2) + "/" + hash + ".jpg"));
+        assertArrayEquals(contenido, Files.readAllBytes(Path.of(primero.ruta())));
+
+        AlmacenDocumentos.DocumentoGuardado segundo = almacenDocumentos.guardar(
+            new MockMultipartFile("documentImage", "otro-nombre.jpg", "image/jpeg", contenido));
+        assertTrue(segundo.duplicado());
+        assertEquals(primero.ruta(), segundo.ruta());
+
+        // Una extensión sospechosa no llega al nombre del archivo
+        AlmacenDocumentos.DocumentoGuardado sinExtension = almacenDocumentos.guardar(
+            new MockMultipartFile("documentImage", "x.j/../pg", "image/jpeg", contenido));
+        assertNotEquals(primero.ruta(), sinExtension.ruta());
+        assertTrue(sinExtension.ruta().endsWith("/" + hash));
+
+        // No quedan temporales
+        try (var temporales = Files.list(Path.of(primero.ruta()).getParent().resolveSibling(".tmp"))) {
+            assertEquals(0, temporales.count());
+        }
+    }
+}
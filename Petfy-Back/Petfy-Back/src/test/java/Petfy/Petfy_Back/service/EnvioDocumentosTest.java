@@ -0,0 +1,96 @@
+package Petfy.Petfy_Back.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la descarga de documentos: ETag por hash, 304 con If-None-Match, rangos e If-Range
+ *
+ * MockHttpServletRequest no anuncia sendfile: el envío va por FileChannel.transferTo()
+ */
+@SpringBootTest
+class EnvioDocumentosTest {
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Autowired
+    private EnvioDocumentos envioDocumentos;
+
+    private byte[] contenido;
+    private AlmacenDocumentos.DocumentoAlmacenado documento;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        contenido = ("documento " + UUID.randomUUID()).repeat(1_000).getBytes(StandardCharsets.UTF_8);
+        AlmacenDocumentos.DocumentoGuardado guardado = almacenDocumentos.guardar(
+            new MockMultipartFile("documentImage", "dni.png", "image/png", contenido));
+        documento = almacenDocumentos.leer(guardado.ruta()).orElseThrow();
+        assertEquals("\"" + guardado.hash() + "\"", documento.etag());
+    }
+
+    @Test
+    void enviaElArchivoCompletoYRespondeNoModificado() throws Exception {
+        MockHttpServletResponse completo = enviar(new MockHttpServletRequest("GET", "/"));
+        assertEquals(200, completo.getStatus());
+        assertEquals("image/png", completo.getContentType());
+        assertEquals(documento.etag(), completo.getHeader(HttpHeaders.ETAG));
+        assertTrue(completo.getHeader(HttpHeaders.CACHE_CONTROL).contains("max-age="));
+        assertArrayEquals(contenido, completo.getContentAsByteArray());
+
+        MockHttpServletRequest condicional = new MockHttpServletRequest("GET", "/");
+        condicional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"otro\", W/" + documento.etag());
+        MockHttpServletResponse noModificado = enviar(condicional);
+        assertEquals(304, noModificado.getStatus());
+        assertEquals(0, noModificado.getContentAsByteArray().length);
+    }
+
+    @Test
+    void enviaUnRangoDelArchivo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, documento.etag());
+        MockHttpServletResponse parcial = enviar(request);
+        assertEquals(206, parcial.getStatus());
+        assertEquals("bytes 10-19/" + contenido.length, parcial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(contenido, 10, 20), parcial.getContentAsByteArray());
+
+        // Con otro ETag en If-Range se envía el archivo completo
+        MockHttpServletRequest cambiado = new MockHttpServletRequest("GET", "/");
+        cambiado.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        cambiado.addHeader(HttpHeaders.IF_RANGE, "\"otro\"");
+        assertEquals(contenido.length, enviar(cambiado).getContentAsByteArray().length);
+
+        MockHttpServletRequest fuera = new MockHttpServletRequest("GET", "/");
+        fuera.addHeader(HttpHeaders.RANGE, "bytes=" + contenido.length + "-");
+        MockHttpServletResponse insatisfacible = enviar(fuera);
+        assertEquals(416, insatisfacible.getStatus());
+        assertEquals("bytes */" + contenido.length, insatisfacible.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void noLeeRutasFueraDelDirectorioDeSubidas() {
+        assertTrue(almacenDocumentos.leer("/etc/hostname").isEmpty());
+        assertTrue(almacenDocumentos.leer(documento.archivo() + "/../../../../pom.xml").isEmpty());
+    }
+
+    private MockHttpServletResponse enviar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        envioDocumentos.enviar(documento, request, response);
+        return response;
+    }
+}
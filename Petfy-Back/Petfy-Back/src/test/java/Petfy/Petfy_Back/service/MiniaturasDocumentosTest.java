@@ -0,0 +1,139 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.TrabajoMiniatura;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.TrabajoMiniaturaRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la generación de miniaturas: JPEG reducido junto al documento, ruta en el paseador
+ * y trabajos en ERROR para documentos que no son imágenes
+ *
+ * La búsqueda programada se desactiva: la prueba toma y procesa los trabajos en su transacción
+ */
+@SpringBootTest(properties = "miniaturas.intervalo-ms=3600000")
+@Transactional
+class MiniaturasDocumentosTest {
+
+    @Autowired
+    private MiniaturasDocumentos miniaturasDocumentos;
+
+    @Autowired
+    private AlmacenDocumentos almacenDocumentos;
+
+    @Autowired
+    private TrabajoMiniaturaRepository trabajoMiniaturaRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void generaLaMiniaturaJuntoAlDocumento() throws Exception {
+        String ruta = almacenDocumentos.guardar(new MockMultipartFile(
+            "documentImage", "dni.png", "image/png", imagenPng(2400, 1200))).ruta();
+        Paseador paseador = crearPaseador("miniatura_paseador", ruta);
+
+        Long trabajoId = programarYTomar(paseador, ruta);
+        miniaturasDocumentos.procesar(trabajoId);
+        entityManager.clear();
+
+        String rutaMiniatura = paseadorRepository.findRutaMiniaturaById(paseador.getId()).orElseThrow();
+        assertEquals(MiniaturasDocumentos.rutaMiniatura(ruta), rutaMiniatura);
+        assertTrue(rutaMiniatura.endsWith(MiniaturasDocumentos.SUFIJO_MINIATURA));
+        BufferedImage miniatura = ImageIO.read(Path.of(rutaMiniatura).toFile());
+        assertEquals(320, miniatura.getWidth());
+        assertEquals(160, miniatura.getHeight());
+        assertTrue(Files.size(Path.of(rutaMiniatura)) < Files.size(Path.of(ruta)));
+        assertEquals(TrabajoMiniatura.EstadoTrabajo.LISTO, trabajoMiniaturaRepository.findById(trabajoId).orElseThrow().getEstado());
+
+        // La miniatura se sirve con su propio ETag, distinto del documento
+        assertTrue(almacenDocumentos.leer(rutaMiniatura).orElseThrow().etag().endsWith("-miniatura\""));
+    }
+
+    @Test
+    void unDocumentoQueNoEsImagenQuedaEnError() throws Exception {
+        byte[] pdf = ("%PDF-1.4 " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String ruta = almacenDocumentos.guardar(new MockMultipartFile(
+            "documentImage", "dni.pdf", "application/pdf", pdf)).ruta();
+        Paseador paseador = crearPaseador("miniatura_pdf", ruta);
+
+        Long trabajoId = programarYTomar(paseador, ruta);
+        miniaturasDocumentos.procesar(trabajoId);
+        entityManager.clear();
+
+        TrabajoMiniatura trabajo = trabajoMiniaturaRepository.findById(trabajoId).orElseThrow();
+        assertEquals(TrabajoMiniatura.EstadoTrabajo.ERROR, trabajo.getEstado());
+        assertEquals("El documento no es una imagen", trabajo.getError());
+        assertNull(paseadorRepository.findById(paseador.getId()).orElseThrow().getRutaMiniatura());
+    }
+
+    private Long programarYTomar(Paseador paseador, String ruta) {
+        miniaturasDocumentos.programar(paseador.getId(), ruta);
+        entityManager.flush();
+        List<Long> pendientes = trabajoMiniaturaRepository.findIdsPendientes(Limit.of(100));
+        Long trabajoId = pendientes.get(pendientes.size() - 1);
+        assertEquals(1, trabajoMiniaturaRepository.tomar(trabajoId, LocalDateTime.now()));
+        return trabajoId;
+    }
+
+    private Paseador crearPaseador(String username, String rutaDocumento) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setEmail(username + "@petfy.com");
+        usuario.setPassword("password");
+        Paseador paseador = new Paseador();
+        paseador.setUsuario(usuarioRepository.save(usuario));
+        paseador.setTelefono("1234567890");
+        paseador.setDescripcion("Paseador de prueba");
+        paseador.setRutaDocumento(rutaDocumento);
+        return paseadorRepository.save(paseador);
+    }
+
+    // Imagen con ruido para que el PNG pese más que la miniatura (contenido distinto en cada ejecución)
+    private static byte[] imagenPng(int ancho, int alto) throws Exception {
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = imagen.createGraphics();
+        grafico.setColor(new Color(UUID.randomUUID().hashCode()));
+        grafico.fillRect(0, 0, ancho, alto);
+        grafico.dispose();
+        Random azar = new Random();
+        for (int i = 0; i < 20_000; i++) {
+            imagen.setRGB(azar.nextInt(ancho), azar.nextInt(alto), azar.nextInt());
+        }
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ImageIO.write(imagen, "png", salida);
+        return salida.toByteArray();
+    }
+}
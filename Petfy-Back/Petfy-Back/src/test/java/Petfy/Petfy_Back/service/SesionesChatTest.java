@@ -0,0 +1,108 @@
+package Petfy.Petfy_Back.service;
+
+import Petfy.Petfy_Back.dto.response.ChatEventoResponse;
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica la entrega de eventos de chat a las conexiones WebSocket y la desconexión
+ * de los clientes que no leen (cola acotada por conexión)
+ */
+@SpringBootTest(properties = "chats.ws.buffer-mensajes=2")
+class SesionesChatTest {
+
+    private static final Long USUARIO = -101L;
+    private static final Long OTRO_USUARIO = -102L;
+
+    @Autowired
+    private SesionesChat sesionesChat;
+
+    @Autowired
+    private BrokerChats brokerChats;
+
+    private final List<WebSocketSession> abiertas = new ArrayList<>();
+    private final CountDownLatch liberarEnvios = new CountDownLatch(1);
+
+    @AfterEach
+    void cerrarSesiones() {
+        liberarEnvios.countDown();
+        abiertas.forEach(sesionesChat::quitar);
+    }
+
+    @Test
+    void entregaElEventoSoloALosDestinatarios() throws Exception {
+        List<WebSocketMessage<?>> recibidos = new ArrayList<>();
+        WebSocketSession destinatario = sesion("ws-destinatario", USUARIO);
+        doAnswer(invocacion -> recibidos.add(invocacion.getArgument(0))).when(destinatario).sendMessage(any());
+        WebSocketSession ajena = sesion("ws-ajena", OTRO_USUARIO);
+
+        publicar(USUARIO, 1L);
+
+        verify(destinatario, timeout(2000)).sendMessage(any(TextMessage.class));
+        String json = ((TextMessage) recibidos.get(0)).getPayload();
+        assertTrue(json.contains("\"tipo\":\"mensaje\""));
+        assertTrue(json.contains("\"content\":\"m1\""));
+        verify(ajena, never()).sendMessage(any());
+    }
+
+    @Test
+    void desconectaAlClienteQueNoLee() throws Exception {
+        WebSocketSession lenta = sesion("ws-lenta", USUARIO);
+        CountDownLatch enviando = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            enviando.countDown();
+            liberarEnvios.await();
+            return null;
+        }).when(lenta).sendMessage(any());
+        int conexiones = sesionesChat.getConexiones();
+        long lentas = sesionesChat.getDesconectadasLentas();
+
+        // El primero queda bloqueado en el envío; dos más llenan la cola y el cuarto no entra
+        publicar(USUARIO, 1L);
+        assertTrue(enviando.await(2, TimeUnit.SECONDS));
+        publicar(USUARIO, 2L);
+        publicar(USUARIO, 3L);
+        publicar(USUARIO, 4L);
+
+        verify(lenta, timeout(2000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(conexiones - 1, sesionesChat.getConexiones());
+        assertEquals(lentas + 1, sesionesChat.getDesconectadasLentas());
+    }
+
+    private void publicar(Long usuarioId, Long mensajeId) {
+        MensajeResponse mensaje = new MensajeResponse(mensajeId, -1L, OTRO_USUARIO, "m" + mensajeId, LocalDateTime.now(), false);
+        brokerChats.publicarAlConfirmar(new BrokerChats.Publicacion(List.of(usuarioId), ChatEventoResponse.mensaje(mensaje)));
+    }
+
+    private WebSocketSession sesion(String id, Long usuarioId) {
+        WebSocketSession sesion = mock(WebSocketSession.class);
+        when(sesion.getId()).thenReturn(id);
+        when(sesion.isOpen()).thenReturn(true);
+        sesionesChat.registrar(sesion, usuarioId);
+        abiertas.add(sesion);
+        return sesion;
+    }
+}
@@ -0,0 +1,234 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.dto.response.PaseoResponse;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.PaseoService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que cuando muchos paseadores aceptan el mismo paseo "Aleatorio" a la vez
+ * haya exactamente un ganador, y compara el UPDATE condicional de aceptarPaseo
+ * con la alternativa de bloqueo pesimista (SELECT ... FOR UPDATE)
+ *
+ * Sin @Transactional: cada aceptación tiene que confirmarse en su propia transacción
+ */
+@SpringBootTest
+class AceptarPaseoConcurrenciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AceptarPaseoConcurrenciaTest.class);
+
+    private static final int PASEADORES = 200;
+    private static final int HILOS = 32;
+    private static final int RONDAS = 5;
+
+    @Autowired
+    private PaseoService paseoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Paseador> paseadores = new ArrayList<>();
+    private final List<Paseo> paseos = new ArrayList<>();
+    private Usuario cliente;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(HILOS);
+        cliente = crearUsuario(usuarioRepository, "conc_cliente");
+        for (int i = 0; i < PASEADORES; i++) {
+            Paseador paseador = new Paseador();
+            paseador.setUsuario(crearUsuario(usuarioRepository, "conc_paseador" + i));
+            paseador.setTelefono("1234567890");
+            paseador.setDescripcion("Paseador de prueba");
+            paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.APROBADO);
+            paseadores.add(paseadorRepository.save(paseador));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        paseoRepository.deleteAllByIdInBatch(paseos.stream().map(Paseo::getId).toList());
+        paseadorRepository.deleteAllByIdInBatch(paseadores.stream().map(Paseador::getId).toList());
+        List<Long> usuarioIds = new ArrayList<>(List.of(cliente.getId()));
+        paseadores.forEach(paseador -> usuarioIds.add(paseador.getUsuario().getId()));
+        usuarioRepository.deleteAllByIdInBatch(usuarioIds);
+    }
+
+    @Test
+    void aceptarPaseoEnParaleloTieneUnSoloGanador() throws Exception {
+        Paseo paseo = crearPaseoAleatorio();
+
+        List<Boolean> resultados = aceptarEnParalelo(paseo.getId(), (paseoId, paseadorId) -> {
+            ApiResponse<PaseoResponse> response = paseoService.aceptarPaseo(paseoId, paseadorId);
+            return response.isSuccess();
+        });
+
+        assertEquals(1, resultados.stream().filter(Boolean::booleanValue).count(), "Aceptaciones exitosas");
+
+        Paseo aceptado = paseoRepository.findById(paseo.getId()).orElseThrow();
+        assertEquals(Paseo.EstadoPaseo.CONFIRMADO, aceptado.getEstado());
+        assertEquals(1L, aceptado.getVersion());
+        assertTrue(paseadores.stream().anyMatch(p -> p.getId().equals(aceptado.getPaseadorId())));
+    }
+
+    @Test
+    void paseoAsignadoSoloLoAceptaSuPaseador() {
+        Paseo paseo = crearPaseoAleatorio();
+        paseo.setPaseador(paseadores.get(0));
+        paseoRepository.save(paseo);
+
+        ApiResponse<PaseoResponse> otro = paseoService.aceptarPaseo(paseo.getId(), paseadores.get(1).getId());
+        assertFalse(otro.isSuccess());
+        assertEquals("Este paseo está asignado a otro paseador", otro.getMessage());
+
+        assertTrue(paseoService.aceptarPaseo(paseo.getId(), paseadores.get(0).getId()).isSuccess());
+
+        ApiResponse<PaseoResponse> repetido = paseoService.aceptarPaseo(paseo.getId(), paseadores.get(0).getId());
+        assertFalse(repetido.isSuccess());
+        assertEquals("Esta solicitud ya fue aceptada o no está disponible", repetido.getMessage());
+    }
+
+    /**
+     * Compara el throughput del UPDATE condicional con SELECT ... FOR UPDATE
+     * Ambas estrategias deben dar un solo ganador; los tiempos solo se registran en el log
+     */
+    @Test
+    void comparacionConBloqueoPesimista() throws Exception {
+        BiFunction<Long, Long, Boolean> conUpdateCondicional =
+            (paseoId, paseadorId) -> paseoService.aceptarPaseo(paseoId, paseadorId).isSuccess();
+        BiFunction<Long, Long, Boolean> conBloqueoPesimista = this::aceptarConBloqueoPesimista;
+
+        // Calentamiento (JIT, pool de conexiones) para no penalizar a la primera estrategia medida
+        aceptarEnParalelo(crearPaseoAleatorio().getId(), conUpdateCondicional);
+        aceptarEnParalelo(crearPaseoAleatorio().getId(), conBloqueoPesimista);
+
+        long condicional = medir(() -> aceptarEnParalelo(crearPaseoAleatorio().getId(), conUpdateCondicional));
+        long pesimista = medir(() -> aceptarEnParalelo(crearPaseoAleatorio().getId(), conBloqueoPesimista));
+
+        log.info("Aceptar {} paseos con {} paseadores cada uno: UPDATE condicional {} ms ({} acept/s), "
+                + "bloqueo pesimista {} ms ({} acept/s)",
+            RONDAS, PASEADORES,
+            condicional, porSegundo(condicional),
+            pesimista, porSegundo(pesimista));
+    }
+
+    /**
+     * Variante con bloqueo pesimista: mismas verificaciones que aceptarPaseo,
+     * pero leyendo el paseo con SELECT ... FOR UPDATE y decidiendo en Java
+     */
+    private boolean aceptarConBloqueoPesimista(Long paseoId, Long paseadorId) {
+        return transactionTemplate.execute(status -> {
+            Paseador paseador = entityManager.find(Paseador.class, paseadorId);
+            if (paseador.getEstadoAprobacion() != Paseador.EstadoAprobacion.APROBADO) {
+                return false;
+            }
+
+            Paseo paseo = entityManager.find(Paseo.class, paseoId, LockModeType.PESSIMISTIC_WRITE);
+            if (paseo.getEstado() != Paseo.EstadoPaseo.PENDIENTE) {
+                return false;
+            }
+            if (paseo.getPaseador() != null && !paseo.getPaseador().getId().equals(paseadorId)) {
+                return false;
+            }
+
+            paseo.setPaseador(paseador);
+            paseo.setEstado(Paseo.EstadoPaseo.CONFIRMADO);
+            paseo.setFechaConfirmacion(LocalDateTime.now());
+            return true;
+        });
+    }
+
+    private long medir(Callable<List<Boolean>> ronda) throws Exception {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RONDAS; i++) {
+            List<Boolean> resultados = ronda.call();
+            assertEquals(1, resultados.stream().filter(Boolean::booleanValue).count(), "Aceptaciones exitosas");
+        }
+        return Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private long porSegundo(long milisegundos) {
+        return RONDAS * PASEADORES * 1000L / milisegundos;
+    }
+
+    /**
+     * Lanza una aceptación por paseador, todas liberadas a la vez
+     */
+    private List<Boolean> aceptarEnParalelo(Long paseoId, BiFunction<Long, Long, Boolean> aceptar) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> futuros = new ArrayList<>();
+        for (Paseador paseador : paseadores) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                return aceptar.apply(paseoId, paseador.getId());
+            }));
+        }
+        largada.countDown();
+
+        List<Boolean> resultados = new ArrayList<>();
+        for (Future<Boolean> futuro : futuros) {
+            resultados.add(futuro.get());
+        }
+        return resultados;
+    }
+
+    private Paseo crearPaseoAleatorio() {
+        Paseo paseo = new Paseo();
+        paseo.setCliente(cliente);
+        paseo.setFecha(LocalDate.of(2030, 1, 1));
+        paseo.setHoraInicio(LocalTime.of(10, 0));
+        paseo.setHoraFin(LocalTime.of(11, 0));
+        paseo.setDireccion("Calle 1");
+        paseo.setEstado(Paseo.EstadoPaseo.PENDIENTE);
+        paseo.setIsCompleted(false);
+        Paseo guardado = paseoRepository.save(paseo);
+        paseos.add(guardado);
+        return guardado;
+    }
+}
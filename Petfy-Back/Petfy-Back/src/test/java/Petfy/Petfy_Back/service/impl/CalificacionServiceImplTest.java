@@ -0,0 +1,201 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.CalificacionRequest;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.CalificacionService;
+import Petfy.Petfy_Back.service.ColaCalificaciones;
+import Petfy.Petfy_Back.service.ConciliacionCalificaciones;
+import Petfy.Petfy_Back.service.VentanasCalificaciones;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que las calificaciones de paseo se sumen al paseador por lotes (ColaCalificaciones),
+ * de forma incremental (promedio, histograma y ventanas de 30/90 días), y que la conciliación
+ * corrija agregados que no coinciden
+ *
+ * El vaciado programado se desactiva: la prueba vacía la cola a mano dentro de su transacción
+ */
+@SpringBootTest(properties = "calificaciones.cola.intervalo-ms=3600000")
+@Transactional
+class CalificacionServiceImplTest {
+
+    @Autowired
+    private CalificacionService calificacionService;
+
+    @Autowired
+    private ConciliacionCalificaciones conciliacionCalificaciones;
+
+    @Autowired
+    private ColaCalificaciones colaCalificaciones;
+
+    @Autowired
+    private VentanasCalificaciones ventanasCalificaciones;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private Paseador paseador;
+
+    @BeforeEach
+    void setUp() {
+        cliente = crearUsuario(usuarioRepository, "calif_cliente");
+        paseador = new Paseador();
+        paseador.setUsuario(crearUsuario(usuarioRepository, "calif_paseador"));
+        paseador.setTelefono("1234567890");
+        paseador.setDescripcion("Paseador de prueba");
+        paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.APROBADO);
+        paseador = paseadorRepository.save(paseador);
+    }
+
+    @Test
+    void calificarPaseoSumaAlPaseadorAlVaciarLaCola() {
+        calificar(5);
+        calificar(4);
+        calificar(2);
+
+        // La calificación se guarda sin tocar al paseador
+        assertEquals(0L, recargarPaseador().getSumaCalificaciones());
+
+        long actualizaciones = colaCalificaciones.getActualizacionesPaseador();
+        assertEquals(3, vaciarCola());
+        // Las tres calificaciones del mismo paseador se suman con un solo UPDATE
+        assertEquals(actualizaciones + 1, colaCalificaciones.getActualizacionesPaseador());
+        assertEquals(0, colaCalificaciones.getProfundidad());
+
+        // Un segundo vaciado con los mismos IDs no las vuelve a sumar
+        assertEquals(0, vaciarCola());
+
+        Paseador actualizado = recargarPaseador();
+        assertEquals(11L, actualizado.getSumaCalificaciones());
+        assertEquals(3, actualizado.getTotalCalificaciones());
+        assertEquals(11.0 / 3, actualizado.getCalificacionPromedio(), 1e-9);
+    }
+
+    @Test
+    void histogramaYVentanasSeMantienenAlVaciarLaCola() {
+        calificar(5);
+        calificar(5);
+        calificar(3);
+        // Una calificación de hace 40 días cuenta para los 90 días, no para los 30
+        Long vieja = calificar(1);
+        entityManager.createQuery("UPDATE Calificacion c SET c.fechaCalificacion = :fecha WHERE c.id = :id")
+            .setParameter("fecha", LocalDateTime.now().minusDays(40))
+            .setParameter("id", vieja)
+            .executeUpdate();
+        vaciarCola();
+
+        Paseador actualizado = recargarPaseador();
+        assertEquals(List.of(1, 0, 1, 0, 2), List.of(actualizado.getEstrellas1(), actualizado.getEstrellas2(),
+            actualizado.getEstrellas3(), actualizado.getEstrellas4(), actualizado.getEstrellas5()));
+        assertEquals(13L, actualizado.getSuma30Dias());
+        assertEquals(3, actualizado.getTotal30Dias());
+        assertEquals(14L, actualizado.getSuma90Dias());
+        assertEquals(4, actualizado.getTotal90Dias());
+
+        // Dentro de 60 días solo queda la vieja en la ventana de 90 (y ninguna en la de 30)
+        ventanasCalificaciones.recalcular(LocalDate.now().plusDays(60));
+        actualizado = recargarPaseador();
+        assertEquals(0, actualizado.getTotal30Dias());
+        assertEquals(3, actualizado.getTotal90Dias());
+        assertEquals(13L, actualizado.getSuma90Dias());
+
+        // Dentro de 120 días ya no queda ninguna; el histograma no depende de las ventanas
+        ventanasCalificaciones.recalcular(LocalDate.now().plusDays(120));
+        actualizado = recargarPaseador();
+        assertEquals(0, actualizado.getTotal90Dias());
+        assertEquals(4, actualizado.getTotalCalificaciones());
+        assertEquals(2, actualizado.getEstrellas5());
+    }
+
+    @Test
+    void conciliacionCorrigeAgregadosDescuadrados() {
+        calificar(5);
+        calificar(3);
+        vaciarCola();
+        // Pendiente de sumar: no es un descuadre
+        calificar(1);
+
+        // Simular un desvío (por ejemplo, una calificación borrada a mano)
+        entityManager.createQuery("UPDATE Paseador p SET p.sumaCalificaciones = 100, "
+                + "p.totalCalificaciones = 7, p.calificacionPromedio = 1.0 WHERE p.id = :id")
+            .setParameter("id", paseador.getId())
+            .executeUpdate();
+
+        assertTrue(conciliacionCalificaciones.conciliar() >= 1);
+
+        Paseador corregido = recargarPaseador();
+        assertEquals(8L, corregido.getSumaCalificaciones());
+        assertEquals(2, corregido.getTotalCalificaciones());
+        assertEquals(4.0, corregido.getCalificacionPromedio(), 1e-9);
+
+        // Ya no hay nada que corregir para este paseador
+        assertTrue(paseadorRepository.findDescuadresCalificaciones(paseador.getId(), paseador.getId()).isEmpty());
+    }
+
+    /**
+     * Las calificaciones se encolan después del commit, que en una prueba @Transactional
+     * no ocurre: se encolan como al arrancar (calificaciones con agregada = false)
+     */
+    private int vaciarCola() {
+        entityManager.flush();
+        colaCalificaciones.reencolarPendientes();
+        int sumadas = colaCalificaciones.vaciar();
+        entityManager.clear();
+        return sumadas;
+    }
+
+    private Long calificar(int estrellas) {
+        CalificacionRequest request = new CalificacionRequest(estrellas, "walk", crearPaseoFinalizado().getId(), null);
+        assertTrue(calificacionService.crearCalificacion(cliente.getId(), request).isSuccess());
+        entityManager.flush();
+        return entityManager.createQuery("SELECT MAX(c.id) FROM Calificacion c", Long.class).getSingleResult();
+    }
+
+    private Paseador recargarPaseador() {
+        entityManager.flush();
+        entityManager.clear();
+        return paseadorRepository.findById(paseador.getId()).orElseThrow();
+    }
+
+    private Paseo crearPaseoFinalizado() {
+        Paseo paseo = new Paseo();
+        paseo.setCliente(cliente);
+        paseo.setPaseador(paseador);
+        paseo.setFecha(LocalDate.of(2030, 1, 1));
+        paseo.setHoraInicio(LocalTime.of(10, 0));
+        paseo.setHoraFin(LocalTime.of(11, 0));
+        paseo.setDireccion("Calle 1");
+        paseo.setEstado(Paseo.EstadoPaseo.FINALIZADO);
+        paseo.setIsCompleted(true);
+        return paseoRepository.save(paseo);
+    }
+}
@@ -0,0 +1,250 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.CursorChat;
+import Petfy.Petfy_Back.dto.request.CursorMensaje;
+import Petfy.Petfy_Back.dto.request.MensajeRequest;
+import Petfy.Petfy_Back.dto.response.ChatBandejaResponse;
+import Petfy.Petfy_Back.dto.response.ChatNoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.ChatResponse;
+import Petfy.Petfy_Back.dto.response.MensajeResponse;
+import Petfy.Petfy_Back.dto.response.NoLeidosResponse;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.model.Chat;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.ChatRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.ChatService;
+import Petfy.Petfy_Back.service.LecturasChat;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el chat entre dos usuarios: un solo chat por par, mensajes paginados por cursor
+ * en las dos direcciones (siempre en orden de envío), contadores de no leídos, lecturas
+ * agrupadas y bandeja de entrada por última actividad
+ * 
+ * El vaciado programado de lecturas se desactiva: la prueba vacía LecturasChat a mano
+ */
+@SpringBootTest(properties = "chats.lecturas.intervalo-ms=3600000")
+@Transactional
+class ChatServiceImplTest {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private LecturasChat lecturasChat;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private Usuario paseador;
+
+    @BeforeEach
+    void setUp() {
+        cliente = crearUsuario(usuarioRepository, "chat_cliente");
+        paseador = crearUsuario(usuarioRepository, "chat_paseador");
+    }
+
+    @Test
+    void obtenerOCrearChatDevuelveElMismoChatEnAmbosSentidos() {
+        ChatResponse creado = chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getData();
+        ChatResponse encontrado = chatService.obtenerOCrearChat(paseador.getId(), cliente.getId()).getData();
+
+        assertEquals(creado.getId(), encontrado.getId());
+        assertEquals("chat_paseador", creado.getUsername());
+        assertEquals("chat_cliente", encontrado.getUsername());
+        assertTrue(chatService.esParticipante(creado.getId(), cliente.getId()));
+        assertFalse(chatService.esParticipante(creado.getId(), crearUsuario(usuarioRepository, "chat_otro").getId()));
+        assertFalse(chatService.obtenerOCrearChat(cliente.getId(), cliente.getId()).isSuccess());
+    }
+
+    @Test
+    void elChatSeGuardaConElParOrdenadoYNoSeDuplica() {
+        Long chatId = chatService.obtenerOCrearChat(paseador.getId(), cliente.getId()).getData().getId();
+        entityManager.clear();
+        Chat chat = chatRepository.findById(chatId).orElseThrow();
+        assertEquals(cliente.getId(), chat.getUsuario1().getId());
+        assertEquals(paseador.getId(), chat.getUsuario2().getId());
+
+        // Una creación simultánea que llega tarde no inserta otra fila
+        assertEquals(0, chatRepository.crearParSiNoExiste(cliente.getId(), paseador.getId(), LocalDateTime.now()));
+        assertEquals("Chat encontrado", chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getMessage());
+        assertEquals(1L, entityManager.createQuery("SELECT COUNT(c) FROM Chat c "
+                + "WHERE c.usuario1.id = :usuario1Id AND c.usuario2.id = :usuario2Id", Long.class)
+            .setParameter("usuario1Id", cliente.getId())
+            .setParameter("usuario2Id", paseador.getId())
+            .getSingleResult());
+    }
+
+    @Test
+    void obtenerMensajesPaginaDesdeLosUltimos() {
+        Long chatId = chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getData().getId();
+        List<Long> enviados = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Usuario remitente = i % 2 == 0 ? cliente : paseador;
+            enviados.add(chatService.enviarMensaje(chatId, remitente.getId(), new MensajeRequest("m" + i)).getData().getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Sin cursor: los últimos 3, en orden de envío
+        PaginaResponse<MensajeResponse> ultimos = chatService.obtenerMensajes(chatId, null, null, 3);
+        assertEquals(enviados.subList(4, 7), ids(ultimos));
+
+        // Hacia atrás con next hasta el principio de la conversación
+        PaginaResponse<MensajeResponse> anteriores = chatService.obtenerMensajes(
+            chatId, CursorMensaje.decodificar(ultimos.getNext()), null, 3);
+        assertEquals(enviados.subList(1, 4), ids(anteriores));
+        PaginaResponse<MensajeResponse> primeros = chatService.obtenerMensajes(
+            chatId, CursorMensaje.decodificar(anteriores.getNext()), null, 3);
+        assertEquals(enviados.subList(0, 1), ids(primeros));
+        assertNull(primeros.getNext());
+
+        // Hacia adelante desde el primero
+        CursorMensaje primero = CursorMensaje.de(primeros.getItems().get(0));
+        PaginaResponse<MensajeResponse> posteriores = chatService.obtenerMensajes(chatId, null, primero, 4);
+        assertEquals(enviados.subList(1, 5), ids(posteriores));
+        PaginaResponse<MensajeResponse> resto = chatService.obtenerMensajes(
+            chatId, null, CursorMensaje.decodificar(posteriores.getNext()), 4);
+        assertEquals(enviados.subList(5, 7), ids(resto));
+        assertNull(resto.getNext());
+    }
+
+    @Test
+    void marcarLeidosSoloMarcaLosMensajesRecibidos() {
+        Long chatId = chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getData().getId();
+        chatService.enviarMensaje(chatId, cliente.getId(), new MensajeRequest("hola"));
+        chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("hola, ¿a qué hora?"));
+        chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("puedo a las 10"));
+        entityManager.flush();
+
+        assertEquals(2, chatService.marcarLeidos(chatId, cliente.getId(), Long.MAX_VALUE).getData());
+        assertEquals(0, chatService.marcarLeidos(chatId, cliente.getId(), Long.MAX_VALUE).getData());
+        assertEquals(1, chatService.marcarLeidos(chatId, paseador.getId(), Long.MAX_VALUE).getData());
+    }
+
+    @Test
+    void contadoresDeNoLeidosSeMantienenAlEnviarYLeer() {
+        Usuario otroPaseador = crearUsuario(usuarioRepository, "chat_paseador_2");
+        Long chatId = chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getData().getId();
+        Long otroChatId = chatService.obtenerOCrearChat(otroPaseador.getId(), cliente.getId()).getData().getId();
+        chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("uno"));
+        chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("dos"));
+        chatService.enviarMensaje(otroChatId, otroPaseador.getId(), new MensajeRequest("tres"));
+        chatService.enviarMensaje(chatId, cliente.getId(), new MensajeRequest("respuesta"));
+
+        NoLeidosResponse noLeidos = chatService.obtenerNoLeidos(cliente.getId());
+        assertEquals(3, noLeidos.getTotal());
+        assertEquals(Map.of(chatId, 2, otroChatId, 1), porChat(noLeidos));
+        assertEquals(Map.of(chatId, 1), porChat(chatService.obtenerNoLeidos(paseador.getId())));
+
+        chatService.marcarLeidos(chatId, cliente.getId(), Long.MAX_VALUE);
+        noLeidos = chatService.obtenerNoLeidos(cliente.getId());
+        assertEquals(1, noLeidos.getTotal());
+        assertEquals(Map.of(otroChatId, 1), porChat(noLeidos));
+        // Los del otro participante no cambian
+        assertEquals(1, chatService.obtenerNoLeidos(paseador.getId()).getTotal());
+    }
+
+    @Test
+    void lecturasSeguidasSeEscribenUnaVez() {
+        Long chatId = chatService.obtenerOCrearChat(cliente.getId(), paseador.getId()).getData().getId();
+        Long primero = chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("uno")).getData().getId();
+        Long segundo = chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("dos")).getData().getId();
+        chatService.enviarMensaje(chatId, paseador.getId(), new MensajeRequest("tres"));
+        entityManager.flush();
+
+        // Avisos al desplazarse, incluso fuera de orden: cuenta el mayor
+        long escrituras = lecturasChat.getEscrituras();
+        lecturasChat.registrar(chatId, cliente.getId(), primero);
+        lecturasChat.registrar(chatId, cliente.getId(), segundo);
+        lecturasChat.registrar(chatId, cliente.getId(), primero);
+
+        assertEquals(2, lecturasChat.vaciar());
+        assertEquals(escrituras + 1, lecturasChat.getEscrituras());
+        assertEquals(0, lecturasChat.vaciar());
+        assertEquals(1, chatService.obtenerNoLeidos(cliente.getId()).getTotal());
+    }
+
+    @Test
+    void bandejaOrdenaPorUltimaActividadYPagina() {
+        Usuario segundo = crearUsuario(usuarioRepository, "chat_paseador_2");
+        Usuario tercero = crearUsuario(usuarioRepository, "chat_paseador_3");
+        // El par se guarda ordenado por id: el paseador es usuario2 con el cliente y usuario1 con los demás
+        Long chatA = chatService.obtenerOCrearChat(paseador.getId(), cliente.getId()).getData().getId();
+        Long chatB = chatService.obtenerOCrearChat(segundo.getId(), paseador.getId()).getData().getId();
+        Long chatC = chatService.obtenerOCrearChat(paseador.getId(), tercero.getId()).getData().getId();
+        chatService.enviarMensaje(chatA, cliente.getId(), new MensajeRequest("x".repeat(150)));
+        chatService.enviarMensaje(chatB, paseador.getId(), new MensajeRequest("hola"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // El envío deja el último mensaje en el chat
+        ChatBandejaResponse a = chatService.obtenerBandeja(paseador.getId(), CursorChat.INICIO, 10).getItems().stream()
+            .filter(chat -> chat.getChatId().equals(chatA)).findFirst().orElseThrow();
+        assertEquals("chat_cliente", a.getUsername());
+        assertEquals(ChatBandejaResponse.LARGO_VISTA_PREVIA, a.getLastMessage().length());
+        assertEquals(cliente.getId(), a.getLastMessageSenderId());
+        assertEquals(1, a.getUnread());
+
+        // Actividad explícita para no depender de la resolución del reloj
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 10, 0);
+        fijarActividad(chatA, base.plusMinutes(2));
+        fijarActividad(chatB, base.plusMinutes(3));
+        fijarActividad(chatC, base.plusMinutes(1));
+
+        PaginaResponse<ChatBandejaResponse> primera = chatService.obtenerBandeja(paseador.getId(), CursorChat.INICIO, 2);
+        assertEquals(List.of(chatB, chatA), idsChats(primera));
+        assertEquals("chat_paseador_2", primera.getItems().get(0).getUsername());
+        assertEquals(0, primera.getItems().get(0).getUnread());
+        PaginaResponse<ChatBandejaResponse> segunda = chatService.obtenerBandeja(
+            paseador.getId(), CursorChat.decodificar(primera.getNext()), 2);
+        assertEquals(List.of(chatC), idsChats(segunda));
+        assertNull(segunda.getItems().get(0).getLastMessage());
+        assertNull(segunda.getNext());
+    }
+
+    private void fijarActividad(Long chatId, LocalDateTime actividad) {
+        entityManager.createQuery("UPDATE Chat c SET c.ultimaActividad = :actividad WHERE c.id = :id")
+            .setParameter("actividad", actividad)
+            .setParameter("id", chatId)
+            .executeUpdate();
+    }
+
+    private List<Long> idsChats(PaginaResponse<ChatBandejaResponse> pagina) {
+        return pagina.getItems().stream().map(ChatBandejaResponse::getChatId).toList();
+    }
+
+    private Map<Long, Integer> porChat(NoLeidosResponse noLeidos) {
+        return noLeidos.getChats().stream()
+            .collect(Collectors.toMap(ChatNoLeidosResponse::getChatId, ChatNoLeidosResponse::getUnread));
+    }
+
+    private List<Long> ids(PaginaResponse<MensajeResponse> pagina) {
+        return pagina.getItems().stream().map(MensajeResponse::getId).toList();
+    }
+}
@@ -0,0 +1,24 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+
+/**
+ * Datos compartidos por las pruebas de los servicios
+ */
+final class DatosPrueba {
+
+    private DatosPrueba() {
+    }
+
+    /**
+     * Guarda un usuario con email username@petfy.com y contraseña "password"
+     */
+    static Usuario crearUsuario(UsuarioRepository usuarioRepository, String username) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setEmail(username + "@petfy.com");
+        usuario.setPassword("password");
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,207 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.response.ApiResponse;
+import Petfy.Petfy_Back.model.Calificacion;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.CalificacionRepository;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.ColaCalificaciones;
+import Petfy.Petfy_Back.service.ImportacionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Verifica la importación de paseos y calificaciones desde CSV: IDs por bloques de
+ * generador_ids, fechas originales, calificaciones sumadas al paseador por la cola, y que
+ * una fila inválida o un paseo calificado por otra transacción no dejen nada insertado
+ *
+ * Sin @Transactional: la importación confirma su propia transacción. El vaciado programado
+ * de la cola se desactiva (misma configuración que CalificacionServiceImplTest)
+ */
+@SpringBootTest(properties = "calificaciones.cola.intervalo-ms=3600000")
+class ImportacionServiceImplTest {
+
+    private static final int PASEOS = 2500;
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ColaCalificaciones colaCalificaciones;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @MockitoSpyBean
+    private CalificacionRepository calificacionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario cliente;
+    private Paseador paseador;
+
+    @BeforeEach
+    void setUp() {
+        cliente = crearUsuario(usuarioRepository, "imp_cliente");
+        paseador = new Paseador();
+        paseador.setUsuario(crearUsuario(usuarioRepository, "imp_paseador"));
+        paseador.setTelefono("1234567890");
+        paseador.setDescripcion("Paseador de prueba");
+        paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.APROBADO);
+        paseador = paseadorRepository.save(paseador);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM calificaciones WHERE usuario_id = ?", cliente.getId());
+        jdbcTemplate.update("DELETE FROM calificaciones_diarias WHERE paseador_id = ?", paseador.getId());
+        jdbcTemplate.update("DELETE FROM paseos WHERE cliente_id = ?", cliente.getId());
+        paseadorRepository.deleteAllByIdInBatch(List.of(paseador.getId()));
+        usuarioRepository.deleteAllByIdInBatch(List.of(cliente.getId(), paseador.getUsuario().getId()));
+    }
+
+    @Test
+    void importaPaseosYCalificacionesConIdsPorBloques() {
+        long siguiente = siguienteId("paseos");
+        StringBuilder csv = new StringBuilder("cliente_id,paseador_id,fecha,hora_inicio,hora_fin,direccion,estado,fecha_creacion\n");
+        csv.append(cliente.getId()).append(',').append(paseador.getId())
+            .append(",2023-03-01,10:00,11:00,\"Calle 1, \"\"B\"\"\",FINALIZADO,2023-02-27T09:30\n");
+        for (int i = 1; i < PASEOS; i++) {
+            // Uno de cada diez, cancelado antes de asignar paseador
+            boolean cancelado = i % 10 == 0;
+            csv.append(cliente.getId()).append(',').append(cancelado ? "" : paseador.getId())
+                .append(",2023-03-01,10:00,11:00,Calle ").append(i).append(',')
+                .append(cancelado ? "CANCELADO" : "FINALIZADO").append(",\n");
+        }
+
+        ApiResponse<Integer> respuesta = importacionService.importarPaseos(csv(csv.toString()));
+        assertTrue(respuesta.isSuccess(), respuesta.getMessage());
+        assertEquals(PASEOS, respuesta.getData());
+        assertEquals(PASEOS, contarPaseos());
+        // Los IDs salen de generador_ids (a lo sumo un bloque ya reservado antes de importar)
+        assertTrue(siguienteId("paseos") - siguiente >= PASEOS - 500);
+
+        List<Long> paseos = jdbcTemplate.queryForList(
+            "SELECT id FROM paseos WHERE cliente_id = ? AND estado = 'FINALIZADO' ORDER BY id", Long.class, cliente.getId());
+        Long primero = paseos.get(0);
+        assertEquals("Calle 1, \"B\"", jdbcTemplate.queryForObject(
+            "SELECT direccion FROM paseos WHERE id = ?", String.class, primero));
+        assertEquals(LocalDateTime.of(2023, 2, 27, 9, 30), jdbcTemplate.queryForObject(
+            "SELECT fecha_creacion FROM paseos WHERE id = ?", LocalDateTime.class, primero));
+
+        String calificaciones = "usuario_id,paseo_id,calificacion,comentario,fecha_calificacion\n"
+            + cliente.getId() + "," + paseos.get(0) + ",5,\"Muy bien\",2023-03-02T08:00\n"
+            + cliente.getId() + "," + paseos.get(1) + ",4,,\n"
+            + cliente.getId() + "," + paseos.get(2) + ",3,,\n"
+            + cliente.getId() + ",,5,Buena app,\n";
+        respuesta = importacionService.importarCalificaciones(csv(calificaciones));
+        assertTrue(respuesta.isSuccess(), respuesta.getMessage());
+        assertEquals(4, respuesta.getData());
+
+        // Las tres de paseo quedaron en la cola; al vaciarla se suman al paseador
+        colaCalificaciones.vaciar();
+        Paseador actualizado = paseadorRepository.findById(paseador.getId()).orElseThrow();
+        assertEquals(3, actualizado.getTotalCalificaciones());
+        assertEquals(12L, actualizado.getSumaCalificaciones());
+    }
+
+    @Test
+    void unaFilaInvalidaNoImportaNada() {
+        String encabezado = "cliente_id,paseador_id,fecha,hora_inicio,hora_fin,direccion,estado\n";
+        String valida = cliente.getId() + "," + paseador.getId() + ",2023-03-01,10:00,11:00,Calle 1,FINALIZADO\n";
+
+        ApiResponse<Integer> respuesta = importacionService.importarPaseos(
+            csv(encabezado + valida + valida + "-1," + paseador.getId() + ",2023-03-01,10:00,11:00,Calle 1,FINALIZADO\n"));
+        assertFalse(respuesta.isSuccess());
+        assertEquals("Fila 4: usuario -1 no encontrado", respuesta.getMessage());
+
+        respuesta = importacionService.importarPaseos(
+            csv(encabezado + valida + cliente.getId() + ",,2023-03-01,10:00,11:00,Calle 1,PENDIENTE\n"));
+        assertFalse(respuesta.isSuccess());
+        assertEquals("Fila 3: solo se importan paseos FINALIZADO o CANCELADO", respuesta.getMessage());
+
+        respuesta = importacionService.importarPaseos(csv(encabezado + valida.replace("11:00", "09:00")));
+        assertFalse(respuesta.isSuccess());
+        assertEquals("Fila 2: hora_fin debe ser posterior a hora_inicio", respuesta.getMessage());
+
+        assertEquals(0, contarPaseos());
+    }
+
+    @Test
+    void unPaseoCalificadoDespuesDeValidarNoImportaNada() throws Exception {
+        String paseosCsv = "cliente_id,paseador_id,fecha,hora_inicio,hora_fin,direccion,estado\n"
+            + cliente.getId() + "," + paseador.getId() + ",2023-03-01,10:00,11:00,Calle 1,FINALIZADO\n"
+            + cliente.getId() + "," + paseador.getId() + ",2023-03-02,10:00,11:00,Calle 2,FINALIZADO\n";
+        assertTrue(importacionService.importarPaseos(csv(paseosCsv)).isSuccess());
+        List<Long> paseos = jdbcTemplate.queryForList(
+            "SELECT id FROM paseos WHERE cliente_id = ? ORDER BY id", Long.class, cliente.getId());
+
+        // Al validar ninguno está calificado; justo después otra transacción califica el segundo
+        doAnswer(invocacion -> {
+            Thread.ofPlatform().start(() -> calificar(paseos.get(1))).join();
+            return List.of();
+        }).when(calificacionRepository).findPaseoIdsCalificados(any());
+
+        ApiResponse<Integer> respuesta = importacionService.importarCalificaciones(csv(
+            "usuario_id,paseo_id,calificacion\n"
+                + cliente.getId() + "," + paseos.get(0) + ",5\n"
+                + cliente.getId() + "," + paseos.get(1) + ",4\n"));
+        assertFalse(respuesta.isSuccess());
+        assertTrue(respuesta.getMessage().startsWith("No se pudo importar: "), respuesta.getMessage());
+        assertTrue(respuesta.getMessage().toLowerCase().contains("uk_calificaciones_paseo"), respuesta.getMessage());
+
+        // Solo queda la calificación de la otra transacción
+        assertEquals(1L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM calificaciones WHERE usuario_id = ?", Long.class, cliente.getId()));
+    }
+
+    private void calificar(Long paseoId) {
+        Calificacion calificacion = new Calificacion();
+        calificacion.setUsuario(cliente);
+        calificacion.setPaseo(paseoRepository.findById(paseoId).orElseThrow());
+        calificacion.setTipo(Calificacion.TipoCalificacion.PASEO);
+        calificacion.setCalificacion(3);
+        calificacion.setAgregada(true);
+        calificacionRepository.save(calificacion);
+    }
+
+    private long contarPaseos() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM paseos WHERE cliente_id = ?", Long.class, cliente.getId());
+    }
+
+    private long siguienteId(String nombre) {
+        return jdbcTemplate.queryForObject("SELECT siguiente FROM generador_ids WHERE nombre = ?", Long.class, nombre);
+    }
+
+    private static InputStream csv(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,176 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.response.PaseadorResponse;
+import Petfy.Petfy_Back.dto.response.ReservaPaseador;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.AgendaPaseadores;
+import Petfy.Petfy_Back.service.PaseadorService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica la búsqueda de paseadores disponibles: solo aprobados, ordenados por calificación,
+ * y sin los que tienen un paseo confirmado o en progreso que se solape con el horario pedido
+ */
+@SpringBootTest
+@Transactional
+class PaseadorServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 1);
+
+    @Autowired
+    private PaseadorService paseadorService;
+
+    @Autowired
+    private AgendaPaseadores agendaPaseadores;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private Paseador corto;
+    private Paseador largo;
+    private Paseador enProgreso;
+    private Paseador libre;
+    private Set<Long> creados;
+
+    @BeforeEach
+    void setUp() {
+        cliente = crearUsuario(usuarioRepository, "disp_cliente");
+        corto = crearPaseador("disp_corto", 4.0, Paseador.EstadoAprobacion.APROBADO);
+        largo = crearPaseador("disp_largo", 3.0, Paseador.EstadoAprobacion.APROBADO);
+        enProgreso = crearPaseador("disp_en_progreso", 5.0, Paseador.EstadoAprobacion.APROBADO);
+        libre = crearPaseador("disp_libre", 4.5, Paseador.EstadoAprobacion.APROBADO);
+        Paseador pendiente = crearPaseador("disp_pendiente", 5.0, Paseador.EstadoAprobacion.PENDIENTE);
+        creados = Set.of(corto.getId(), largo.getId(), enProgreso.getId(), libre.getId(), pendiente.getId());
+
+        crearPaseo(corto, Paseo.EstadoPaseo.CONFIRMADO, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        crearPaseo(largo, Paseo.EstadoPaseo.CONFIRMADO, LocalTime.of(6, 0), LocalTime.of(12, 0));
+        crearPaseo(enProgreso, Paseo.EstadoPaseo.EN_PROGRESO, LocalTime.of(12, 0), LocalTime.of(13, 0));
+        // Ni los finalizados ni los pendientes ocupan al paseador
+        crearPaseo(libre, Paseo.EstadoPaseo.FINALIZADO, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        crearPaseo(libre, Paseo.EstadoPaseo.PENDIENTE, LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // Los paseos se crean con el repositorio: cargar la agenda como al arrancar
+        agendaPaseadores.recargar();
+    }
+
+    /**
+     * Los datos de la prueba se revierten; la agenda vuelve a reflejar la base de datos
+     */
+    @AfterTransaction
+    void recargarAgenda() {
+        agendaPaseadores.recargar();
+    }
+
+    @Test
+    void sinHorarioDevuelveLosAprobadosPorCalificacion() {
+        assertEquals(List.of(enProgreso.getId(), libre.getId(), corto.getId(), largo.getId()),
+            disponibles(null, null, null));
+    }
+
+    @Test
+    void excluyeLosPaseadoresConFranjasSolapadas() {
+        // 10:30-11:30 se solapa con corto (10-11) y con largo (6-12)
+        assertEquals(List.of(enProgreso.getId(), libre.getId()),
+            disponibles(FECHA, LocalTime.of(10, 30), LocalTime.of(11, 30)));
+
+        // Empezar justo cuando termina otro paseo no es un solapamiento
+        assertEquals(List.of(enProgreso.getId(), libre.getId(), corto.getId()),
+            disponibles(FECHA, LocalTime.of(11, 0), LocalTime.of(11, 30)));
+
+        assertEquals(List.of(libre.getId(), corto.getId(), largo.getId()),
+            disponibles(FECHA, LocalTime.of(12, 0), LocalTime.of(12, 30)));
+
+        // Otro día todos están libres
+        assertEquals(4, disponibles(FECHA.plusDays(1), LocalTime.of(10, 0), LocalTime.of(11, 0)).size());
+    }
+
+    @Test
+    void laAgendaSeActualizaAlReservarYLiberar() {
+        agendaPaseadores.reservar(new ReservaPaseador(
+            -1L, libre.getId(), FECHA, LocalTime.of(15, 0), LocalTime.of(16, 0), 1L));
+        assertEquals(List.of(enProgreso.getId(), corto.getId(), largo.getId()),
+            disponibles(FECHA, LocalTime.of(15, 30), LocalTime.of(17, 0)));
+
+        // Una reserva atrasada no reemplaza a una liberación más nueva
+        agendaPaseadores.liberar(-1L, 2L);
+        agendaPaseadores.reservar(new ReservaPaseador(
+            -1L, libre.getId(), FECHA, LocalTime.of(15, 0), LocalTime.of(16, 0), 1L));
+        assertEquals(4, disponibles(FECHA, LocalTime.of(15, 30), LocalTime.of(17, 0)).size());
+    }
+
+    @Test
+    void alPurgarLosDiasPasadosOlvidaSusRegistros() {
+        int registros = agendaPaseadores.getRegistros();
+        int reservas = agendaPaseadores.getReservas();
+
+        // Una reserva de ayer se purga en el mismo cambio que la agrega, con su registro
+        agendaPaseadores.reservar(new ReservaPaseador(
+            -2L, libre.getId(), LocalDate.now().minusDays(1), LocalTime.of(15, 0), LocalTime.of(16, 0), 1L));
+
+        assertEquals(reservas, agendaPaseadores.getReservas());
+        assertEquals(registros, agendaPaseadores.getRegistros());
+    }
+
+    private List<Long> disponibles(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        return paseadorService.obtenerPaseadoresDisponibles(fecha, horaInicio, horaFin).stream()
+            .map(PaseadorResponse::getId)
+            .filter(creados::contains)
+            .toList();
+    }
+
+    private Paseador crearPaseador(String username, double calificacion, Paseador.EstadoAprobacion estado) {
+        Paseador paseador = new Paseador();
+        paseador.setUsuario(crearUsuario(usuarioRepository, username));
+        paseador.setTelefono("1234567890");
+        paseador.setDescripcion("Paseador de prueba");
+        paseador.setEstadoAprobacion(estado);
+        paseador.setCalificacionPromedio(calificacion);
+        paseador.setTotalCalificaciones(10);
+        return paseadorRepository.save(paseador);
+    }
+
+    private void crearPaseo(Paseador paseador, Paseo.EstadoPaseo estado, LocalTime horaInicio, LocalTime horaFin) {
+        Paseo paseo = new Paseo();
+        paseo.setCliente(cliente);
+        paseo.setPaseador(paseador);
+        paseo.setFecha(FECHA);
+        paseo.setHoraInicio(horaInicio);
+        paseo.setHoraFin(horaFin);
+        paseo.setDireccion("Calle 1");
+        paseo.setEstado(estado);
+        paseo.setIsCompleted(estado == Paseo.EstadoPaseo.FINALIZADO);
+        paseoRepository.save(paseo);
+    }
+}
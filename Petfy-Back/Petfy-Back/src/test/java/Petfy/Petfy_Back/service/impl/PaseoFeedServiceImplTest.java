@@ -0,0 +1,188 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.PaseoRequest;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.PaseoFeedService;
+import Petfy.Petfy_Back.service.PaseoService;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Verifica el orden del feed de paseos pendientes: un suscriptor recibe primero el snapshot
+ * y después solo los cambios confirmados a partir de él, sin perder ninguno aunque se
+ * suscriba mientras se están creando paseos (un evento repetido del snapshot se tolera:
+ * el cliente lo descarta por su versión)
+ *
+ * Sin @Transactional: los eventos se publican al confirmar cada paseo
+ */
+@SpringBootTest
+class PaseoFeedServiceImplTest {
+
+    private static final int PASEOS = 20;
+
+    @Autowired
+    private PaseoFeedService paseoFeedService;
+
+    @Autowired
+    private PaseoService paseoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private TableroPaseosPendientes tablero;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> paseos = new CopyOnWriteArrayList<>();
+    private MockMvc mockMvc;
+    private Usuario cliente;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(paseoFeedService)).build();
+
+        cliente = new Usuario();
+        cliente.setUsername("feed_cliente");
+        cliente.setEmail("feed_cliente@petfy.com");
+        cliente.setPassword("password");
+        cliente = usuarioRepository.save(cliente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paseoRepository.deleteAllByIdInBatch(paseos);
+        usuarioRepository.deleteAllByIdInBatch(List.of(cliente.getId()));
+        tablero.recargar();
+    }
+
+    @Test
+    void snapshotPrimeroYDespuesLosCambiosPosteriores() throws Exception {
+        // Paseos confirmándose antes, durante y después de la suscripción
+        CountDownLatch mitad = new CountDownLatch(PASEOS / 2);
+        Thread creador = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < PASEOS; i++) {
+                paseos.add(paseoService.crearPaseo(cliente.getId(), pedido(i)).getData().getId());
+                mitad.countDown();
+            }
+        });
+        assertTrue(mitad.await(10, TimeUnit.SECONDS));
+
+        MockHttpServletResponse response = mockMvc.perform(get("/feed"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+        creador.join(10_000);
+        assertEquals(PASEOS, paseos.size());
+
+        // Espera a que lleguen todos los eventos de los paseos que no estaban en el snapshot
+        long limite = System.currentTimeMillis() + 5_000;
+        List<Evento> eventos = leerEventos(response);
+        while (!todosRecibidos(eventos) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            eventos = leerEventos(response);
+        }
+
+        assertFalse(eventos.isEmpty());
+        assertEquals("snapshot", eventos.get(0).nombre(), "El primer evento es el snapshot");
+        for (Evento evento : eventos.subList(1, eventos.size())) {
+            assertEquals("agregado", evento.nombre(), "Solo cambios posteriores al snapshot");
+            assertTrue(evento.datos().get("version").isNumber(), "Cada evento lleva la versión del paseo");
+        }
+        eventos.get(0).datos().forEach(paseo ->
+            assertTrue(paseo.get("version").isNumber(), "El snapshot lleva la versión de cada paseo"));
+        assertTrue(todosRecibidos(eventos), "Cada paseo está en el snapshot o llega como evento");
+    }
+
+    private boolean todosRecibidos(List<Evento> eventos) {
+        if (eventos.isEmpty()) {
+            return false;
+        }
+        Set<Long> recibidos = new HashSet<>();
+        eventos.get(0).datos().forEach(paseo -> recibidos.add(paseo.get("paseoId").asLong()));
+        eventos.subList(1, eventos.size()).forEach(evento -> recibidos.add(evento.datos().get("paseoId").asLong()));
+        return recibidos.containsAll(paseos);
+    }
+
+    /**
+     * Separa el cuerpo SSE en eventos (bloques separados por una línea en blanco)
+     */
+    private List<Evento> leerEventos(MockHttpServletResponse response) throws Exception {
+        List<Evento> eventos = new ArrayList<>();
+        for (String bloque : response.getContentAsString().split("\n\n")) {
+            String nombre = null;
+            StringBuilder datos = new StringBuilder();
+            for (String linea : bloque.split("\n")) {
+                if (linea.startsWith("event:")) {
+                    nombre = linea.substring("event:".length());
+                } else if (linea.startsWith("data:")) {
+                    datos.append(linea.substring("data:".length()));
+                }
+            }
+            if (nombre != null) {
+                eventos.add(new Evento(nombre, objectMapper.readTree(datos.toString())));
+            }
+        }
+        return eventos;
+    }
+
+    private PaseoRequest pedido(int i) {
+        return new PaseoRequest(LocalDate.of(2030, 2, 1).plusDays(i),
+            LocalTime.of(10, 0), LocalTime.of(11, 0), "Calle Feed " + i, "Aleatorio");
+    }
+
+    private record Evento(String nombre, JsonNode datos) {
+    }
+
+    /**
+     * Expone el feed sin la cadena de seguridad (acá solo importa el orden de los eventos)
+     */
+    @RestController
+    static class FeedController {
+
+        private final PaseoFeedService paseoFeedService;
+
+        FeedController(PaseoFeedService paseoFeedService) {
+            this.paseoFeedService = paseoFeedService;
+        }
+
+        @GetMapping(value = "/feed", produces = "text/event-stream")
+        SseEmitter feed() {
+            return paseoFeedService.suscribir();
+        }
+    }
+}
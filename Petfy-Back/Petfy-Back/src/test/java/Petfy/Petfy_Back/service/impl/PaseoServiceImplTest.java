@@ -0,0 +1,269 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.CursorPaseo;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.PaseoPendiente;
+import Petfy.Petfy_Back.dto.response.PaseoResponse;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Paseo;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.PaseoRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.PaseoService;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes;
+import Petfy.Petfy_Back.service.TableroPaseosPendientes.Asignacion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que los listados de paseos se resuelvan con una sola consulta SQL,
+ * sin importar cuántos paseos, clientes o paseadores distintos haya,
+ * que los pendientes salgan del tablero en memoria sin ninguna consulta,
+ * y que la paginación por cursor recorra todos los paseos en orden
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Transactional
+class PaseoServiceImplTest {
+
+    private static final int PASEOS_POR_ESTADO = 5;
+
+    @Autowired
+    private PaseoService paseoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private PaseoRepository paseoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TableroPaseosPendientes tablero;
+
+    private Statistics statistics;
+    private Usuario cliente;
+    private Paseador paseador;
+    private Paseador otroPaseador;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        cliente = crearUsuario(usuarioRepository, "cliente");
+        paseador = crearPaseador(crearUsuario(usuarioRepository, "paseador1"));
+        otroPaseador = crearPaseador(crearUsuario(usuarioRepository, "paseador2"));
+
+        for (int i = 0; i < PASEOS_POR_ESTADO; i++) {
+            crearPaseo(null, Paseo.EstadoPaseo.PENDIENTE, false, i);
+            crearPaseo(i % 2 == 0 ? paseador : otroPaseador, Paseo.EstadoPaseo.PENDIENTE, false, i);
+            crearPaseo(paseador, Paseo.EstadoPaseo.CONFIRMADO, false, i);
+            crearPaseo(paseador, Paseo.EstadoPaseo.FINALIZADO, true, i);
+        }
+
+        // Vaciar el contexto de persistencia para que nada se resuelva desde la cache de primer nivel
+        entityManager.flush();
+        entityManager.clear();
+
+        // Los paseos se crean con el repositorio: cargar el tablero como al arrancar
+        tablero.recargar();
+    }
+
+    /**
+     * Los datos de la prueba se revierten; el tablero vuelve a reflejar la base de datos
+     */
+    @AfterTransaction
+    void recargarTablero() {
+        tablero.recargar();
+    }
+
+    @Test
+    void obtenerPaseosPorClienteUsaUnaConsulta() {
+        PaginaResponse<PaseoResponse> pagina = contarConsultas(1,
+            () -> paseoService.obtenerPaseosPorCliente(cliente.getId(), CursorPaseo.INICIO, 100));
+        assertEquals(PASEOS_POR_ESTADO * 4, pagina.getItems().size());
+        assertNull(pagina.getNext());
+    }
+
+    @Test
+    void obtenerPaseosPendientesNoConsultaLaBaseDeDatos() {
+        PaginaResponse<PaseoResponse> pagina = contarConsultas(0,
+            () -> obtenerPendientes(CursorPaseo.INICIO, 100, null, null, Asignacion.TODOS));
+        assertEquals(PASEOS_POR_ESTADO * 2, pagina.getItems().size());
+        assertNull(pagina.getNext());
+    }
+
+    @Test
+    void obtenerPaseosPendientesFiltraPorAsignacionYFecha() {
+        List<PaseoResponse> abiertos = obtenerPendientes(CursorPaseo.INICIO, 100, null, null, Asignacion.ABIERTOS).getItems();
+        assertEquals(PASEOS_POR_ESTADO, abiertos.size());
+        assertTrue(abiertos.stream().allMatch(p -> p.getWalker() == null));
+
+        // Días 0, 2 y 4 asignados a paseador1
+        List<PaseoResponse> asignados = obtenerPendientes(CursorPaseo.INICIO, 100, null, null, Asignacion.ASIGNADOS).getItems();
+        assertEquals(3, asignados.size());
+        assertTrue(asignados.stream().allMatch(p -> "paseador1".equals(p.getWalker())));
+
+        List<PaseoResponse> enRango = obtenerPendientes(CursorPaseo.INICIO, 100,
+            LocalDate.of(2030, 1, 2), LocalDate.of(2030, 1, 3), Asignacion.TODOS).getItems();
+        assertEquals(4, enRango.size());
+        assertTrue(enRango.stream().allMatch(p -> !p.getDate().isBefore(LocalDate.of(2030, 1, 2))
+            && !p.getDate().isAfter(LocalDate.of(2030, 1, 3))));
+    }
+
+    @Test
+    void obtenerPaseosPendientesPaginaDesdeMemoria() {
+        List<PaseoResponse> recorridos = new ArrayList<>();
+        CursorPaseo cursor = CursorPaseo.INICIO;
+        while (true) {
+            PaginaResponse<PaseoResponse> pagina = obtenerPendientes(cursor, 3, null, null, Asignacion.TODOS);
+            recorridos.addAll(pagina.getItems());
+            if (pagina.getNext() == null) {
+                break;
+            }
+            cursor = CursorPaseo.decodificar(pagina.getNext());
+        }
+        assertEquals(PASEOS_POR_ESTADO * 2, recorridos.size());
+        assertEquals(recorridos.size(), new HashSet<>(recorridos.stream().map(PaseoResponse::getId).toList()).size());
+    }
+
+    @Test
+    void tableroIgnoraCambiosConVersionAnterior() {
+        PaseoResponse primero = obtenerPendientes(CursorPaseo.INICIO, 1, null, null, Asignacion.TODOS).getItems().get(0);
+
+        tablero.quitar(primero.getId(), 5L);
+        // Un alta atrasada (versión 3) no debe volver a mostrar el paseo quitado
+        tablero.agregar(new PaseoPendiente(primero, null, 3L));
+        assertEquals(PASEOS_POR_ESTADO * 2 - 1, tablero.getTamanio());
+
+        tablero.agregar(new PaseoPendiente(primero, null, 6L));
+        assertEquals(PASEOS_POR_ESTADO * 2, tablero.getTamanio());
+    }
+
+    @Test
+    void obtenerPaseosPendientesPorClienteUsaUnaConsulta() {
+        List<PaseoResponse> paseos = contarConsultas(1,
+            () -> paseoService.obtenerPaseosPendientesPorCliente(cliente.getId()));
+        assertEquals(PASEOS_POR_ESTADO * 2, paseos.size());
+    }
+
+    @Test
+    void obtenerPaseosConfirmadosPorPaseadorUsaUnaConsulta() {
+        List<PaseoResponse> paseos = contarConsultas(1, () -> paseoService.obtenerPaseosConfirmadosPorPaseador(
+            paseador.getId(), CursorPaseo.INICIO, 100)).getItems();
+        assertEquals(PASEOS_POR_ESTADO, paseos.size());
+        assertEquals("paseador1", paseos.get(0).getWalker());
+        assertEquals("confirmado", paseos.get(0).getStatus());
+    }
+
+    @Test
+    void obtenerPaseosFinalizadosUsaUnaConsulta() {
+        PaginaResponse<PaseoResponse> pagina = contarConsultas(1,
+            () -> paseoService.obtenerPaseosFinalizadosPorCliente(cliente.getId(), CursorPaseo.INICIO, 100));
+        assertEquals(PASEOS_POR_ESTADO, pagina.getItems().size());
+
+        List<PaseoResponse> enRango = contarConsultas(1, () -> paseoService.obtenerPaseosFinalizadosPorRango(
+            cliente.getId(), LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2)));
+        assertEquals(2, enRango.size());
+    }
+
+    @Test
+    void paginacionPorCursorRecorreTodosLosPaseosEnOrden() {
+        List<PaseoResponse> recorridos = new ArrayList<>();
+        CursorPaseo cursor = CursorPaseo.INICIO;
+        int paginas = 0;
+
+        while (true) {
+            CursorPaseo actual = cursor;
+            PaginaResponse<PaseoResponse> pagina = contarConsultas(1,
+                () -> paseoService.obtenerPaseosPorCliente(cliente.getId(), actual, 3));
+            assertTrue(pagina.getItems().size() <= 3);
+            recorridos.addAll(pagina.getItems());
+            paginas++;
+            if (pagina.getNext() == null) {
+                break;
+            }
+            cursor = CursorPaseo.decodificar(pagina.getNext());
+        }
+
+        assertEquals(PASEOS_POR_ESTADO * 4, recorridos.size());
+        assertEquals(recorridos.size(), new HashSet<>(recorridos.stream().map(PaseoResponse::getId).toList()).size());
+        assertEquals((PASEOS_POR_ESTADO * 4 + 2) / 3, paginas);
+        for (int i = 1; i < recorridos.size(); i++) {
+            PaseoResponse anterior = recorridos.get(i - 1);
+            PaseoResponse siguiente = recorridos.get(i);
+            assertTrue(!siguiente.getDate().isBefore(anterior.getDate()), "Orden por fecha");
+        }
+    }
+
+    @Test
+    void pageSizeSeLimitaAlMaximo() {
+        PaginaResponse<PaseoResponse> pagina = obtenerPendientes(CursorPaseo.INICIO, 10_000, null, null, Asignacion.TODOS);
+        assertEquals(PaseoServiceImpl.MAX_PAGE_SIZE, pagina.getSize());
+    }
+
+    private PaginaResponse<PaseoResponse> obtenerPendientes(CursorPaseo cursor, int size,
+                                                            LocalDate desde, LocalDate hasta, Asignacion asignacion) {
+        return paseoService.obtenerPaseosPendientes(cursor, size, desde, hasta, asignacion, paseador.getId());
+    }
+
+    private <T> T contarConsultas(long esperadas, Supplier<T> consulta) {
+        statistics.clear();
+        T resultado = consulta.get();
+        assertEquals(esperadas, statistics.getPrepareStatementCount(), "Cantidad de sentencias SQL");
+        return resultado;
+    }
+
+    private Paseador crearPaseador(Usuario usuario) {
+        Paseador nuevo = new Paseador();
+        nuevo.setUsuario(usuario);
+        nuevo.setTelefono("1234567890");
+        nuevo.setDescripcion("Paseador de prueba");
+        nuevo.setEstadoAprobacion(Paseador.EstadoAprobacion.APROBADO);
+        return paseadorRepository.save(nuevo);
+    }
+
+    private void crearPaseo(Paseador asignado, Paseo.EstadoPaseo estado, boolean completado, int dia) {
+        Paseo paseo = new Paseo();
+        paseo.setCliente(cliente);
+        paseo.setPaseador(asignado);
+        paseo.setFecha(LocalDate.of(2030, 1, 1).plusDays(dia));
+        paseo.setHoraInicio(LocalTime.of(10, 0));
+        paseo.setHoraFin(LocalTime.of(11, 0));
+        paseo.setDireccion("Calle " + dia);
+        paseo.setEstado(estado);
+        paseo.setIsCompleted(completado);
+        paseoRepository.save(paseo);
+    }
+}
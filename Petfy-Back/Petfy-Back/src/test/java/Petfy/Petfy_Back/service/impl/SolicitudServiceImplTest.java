@@ -0,0 +1,144 @@
+package Petfy.Petfy_Back.service.impl;
+
+import Petfy.Petfy_Back.dto.request.CursorSolicitud;
+import Petfy.Petfy_Back.dto.response.PaginaResponse;
+import Petfy.Petfy_Back.dto.response.SolicitudResponse;
+import Petfy.Petfy_Back.model.Paseador;
+import Petfy.Petfy_Back.model.Solicitud;
+import Petfy.Petfy_Back.model.Usuario;
+import Petfy.Petfy_Back.repository.PaseadorRepository;
+import Petfy.Petfy_Back.repository.SolicitudRepository;
+import Petfy.Petfy_Back.repository.UsuarioRepository;
+import Petfy.Petfy_Back.service.SolicitudService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static Petfy.Petfy_Back.service.impl.DatosPrueba.crearUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la cola de revisión de solicitudes (orden de llegada, paginada por cursor) y la
+ * aprobación/rechazo por lotes de solicitudes, paseadores y roles
+ */
+@SpringBootTest
+@Transactional
+class SolicitudServiceImplTest {
+
+    // Después de cualquier solicitud real de la base de pruebas
+    private static final LocalDateTime FECHA = LocalDateTime.of(2100, 1, 1, 10, 0);
+    private static final CursorSolicitud DESDE = new CursorSolicitud(FECHA.minusDays(1), 0L);
+
+    @Autowired
+    private SolicitudService solicitudService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PaseadorRepository paseadorRepository;
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario admin;
+    private Solicitud primera;
+    private Solicitud empatada;
+    private Solicitud ultima;
+
+    @BeforeEach
+    void setUp() {
+        admin = crearUsuario(usuarioRepository, "rev_admin");
+        // Dos con la misma fecha: desempata el ID
+        primera = crearSolicitud("rev_primera", FECHA);
+        empatada = crearSolicitud("rev_empatada", FECHA);
+        ultima = crearSolicitud("rev_ultima", FECHA.plusHours(1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void colaDeRevisionEnOrdenDeLlegadaYPaginada() {
+        PaginaResponse<SolicitudResponse> pagina = solicitudService.obtenerPendientes(DESDE, 2);
+        assertEquals(List.of(primera.getId(), empatada.getId()), ids(pagina));
+        SolicitudResponse solicitud = pagina.getItems().get(0);
+        assertEquals("rev_primera", solicitud.getUsername());
+        assertEquals(paseadorRepository.findByUsuarioId(primera.getUsuario().getId()).orElseThrow().getId(),
+            solicitud.getWalkerId());
+
+        pagina = solicitudService.obtenerPendientes(CursorSolicitud.decodificar(pagina.getNext()), 2);
+        assertEquals(List.of(ultima.getId()), ids(pagina));
+        assertNull(pagina.getNext());
+    }
+
+    @Test
+    void aprobarYRechazarPorLotes() {
+        // Repetidos e inexistentes no cuentan
+        assertEquals(2, solicitudService.aprobar(admin.getId(),
+            List.of(empatada.getId(), primera.getId(), primera.getId(), -1L), "Documentación verificada").getData());
+        // Ya no están pendientes: una segunda revisión no las toca
+        assertEquals(0, solicitudService.rechazar(admin.getId(), List.of(primera.getId()), null).getData());
+        assertEquals(1, solicitudService.rechazar(admin.getId(), List.of(ultima.getId()), null).getData());
+        entityManager.clear();
+
+        for (Solicitud aprobada : List.of(primera, empatada)) {
+            Solicitud actual = solicitudRepository.findById(aprobada.getId()).orElseThrow();
+            assertEquals(Solicitud.EstadoSolicitud.APROBADA, actual.getEstado());
+            assertEquals(admin.getId(), actual.getAdminAprobador().getId());
+            assertEquals("Documentación verificada", actual.getComentarioAdmin());
+            assertEquals(Paseador.EstadoAprobacion.APROBADO, estadoPaseador(aprobada));
+            assertEquals(Usuario.RolUsuario.WALKER, rol(aprobada));
+        }
+        assertEquals(Solicitud.EstadoSolicitud.RECHAZADA,
+            solicitudRepository.findById(ultima.getId()).orElseThrow().getEstado());
+        assertEquals(Paseador.EstadoAprobacion.RECHAZADO, estadoPaseador(ultima));
+        assertEquals(Usuario.RolUsuario.CUSTOMER, rol(ultima));
+
+        assertTrue(solicitudService.obtenerPendientes(DESDE, 10).getItems().isEmpty());
+    }
+
+    private Paseador.EstadoAprobacion estadoPaseador(Solicitud solicitud) {
+        return paseadorRepository.findByUsuarioId(solicitud.getUsuario().getId()).orElseThrow().getEstadoAprobacion();
+    }
+
+    private Usuario.RolUsuario rol(Solicitud solicitud) {
+        return usuarioRepository.findById(solicitud.getUsuario().getId()).orElseThrow().getRol();
+    }
+
+    private static List<Long> ids(PaginaResponse<SolicitudResponse> pagina) {
+        return pagina.getItems().stream().map(SolicitudResponse::getId).toList();
+    }
+
+    private Solicitud crearSolicitud(String username, LocalDateTime fecha) {
+        Usuario usuario = crearUsuario(usuarioRepository, username);
+        Paseador paseador = new Paseador();
+        paseador.setUsuario(usuario);
+        paseador.setTelefono("1234567890");
+        paseador.setDescripcion("Paseador de prueba");
+        paseador.setEstadoAprobacion(Paseador.EstadoAprobacion.PENDIENTE);
+        paseadorRepository.save(paseador);
+
+        Solicitud solicitud = new Solicitud();
+        solicitud.setUsuario(usuario);
+        solicitud.setTelefono("1234567890");
+        solicitud.setDescripcion("Paseador de prueba");
+        solicitud = solicitudRepository.saveAndFlush(solicitud);
+        // fecha_solicitud la fija @PrePersist: se corrige después de insertar
+        entityManager.createQuery("UPDATE Solicitud s SET s.fechaSolicitud = :fecha WHERE s.id = :id")
+            .setParameter("fecha", fecha)
+            .setParameter("id", solicitud.getId())
+            .executeUpdate();
+        return solicitud;
+    }
+}
@@ -19,8 +19,6 @@ export class WalkerApplicationComponent implements OnInit {
   };
 
   selectedFileName = '';
-  showValidationModal = false;
-  validationCode = '';
   isSubmitting = false;
 
   constructor(private router: Router, private authService: AuthService) {}
@@ -56,61 +54,23 @@ export class WalkerApplicationComponent implements OnInit {
       return;
     }
 
-    // Mostrar modal de código de validación
-    this.showValidationModal = true;
-    this.validationCode = '';
-  }
-
-  closeValidationModal(): void {
-    this.showValidationModal = false;
-    this.validationCode = '';
-  }
-
-  submitWithValidationCode(): void {
-    // Si no hay código, no enviar al backend
-    if (!this.validationCode.trim()) {
-      this.closeValidationModal();
-      alert('Tu solicitud quedó en revisión y será evaluada por nuestro equipo.');
-      this.router.navigate(['/profile']);
-      return;
-    }
-
     if (this.isSubmitting) {
       return;
     }
 
     this.isSubmitting = true;
 
-    // Solo llamar al backend si hay código de validación
+    // Toda solicitud queda en revisión hasta que un administrador la apruebe
     this.authService.solicitarSerPaseador(
       this.applicationForm.phone,
       this.applicationForm.description,
-      this.applicationForm.documentImage!,
-      this.validationCode.trim()
+      this.applicationForm.documentImage
     ).subscribe({
       next: (response) => {
         this.isSubmitting = false;
-        this.showValidationModal = false;
-        
-        console.log('Respuesta completa:', response);
-        
         if (response.success) {
-          const mensaje = (response.message || '').toLowerCase();
-          console.log('Mensaje recibido:', mensaje);
-          console.log('¿Contiene "aprobada"?', mensaje.includes('aprobada'));
-          console.log('¿Contiene "aprobado"?', mensaje.includes('aprobado'));
-          
-          // Verificar si fue aprobado (buscar "aprobada" o "aprobado" en el mensaje)
-          if (mensaje.includes('aprobada') || mensaje.includes('aprobado')) {
-            alert('¡Solicitud aprobada con éxito! Rol cambiado a paseador. Ahora puedes ver las solicitudes de los clientes.');
-            // Redirigir a la página de paseador
-            this.router.navigate(['/walker-requests']);
-          } else {
-            // Si el código es incorrecto, mostrar mensaje de error
-            alert('Código de validación incorrecto. Tu solicitud quedó en revisión y será evaluada por nuestro equipo.');
-            // Redirigir al perfil
-            this.router.navigate(['/profile']);
-          }
+          alert(response.message || 'Tu solicitud quedó en revisión y será evaluada por nuestro equipo.');
+          this.router.navigate(['/profile']);
         } else {
           alert('Error: ' + response.message);
         }
@@ -122,11 +82,4 @@ export class WalkerApplicationComponent implements OnInit {
       }
     });
   }
-
-  cancelValidation(): void {
-    this.closeValidationModal();
-    // Si cancela, no enviar al backend, solo mostrar mensaje
-    alert('Tu solicitud quedó en revisión y será evaluada por nuestro equipo.');
-    this.router.navigate(['/profile']);
-  }
 }
@@ -1,25 +1,42 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
-import { AuthService } from '../services/auth.service';
+import { catchError, switchMap, throwError } from 'rxjs';
+import { AuthService, User } from '../services/auth.service';
+
+// Arma el header de Authorization: Bearer si hay token, Basic como alternativa
+const withAuthorization = (req: HttpRequest<unknown>, user: User): HttpRequest<unknown> => {
+  const authorization = user.accessToken
+    ? `Bearer ${user.accessToken}`
+    : `Basic ${btoa(`${user.email}:${user.password}`)}`;
+  return req.clone({
+    setHeaders: {
+      Authorization: authorization
+    }
+  });
+};
 
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
   const authService = inject(AuthService);
   const currentUser = authService.getCurrentUser();
 
   // Si hay un usuario logueado y la petición es al backend, agregar header de Authorization
-  if (currentUser && req.url.startsWith('http://localhost:8080/api/')) {
+  // (excepto en /auth/refresh, que se autentica con el refreshToken del body)
+  if (currentUser && req.url.startsWith('http://localhost:8080/api/') && !req.url.endsWith('/auth/refresh')) {
     // Solo agregar Authorization si no está ya presente
     if (!req.headers.has('Authorization')) {
-      const credentials = btoa(`${currentUser.email}:${currentUser.password}`);
-      const clonedReq = req.clone({
-        setHeaders: {
-          Authorization: `Basic ${credentials}`
-        }
-      });
-      return next(clonedReq);
+      return next(withAuthorization(req, currentUser)).pipe(
+        catchError((error: HttpErrorResponse) => {
+          // Si el accessToken expiró, renovarlo una vez y reintentar la petición
+          if (error.status !== 401 || !currentUser.refreshToken) {
+            return throwError(() => error);
+          }
+          return authService.refreshTokens().pipe(
+            switchMap(user => user ? next(withAuthorization(req, user)) : throwError(() => error))
+          );
+        })
+      );
     }
   }
 
   return next(req);
 };
-
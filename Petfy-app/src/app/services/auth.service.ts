@@ -5,8 +5,10 @@ import { BehaviorSubject, Observable, catchError, map, of } from 'rxjs';
 export interface User {
   username: string;
   email: string;
-  password: string;
+  password?: string; // Solo en sesiones sin accessToken (Basic Auth, anteriores a los tokens)
   role?: 'customer' | 'walker';
+  accessToken?: string;
+  refreshToken?: string;
 }
 
 export interface LoginCredentials {
@@ -26,7 +28,13 @@ export class AuthService {
     // Verificar si hay un usuario logueado en localStorage
     const savedUser = localStorage.getItem('currentUser');
     if (savedUser) {
-      this.currentUserSubject.next(JSON.parse(savedUser));
+      const user: User = JSON.parse(savedUser);
+      // Sesiones con token guardadas antes de dejar de persistir la contraseña
+      if (user.accessToken && user.password !== undefined) {
+        delete user.password;
+        localStorage.setItem('currentUser', JSON.stringify(user));
+      }
+      this.currentUserSubject.next(user);
     }
   }
 
@@ -60,7 +68,7 @@ export class AuthService {
   }
 
   // Registrar nuevo usuario
-  register(userData: User & { confirmPassword: string }): Observable<{ success: boolean; message: string; user?: User }> {
+  register(userData: User & { password: string; confirmPassword: string }): Observable<{ success: boolean; message: string; user?: User }> {
     // Validar username
     if (!this.validateUsername(userData.username)) {
       return of({
@@ -102,9 +110,14 @@ export class AuthService {
             const newUser: User = {
               username: response.data.username,
               email: response.data.email,
-              password: userData.password, // Guardar contraseña en texto plano para el frontend (no se envía al servidor después)
-              role: response.data.role || 'customer'
+              role: response.data.role || 'customer',
+              accessToken: response.data.accessToken,
+              refreshToken: response.data.refreshToken
             };
+            // Con tokens no se guarda la contraseña: solo la necesita Basic Auth (backend sin tokens)
+            if (!newUser.accessToken) {
+              newUser.password = userData.password;
+            }
 
             // Guardar usuario en localStorage
             localStorage.setItem('currentUser', JSON.stringify(newUser));
@@ -144,9 +157,14 @@ export class AuthService {
             const user: User = {
               username: response.data.username,
               email: response.data.email,
-              password: credentials.password, // Guardar contraseña en texto plano para el frontend (no se envía al servidor después)
-              role: response.data.role || 'customer'
+              role: response.data.role || 'customer',
+              accessToken: response.data.accessToken,
+              refreshToken: response.data.refreshToken
             };
+            // Con tokens no se guarda la contraseña: solo la necesita Basic Auth (backend sin tokens)
+            if (!user.accessToken) {
+              user.password = credentials.password;
+            }
 
             // Guardar usuario en localStorage
             localStorage.setItem('currentUser', JSON.stringify(user));
@@ -227,7 +245,9 @@ export class AuthService {
             username: response.username,
             email: response.email,
             password: currentUser.password, // Mantener la contraseña del localStorage
-            role: response.role || 'customer'
+            role: response.role || 'customer',
+            accessToken: currentUser.accessToken,
+            refreshToken: currentUser.refreshToken
           };
 
           // Actualizar usuario en localStorage y Subject
@@ -243,6 +263,38 @@ export class AuthService {
       );
   }
 
+  // Renovar tokens con el refreshToken (lo usa auth.interceptor.ts al recibir un 401)
+  refreshTokens(): Observable<User | null> {
+    const currentUser = this.getCurrentUser();
+    if (!currentUser?.refreshToken) {
+      return of(null);
+    }
+
+    return this.http.post<{ success: boolean; message: string; data?: any }>(`${this.apiUrl}/refresh`, { refreshToken: currentUser.refreshToken })
+      .pipe(
+        map(response => {
+          if (!response.success || !response.data) {
+            return null;
+          }
+
+          const user: User = {
+            ...currentUser,
+            role: response.data.role || currentUser.role,
+            accessToken: response.data.accessToken,
+            refreshToken: response.data.refreshToken
+          };
+
+          localStorage.setItem('currentUser', JSON.stringify(user));
+          this.currentUserSubject.next(user);
+          return user;
+        }),
+        catchError(error => {
+          console.error('Error al renovar token:', error);
+          return of(null);
+        })
+      );
+  }
+
   // Verificar si hay usuario logueado
   isLoggedIn(): boolean {
     return this.currentUserSubject.value !== null;
@@ -270,7 +322,7 @@ export class AuthService {
   }
 
   // Solicitar ser paseador en el backend
-  solicitarSerPaseador(phone: string, description: string, documentImage: File, validationCode?: string | null): Observable<{ success: boolean; message: string }> {
+  solicitarSerPaseador(phone: string, description: string, documentImage: File): Observable<{ success: boolean; message: string }> {
     const currentUser = this.getCurrentUser();
     if (!currentUser) {
       return of({
@@ -285,11 +337,7 @@ export class AuthService {
       phone: phone,
       description: description
     };
-    
-    // Agregar código de validación (solo se llama si hay código)
-    if (validationCode) {
-      requestData.validationCode = validationCode.trim();
-    }
+
     formData.append('request', new Blob([JSON.stringify(requestData)], { type: 'application/json' }));
     if (documentImage) {
       formData.append('documentImage', documentImage);
@@ -297,21 +345,9 @@ export class AuthService {
 
     // NO establecer Content-Type para FormData - el navegador lo hace automáticamente con el boundary
     // El interceptor HTTP agregará automáticamente el header de Authorization
-    // Llamar al backend
+    // Llamar al backend (la solicitud queda en revisión: el rol cambia cuando un administrador la aprueba)
     return this.http.post<{ success: boolean; message: string; data?: any }>('http://localhost:8080/api/paseadores/solicitar', formData)
       .pipe(
-        map(response => {
-          if (response.success) {
-            // Actualizar rol del usuario en el frontend solo si fue aprobado
-            const mensaje = response.message || '';
-            if (mensaje.includes('aprobada')) {
-              currentUser.role = 'walker';
-              localStorage.setItem('currentUser', JSON.stringify(currentUser));
-              this.currentUserSubject.next(currentUser);
-            }
-          }
-          return response;
-        }),
         catchError(error => {
           console.error('Error al solicitar ser paseador:', error);
           console.error('Error completo:', JSON.stringify(error, null, 2));
@@ -347,7 +383,9 @@ export class AuthService {
               username: response.data.username,
               email: response.data.email,
               password: currentUser.password, // Mantener la contraseña del localStorage
-              role: response.data.role || 'customer'
+              role: response.data.role || 'customer',
+              accessToken: currentUser.accessToken,
+              refreshToken: currentUser.refreshToken
             };
 
             // Actualizar usuario en localStorage y Subject